@@ -0,0 +1,106 @@
+package com.lgcns.haibackend;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.lgcns.haibackend.aiPerson.domain.entity.AIPersonEntity;
+
+/**
+ * 벤치마크 공용 한국어 픽스처
+ *
+ * - SSE 트레이스 (src/jmh/resources/sse): 게이트웨이 응답 본문을 그대로 저장한 것.
+ *   prompt-dangun.sse 는 AI 인물 답변(한자, 목록, 개행 포함), knowledge-hunminjeongeum.sse 는 Knowledge Base 답변(마크다운, 따옴표 포함)
+ *   이며 content 청크는 Bedrock 처럼 1~5 글자 단위로 잘려 있고 usage / done / [DONE] 으로 끝난다.
+ * - AI 인물 카탈로그: 시드 데이터(ai_person_data.sql) 의 38명
+ */
+public final class BenchmarkFixtures {
+
+    public static final String PROMPT_TRACE = "prompt-dangun.sse";
+    public static final String KNOWLEDGE_TRACE = "knowledge-hunminjeongeum.sse";
+
+    // (prompt_id, name, era, summary, ex_question, greeting_message, year)
+    private static final Pattern AI_PERSON_ROW = Pattern.compile(
+            "\\(\\s*'([^']*)',\\s*'([^']*)',\\s*'([^']*)',\\s*'([^']*)',\\s*'([^']*)',\\s*'([^']*)',\\s*(-?\\d+|NULL)\\s*\\)");
+
+    private BenchmarkFixtures() {
+    }
+
+    public static byte[] sseTrace(String name) {
+        return read("/sse/" + name);
+    }
+
+    /**
+     * 응답 본문을 네트워크에서 받는 단위로 나눈다
+     * - event: TCP read 하나에 SSE 이벤트 하나 (토큰 단위 flush)
+     * - fragmented: 1~24 바이트 조각 (이벤트 경계와 한글 UTF-8 시퀀스가 중간에서 잘림, 시드 고정)
+     */
+    public static List<byte[]> split(byte[] body, String chunking) {
+        List<byte[]> chunks = new ArrayList<>();
+        if ("event".equals(chunking)) {
+            int start = 0;
+            for (int i = 1; i < body.length; i++) {
+                if (body[i - 1] == '\n' && body[i] == '\n') {
+                    chunks.add(slice(body, start, i + 1));
+                    start = i + 1;
+                }
+            }
+            if (start < body.length) {
+                chunks.add(slice(body, start, body.length));
+            }
+            return chunks;
+        }
+
+        SplittableRandom random = new SplittableRandom(42);
+        int pos = 0;
+        while (pos < body.length) {
+            int size = Math.min(body.length - pos, 1 + random.nextInt(24));
+            chunks.add(slice(body, pos, pos + size));
+            pos += size;
+        }
+        return chunks;
+    }
+
+    public static List<AIPersonEntity> aiPersons() {
+        Matcher matcher = AI_PERSON_ROW.matcher(new String(read("/ai_person_data.sql"), StandardCharsets.UTF_8));
+        List<AIPersonEntity> persons = new ArrayList<>();
+        while (matcher.find()) {
+            persons.add(AIPersonEntity.builder()
+                    .promptId(matcher.group(1))
+                    .name(matcher.group(2))
+                    .era(matcher.group(3))
+                    .summary(matcher.group(4))
+                    .exQuestion(matcher.group(5))
+                    .greetingMessage(matcher.group(6))
+                    .year("NULL".equals(matcher.group(7)) ? null : Integer.valueOf(matcher.group(7)))
+                    .build());
+        }
+        if (persons.isEmpty()) {
+            throw new IllegalStateException("ai_person_data.sql 에서 인물을 찾을 수 없습니다");
+        }
+        return persons;
+    }
+
+    private static byte[] slice(byte[] body, int from, int to) {
+        ByteArrayOutputStream piece = new ByteArrayOutputStream(to - from);
+        piece.write(body, from, to - from);
+        return piece.toByteArray();
+    }
+
+    private static byte[] read(String path) {
+        try (InputStream in = BenchmarkFixtures.class.getResourceAsStream(path)) {
+            if (in == null) {
+                throw new IllegalStateException(path + " 를 찾을 수 없습니다");
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new IllegalStateException(path + " 를 읽을 수 없습니다", e);
+        }
+    }
+}
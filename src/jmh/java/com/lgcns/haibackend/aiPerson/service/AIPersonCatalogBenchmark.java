@@ -0,0 +1,98 @@
+package com.lgcns.haibackend.aiPerson.service;
+
+import java.lang.reflect.Proxy;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lgcns.haibackend.BenchmarkFixtures;
+import com.lgcns.haibackend.aiPerson.domain.dto.AIPersonListDTO;
+import com.lgcns.haibackend.aiPerson.domain.entity.AIPersonEntity;
+import com.lgcns.haibackend.aiPerson.repository.AIPersonRepository;
+
+import ch.qos.logback.classic.Level;
+
+/**
+ * GET /api/ai-person 목록 응답 비용 (시드 데이터 38명, DB 조회 제외)
+ *
+ * - perRequestMapping: 카탈로그 도입 전처럼 요청마다 AIPersonListDTO 매핑 + 연도순 정렬 + JSON 직렬화
+ * - snapshotRebuild: AIPersonCatalog 스냅샷 재생성 (목록/상세 매핑, 정렬, 원본/gzip 직렬화) - 시작/주기 갱신 때만
+ * - cachedGzip: 스냅샷의 미리 직렬화한 gzip 응답
+ * - cachedNotModified: If-None-Match 가 맞아 304
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AIPersonCatalogBenchmark {
+
+    private List<AIPersonEntity> entities;
+    private ObjectMapper objectMapper;
+    private AIPersonCatalog catalog;
+    private String etag;
+
+    @Setup
+    public void setUp() {
+        // 재생성마다 남는 INFO 로그는 측정에서 뺀다
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(AIPersonCatalog.class)).setLevel(Level.WARN);
+        entities = BenchmarkFixtures.aiPersons();
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+
+        // 카탈로그는 findAll 만 쓴다
+        AIPersonRepository repository = (AIPersonRepository) Proxy.newProxyInstance(
+                AIPersonRepository.class.getClassLoader(), new Class<?>[] { AIPersonRepository.class },
+                (proxy, method, args) -> {
+                    if ("findAll".equals(method.getName()) && method.getParameterCount() == 0) {
+                        return entities;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        catalog = new AIPersonCatalog(repository, objectMapper);
+        catalog.invalidate();
+        // gzip 을 받는 클라이언트가 다시 보내는 ETag
+        etag = catalog.getSnapshot().getPersonsJson().getGzipEtag();
+    }
+
+    @Benchmark
+    public byte[] perRequestMapping() throws JsonProcessingException {
+        List<AIPersonListDTO> persons = entities.stream()
+                .map(AIPersonListDTO::fromEntity)
+                .sorted(Comparator.comparing(AIPersonListDTO::getYear,
+                        Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+        return objectMapper.writeValueAsBytes(persons);
+    }
+
+    @Benchmark
+    public String snapshotRebuild() {
+        catalog.invalidate();
+        return catalog.getSnapshot().getEtag();
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> cachedGzip() {
+        return catalog.getSnapshot().getPersonsJson().toResponse(null, "gzip, deflate, br");
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> cachedNotModified() {
+        return catalog.getSnapshot().getPersonsJson().toResponse(etag, "gzip, deflate, br");
+    }
+}
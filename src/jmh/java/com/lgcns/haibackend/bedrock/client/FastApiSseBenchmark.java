@@ -0,0 +1,79 @@
+package com.lgcns.haibackend.bedrock.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lgcns.haibackend.BenchmarkFixtures;
+import com.lgcns.haibackend.bedrock.domain.dto.StreamChunk;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * 녹화된 게이트웨이 응답 1건을 FastApiClient.decodeAndParseSse 로 StreamChunk 까지 읽는 비용
+ * (SseDataDecoderBenchmark 는 디코더만, 여기서는 DataBuffer -> 디코딩 -> JSON 파싱 -> 필터까지 실제 경로 전체)
+ *
+ * 응답 1건 = content 청크 120~130개 + usage + done. -Pjmh.profilers=gc 로 gc.alloc.rate.norm 을 함께 본다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FastApiSseBenchmark {
+
+    @Param({ BenchmarkFixtures.PROMPT_TRACE, BenchmarkFixtures.KNOWLEDGE_TRACE })
+    public String trace;
+
+    @Param({ "event", "fragmented" })
+    public String chunking;
+
+    private final DefaultDataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+
+    private FastApiClient client;
+    private List<byte[]> chunks;
+
+    @Setup
+    public void setUp() {
+        // decodeAndParseSse 는 chunkReader 만 쓴다
+        client = new FastApiClient(null, new ObjectMapper().findAndRegisterModules(), null, null, null);
+        client.init();
+        chunks = BenchmarkFixtures.split(BenchmarkFixtures.sseTrace(trace), chunking);
+
+        List<StreamChunk> parsed = client.decodeAndParseSse(buffers()).collectList().block();
+        if (parsed == null || !StreamChunk.TYPE_DONE.equals(parsed.get(parsed.size() - 1).getType())) {
+            throw new IllegalStateException("녹화된 응답을 끝까지 읽지 못했습니다: " + trace);
+        }
+    }
+
+    @Benchmark
+    public void decodeAndParse(Blackhole blackhole) {
+        client.decodeAndParseSse(buffers()).subscribe(blackhole::consume);
+    }
+
+    // DataBuffer 는 읽으면 위치가 움직이므로 호출마다 감싼다 (복사 없음)
+    private Flux<DataBuffer> buffers() {
+        List<DataBuffer> buffers = new ArrayList<>(chunks.size());
+        for (byte[] chunk : chunks) {
+            buffers.add(bufferFactory.wrap(chunk));
+        }
+        return Flux.fromIterable(buffers);
+    }
+}
@@ -0,0 +1,87 @@
+package com.lgcns.haibackend.bedrock.client;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.lgcns.haibackend.aiPerson.service.AIPersonCatalog;
+import com.lgcns.haibackend.bedrock.domain.dto.StreamChunk;
+
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import reactor.core.publisher.SignalType;
+
+/**
+ * 토큰 경로 지표 기록 비용 (GatewayStreamMetrics, Prometheus 레지스트리)
+ *
+ * - noMetrics: 청크를 읽기만 한다 (기준선)
+ * - recordPerChunk: 스트림 기록기 하나로 청크 CHUNKS 개를 기록 (청크 1개당 시간)
+ *
+ * JMH 를 -prof gc 로 돌렸을 때 recordPerChunk 의 gc.alloc.rate.norm 이 0.5 B/op 정도(스트림당 기록기 하나 / CHUNKS)면
+ * 청크마다 할당이 없다는 뜻이다.
+ * 예) ./gradlew jmh -Pjmh.includes=GatewayStreamMetricsBenchmark -Pjmh.profilers=gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+@OperationsPerInvocation(GatewayStreamMetricsBenchmark.CHUNKS)
+public class GatewayStreamMetricsBenchmark {
+
+    static final int CHUNKS = 100;
+
+    private List<StreamChunk> chunks;
+    private GatewayStreamMetrics.StreamMeters meters;
+
+    @Setup
+    public void setUp() throws Exception {
+        chunks = new ArrayList<>(CHUNKS);
+        for (int i = 0; i < CHUNKS; i++) {
+            chunks.add(StreamChunk.content(i % 2 == 0 ? "세종대왕은 " : "훈민정음을 창제했습니다. "));
+        }
+
+        // 카탈로그는 promptClass() 에서만 쓰므로 여기서는 필요 없다
+        GatewayStreamMetrics metrics = new GatewayStreamMetrics(
+                new PrometheusMeterRegistry(PrometheusConfig.DEFAULT), (AIPersonCatalog) null);
+        Field max = GatewayStreamMetrics.class.getDeclaredField("maxPromptClasses");
+        max.setAccessible(true);
+        max.set(metrics, 20);
+        meters = metrics.meters(GatewayHedger.PROMPT, "조선시대");
+    }
+
+    @Benchmark
+    public int noMetrics() {
+        int length = 0;
+        for (StreamChunk chunk : chunks) {
+            if (chunk.isContent()) {
+                length += chunk.getText().length();
+            }
+        }
+        return length;
+    }
+
+    @Benchmark
+    public GatewayStreamMetrics.StreamRecorder recordPerChunk() {
+        GatewayStreamMetrics.StreamRecorder recorder = new GatewayStreamMetrics.StreamRecorder(meters);
+        for (StreamChunk chunk : chunks) {
+            recorder.onChunk(chunk);
+        }
+        recorder.finish(SignalType.ON_COMPLETE);
+        return recorder;
+    }
+}
@@ -0,0 +1,52 @@
+package com.lgcns.haibackend.bedrock.client;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 기존 FastApiClient.decodeAndParseSse 의 문자열 기반 디코딩 로직 (비교 기준용)
+ * Flux 연산자만 걷어내고 청크마다 수행하던 String 변환/누적/split 은 그대로 옮겼다.
+ */
+final class LegacySseDecoder {
+
+    private StringBuilder buffer = new StringBuilder();
+
+    List<String> decode(byte[] bytes) {
+        buffer.append(new String(bytes, StandardCharsets.UTF_8));
+        String accumulated = buffer.toString();
+
+        String[] events = accumulated.split("\n\n");
+        List<String> out = new ArrayList<>();
+        if (events.length > 1) {
+            buffer = new StringBuilder(events[events.length - 1]);
+            for (int i = 0; i < events.length - 1; i++) {
+                parseEvent(events[i], out);
+            }
+        }
+        return out;
+    }
+
+    List<String> flush() {
+        List<String> out = new ArrayList<>();
+        String remaining = buffer.toString().trim();
+        if (!remaining.isEmpty()) {
+            parseEvent(remaining, out);
+        }
+        return out;
+    }
+
+    private static void parseEvent(String event, List<String> out) {
+        for (String line : event.split("\n")) {
+            String[] parts = line.contains("data: ") ? line.split("(?=data: )") : new String[] { line };
+            for (String part : parts) {
+                if (part.startsWith("data: ")) {
+                    String data = part.substring(6).trim();
+                    if (!data.isEmpty()) {
+                        out.add(data);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.lgcns.haibackend.bedrock.client;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * 게이트웨이 토큰 스트림 한 개(응답 1건)를 디코딩하는 비용 비교
+ *
+ * - event: TCP read 하나에 SSE 이벤트 하나 (토큰 단위 전송)
+ * - fragmented: 이벤트가 1~24 바이트 조각으로 쪼개져 도착 (한글 UTF-8 시퀀스도 중간에서 잘림)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SseDataDecoderBenchmark {
+
+    private static final String[] TOKENS = {
+            "세종대왕", "은 ", "1443년", "에 ", "훈민정음", "을 ", "창제", "하였", "습니다", ". ",
+            "백성", "이 ", "쉽게 ", "글을 ", "읽고 ", "쓸 ", "수 ", "있도록", " 하기 ", "위함", "이었", "지요", ".\n"
+    };
+
+    @Param({ "200", "1000" })
+    public int tokenCount;
+
+    @Param({ "event", "fragmented" })
+    public String chunking;
+
+    private List<byte[]> chunks;
+
+    @Setup
+    public void setUp() {
+        StringBuilder stream = new StringBuilder();
+        List<String> events = new ArrayList<>();
+        for (int i = 0; i < tokenCount; i++) {
+            String text = TOKENS[i % TOKENS.length].replace("\n", "\\n");
+            events.add("data: {\"type\": \"content\", \"text\": \"" + text + "\"}\n\n");
+        }
+        events.add("data: {\"type\": \"done\"}\n\n");
+        events.add("data: [DONE]\n\n");
+
+        chunks = new ArrayList<>();
+        if ("event".equals(chunking)) {
+            for (String event : events) {
+                chunks.add(event.getBytes(StandardCharsets.UTF_8));
+            }
+            return;
+        }
+
+        events.forEach(stream::append);
+        byte[] all = stream.toString().getBytes(StandardCharsets.UTF_8);
+        SplittableRandom random = new SplittableRandom(42);
+        int pos = 0;
+        while (pos < all.length) {
+            int size = Math.min(all.length - pos, 1 + random.nextInt(24));
+            ByteArrayOutputStream piece = new ByteArrayOutputStream(size);
+            piece.write(all, pos, size);
+            chunks.add(piece.toByteArray());
+            pos += size;
+        }
+    }
+
+    @Benchmark
+    public void legacyDecoder(Blackhole bh) {
+        LegacySseDecoder decoder = new LegacySseDecoder();
+        for (byte[] chunk : chunks) {
+            bh.consume(decoder.decode(chunk));
+        }
+        bh.consume(decoder.flush());
+    }
+
+    @Benchmark
+    public void incrementalDecoder(Blackhole bh) {
+        SseDataDecoder decoder = new SseDataDecoder();
+        for (byte[] chunk : chunks) {
+            bh.consume(decoder.decode(chunk, 0, chunk.length));
+        }
+        bh.consume(decoder.flush());
+    }
+}
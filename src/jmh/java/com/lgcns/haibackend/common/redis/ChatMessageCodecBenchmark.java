@@ -0,0 +1,124 @@
+package com.lgcns.haibackend.common.redis;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lgcns.haibackend.bedrock.domain.dto.MessageDTO;
+
+/**
+ * 채팅 히스토리 한 개(max-messages = 40)를 인코딩/디코딩하는 비용과 저장 바이트 비교
+ *
+ * 코퍼스는 ai_person_data.sql 의 한국사 인물 소개/질문/인사말 문장으로 만든다.
+ * - user: 예시 질문 한 문장
+ * - assistant: 소개/인사말 문장 3~12개를 이어 붙인 답변 (짧은 답변과 압축 대상인 긴 답변이 섞인다)
+ *
+ * 저장 바이트는 setUp 에서 출력한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChatMessageCodecBenchmark {
+
+    private static final int HISTORY_MESSAGES = 40;
+
+    // SQL 의 작은따옴표 문자열 중 문장으로 볼 만한 것만
+    private static final Pattern QUOTED = Pattern.compile("'([^']{15,})'");
+
+    @Param({ "json", "compact", "compact-lz4" })
+    public String codec;
+
+    private ChatMessageCodec messageCodec;
+    private List<MessageDTO> history;
+    private List<byte[]> encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        switch (codec) {
+            case "json":
+                messageCodec = new JsonChatMessageCodec(objectMapper);
+                break;
+            case "compact":
+                messageCodec = new CompactChatMessageCodec(0);
+                break;
+            default:
+                messageCodec = new CompactChatMessageCodec(512);
+        }
+
+        history = koreanHistory();
+        encoded = new ArrayList<>(history.size());
+        long totalBytes = 0;
+        for (MessageDTO message : history) {
+            byte[] bytes = messageCodec.encode(message);
+            encoded.add(bytes);
+            totalBytes += bytes.length;
+        }
+        System.out.printf("%n[%s] %d messages, %d bytes stored (%.1f bytes/message)%n",
+                codec, history.size(), totalBytes, (double) totalBytes / history.size());
+    }
+
+    @Benchmark
+    public void encodeHistory(Blackhole blackhole) {
+        for (MessageDTO message : history) {
+            blackhole.consume(messageCodec.encode(message));
+        }
+    }
+
+    @Benchmark
+    public void decodeHistory(Blackhole blackhole) {
+        for (byte[] bytes : encoded) {
+            blackhole.consume(messageCodec.decode(bytes));
+        }
+    }
+
+    private static List<MessageDTO> koreanHistory() throws IOException {
+        List<String> sentences = new ArrayList<>();
+        try (InputStream in = ChatMessageCodecBenchmark.class.getResourceAsStream("/ai_person_data.sql")) {
+            if (in == null) {
+                throw new IllegalStateException("ai_person_data.sql 을 찾을 수 없습니다");
+            }
+            Matcher matcher = QUOTED.matcher(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            while (matcher.find()) {
+                sentences.add(matcher.group(1));
+            }
+        }
+
+        SplittableRandom random = new SplittableRandom(42);
+        List<MessageDTO> messages = new ArrayList<>(HISTORY_MESSAGES);
+        while (messages.size() < HISTORY_MESSAGES) {
+            messages.add(MessageDTO.user(sentences.get(random.nextInt(sentences.size()))));
+
+            StringBuilder answer = new StringBuilder();
+            int count = 3 + random.nextInt(10);
+            for (int i = 0; i < count; i++) {
+                answer.append(sentences.get(random.nextInt(sentences.size()))).append(' ');
+            }
+            messages.add(MessageDTO.assistant(answer.toString().trim()));
+        }
+        return messages;
+    }
+}
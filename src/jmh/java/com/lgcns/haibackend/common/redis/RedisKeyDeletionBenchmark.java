@@ -0,0 +1,165 @@
+package com.lgcns.haibackend.common.redis;
+
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lgcns.haibackend.bedrock.domain.dto.MessageDTO;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * 사용자 한 명의 AI 인물 채팅 key 삭제 지연 비교 (KEYS vs 사용자 인덱스 vs 인덱스 + SCAN 폴백)
+ *
+ * 로컬 Redis 가 필요하다 (docker compose up redis). 다른 데이터와 섞이지 않도록
+ * -Dbench.redis.db (기본 15) 번 DB 를 사용하고 끝나면 FLUSHDB 한다.
+ * 예) ./gradlew jmh -Pjmh.includes=RedisKeyDeletionBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RedisKeyDeletionBenchmark {
+
+    private static final int USER_CHAT_KEYS = 5;
+    private static final int FILL_BATCH = 10_000;
+    private static final byte[] EMPTY_MESSAGE = "{}".getBytes(StandardCharsets.UTF_8);
+
+    @Param({ "1000000" })
+    public int keyCount;
+
+    private LettuceConnectionFactory connectionFactory;
+    private RedisTemplate<String, String> redisTemplate;
+    private RedisTemplate<String, byte[]> binaryRedisTemplate;
+    private RedisChatRepository indexedRepository;
+    private RedisChatRepository scanFallbackRepository;
+    private UUID userId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        RedisStandaloneConfiguration config = new RedisStandaloneConfiguration(
+                System.getProperty("bench.redis.host", "localhost"),
+                Integer.getInteger("bench.redis.port", 6379));
+        config.setDatabase(Integer.getInteger("bench.redis.db", 15));
+        connectionFactory = new LettuceConnectionFactory(config);
+        connectionFactory.afterPropertiesSet();
+
+        redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setDefaultSerializer(new StringRedisSerializer());
+        redisTemplate.afterPropertiesSet();
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushDb();
+            return null;
+        });
+
+        // 다른 사용자들의 채팅 key 로 keyspace 채우기
+        for (int from = 0; from < keyCount; from += FILL_BATCH) {
+            int to = Math.min(from + FILL_BATCH, keyCount);
+            int start = from;
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (int i = start; i < to; i++) {
+                    String key = "aiperson:chat:person-" + (i % 50) + ":" + UUID.randomUUID();
+                    connection.listCommands().rPush(key.getBytes(StandardCharsets.UTF_8), EMPTY_MESSAGE);
+                }
+                return null;
+            });
+        }
+
+        binaryRedisTemplate = new RedisTemplate<>();
+        binaryRedisTemplate.setConnectionFactory(connectionFactory);
+        binaryRedisTemplate.setKeySerializer(new StringRedisSerializer());
+        binaryRedisTemplate.setValueSerializer(RedisSerializer.byteArray());
+        binaryRedisTemplate.afterPropertiesSet();
+
+        ChatMessageCodec codec = new VersionedChatMessageCodec(new ObjectMapper(), "compact", 512);
+        indexedRepository = newRepository(codec, false);
+        scanFallbackRepository = newRepository(codec, true);
+        userId = UUID.randomUUID();
+    }
+
+    @Setup(Level.Invocation)
+    public void createUserChats() {
+        for (int i = 0; i < USER_CHAT_KEYS; i++) {
+            indexedRepository.appendTurn(userId, "aiperson:chat:person-" + i + ":" + userId,
+                    MessageDTO.user("질문"), MessageDTO.assistant("답변"));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushDb();
+            return null;
+        });
+        connectionFactory.destroy();
+    }
+
+    @Benchmark
+    public Object keysPattern() {
+        // 기존 구현: KEYS 로 전체 keyspace 를 훑은 뒤 DEL
+        Set<String> keys = redisTemplate.keys("aiperson:chat:*:" + userId);
+        return keys == null || keys.isEmpty() ? 0L : redisTemplate.delete(keys);
+    }
+
+    @Benchmark
+    public void userIndex() {
+        indexedRepository.deleteAllAIPersonChats(userId);
+    }
+
+    @Benchmark
+    public void userIndexWithScanFallback() {
+        scanFallbackRepository.deleteAllAIPersonChats(userId);
+    }
+
+    private RedisChatRepository newRepository(ChatMessageCodec codec, boolean scanFallback) throws Exception {
+        RedisChatRepository repository = new RedisChatRepository(redisTemplate, binaryRedisTemplate,
+                new ReactiveRedisTemplate<>(connectionFactory, RedisSerializationContext
+                        .<String, byte[]>newSerializationContext(new StringRedisSerializer())
+                        .value(RedisSerializer.byteArray())
+                        .build()),
+                codec, new SimpleMeterRegistry(), ObservationRegistry.NOOP);
+        setField(repository, "maxMessages", 40);
+        // SCAN 폴백은 기존 key TTL(6시간) 동안만 켜지는 설정과 같게 둔다
+        setField(repository, "legacyScanUntil",
+                scanFallback ? Instant.now().plus(Duration.ofHours(6)).toString() : "");
+        repository.init();
+        return repository;
+    }
+
+    private static void setField(Object target, String name, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
@@ -0,0 +1,81 @@
+package com.lgcns.haibackend.common.sse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.lgcns.haibackend.BenchmarkFixtures;
+import com.lgcns.haibackend.bedrock.domain.dto.StreamChunk;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * 컨트롤러(BedrockController / AIPersonChatController) 가 게이트웨이 청크를 클라이언트용 SSE 프레임으로 다시 감싸는 비용
+ *
+ * - legacyConcat: 이전 컨트롤러 방식 (replace 3번으로 이스케이프 후 문자열 연결, 제어문자/\r/\t 는 이스케이프되지 않음)
+ * - sseWriter: StreamChunkSseWriter (미리 만든 ObjectWriter 로 StreamChunk 직렬화 -> ServerSentEvent)
+ *
+ * 청크는 녹화된 응답(BenchmarkFixtures)을 파싱해 만든다. 응답 1건 단위로 측정한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StreamChunkSseWriterBenchmark {
+
+    @Param({ BenchmarkFixtures.PROMPT_TRACE, BenchmarkFixtures.KNOWLEDGE_TRACE })
+    public String trace;
+
+    private List<StreamChunk> chunks;
+    private StreamChunkSseWriter sseWriter;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        sseWriter = new StreamChunkSseWriter(objectMapper);
+        chunks = new ArrayList<>();
+        ObjectReader reader = objectMapper.readerFor(StreamChunk.class);
+        for (String line : new String(BenchmarkFixtures.sseTrace(trace), StandardCharsets.UTF_8).split("\n")) {
+            if (line.startsWith("data: {")) {
+                chunks.add(reader.readValue(line.substring("data: ".length())));
+            }
+        }
+    }
+
+    @Benchmark
+    public void legacyConcat(Blackhole blackhole) {
+        Flux.fromIterable(chunks)
+                .filter(StreamChunk::isContent)
+                .map(chunk -> {
+                    String escaped = chunk.getText().replace("\\", "\\\\")
+                            .replace("\"", "\\\"")
+                            .replace("\n", "\\n");
+                    return "{\"type\": \"content\", \"text\": \"" + escaped + "\"}";
+                })
+                .subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    public void sseWriter(Blackhole blackhole) {
+        sseWriter.write(Flux.fromIterable(chunks)).subscribe(blackhole::consume);
+    }
+}
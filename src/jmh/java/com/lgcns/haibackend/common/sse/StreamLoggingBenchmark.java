@@ -0,0 +1,144 @@
+package com.lgcns.haibackend.common.sse;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.lgcns.haibackend.bedrock.domain.dto.StreamChunk;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import reactor.core.publisher.Flux;
+
+/**
+ * 스트리밍 토큰 1개당 로깅 비용 비교 (스트림 하나 = 청크 CHUNKS 개, 결과는 청크 1개당 시간)
+ *
+ * - noLogging: 로그 없이 같은 Flux 파이프라인만 (기준선)
+ * - perChunkInfo: 기존 컨트롤러처럼 청크마다 log.info("[SENDING CHUNK] ...")
+ * - streamSummary: StreamSummaryLogger - 스트림 종료 시 요약 한 줄
+ *
+ * appender 는 sync(기본 프로필, 콘솔과 같은 동기 쓰기) / async(prod 프로필, neverBlock) 두 가지.
+ * 콘솔 대신 /dev/null 로 쓰므로 실제 터미널/로그 수집기보다는 비용이 작게 나온다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+@OperationsPerInvocation(StreamLoggingBenchmark.CHUNKS)
+public class StreamLoggingBenchmark {
+
+    static final int CHUNKS = 100;
+
+    private static final Logger legacyLog = LoggerFactory.getLogger("com.lgcns.haibackend.bedrock.controller.BedrockController");
+
+    @Param({ "sync", "async" })
+    private String appender;
+
+    private List<StreamChunk> chunks;
+    private StreamSummaryLogger summaryLogger;
+    private UUID userId;
+    private Appender<ILoggingEvent> root;
+
+    @Setup
+    public void setUp() throws Exception {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%15.15t] %-40.40logger{39} : %m%n");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> output = new OutputStreamAppender<>();
+        output.setContext(context);
+        output.setEncoder(encoder);
+        output.setOutputStream(devNull());
+        output.start();
+        root = output;
+
+        if ("async".equals(appender)) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            async.setNeverBlock(true);
+            async.addAppender(output);
+            async.start();
+            root = async;
+        }
+
+        ch.qos.logback.classic.Logger rootLogger = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        rootLogger.setLevel(Level.INFO);
+        rootLogger.addAppender(root);
+
+        chunks = new ArrayList<>();
+        for (int i = 0; i < CHUNKS - 2; i++) {
+            chunks.add(StreamChunk.content("세종대왕은 훈민정음을 "));
+        }
+        chunks.add(StreamChunk.builder().type(StreamChunk.TYPE_USAGE)
+                .usage(Map.of("input_tokens", 120, "output_tokens", CHUNKS - 2)).build());
+        chunks.add(StreamChunk.done());
+
+        summaryLogger = new StreamSummaryLogger();
+        userId = UUID.randomUUID();
+    }
+
+    @TearDown
+    public void tearDown() {
+        root.stop();
+    }
+
+    @Benchmark
+    public StreamChunk noLogging() {
+        return Flux.fromIterable(chunks)
+                .doOnNext(chunk -> {
+                })
+                .blockLast();
+    }
+
+    @Benchmark
+    public StreamChunk perChunkInfo() {
+        return Flux.fromIterable(chunks)
+                .doOnNext(chunk -> legacyLog.info("[SENDING CHUNK] type={}, text={}", chunk.getType(), chunk.getText()))
+                .blockLast();
+    }
+
+    @Benchmark
+    public StreamChunk streamSummary() {
+        return summaryLogger.track("kb", userId, Flux.fromIterable(chunks))
+                .blockLast();
+    }
+
+    private static OutputStream devNull() throws FileNotFoundException {
+        File devNull = new File("/dev/null");
+        return devNull.exists() ? new FileOutputStream(devNull) : OutputStream.nullOutputStream();
+    }
+}
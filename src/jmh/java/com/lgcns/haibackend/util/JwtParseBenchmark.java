@@ -0,0 +1,82 @@
+package com.lgcns.haibackend.util;
+
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * 요청 1건당 JWT 인증 비용 비교
+ *
+ * - perRequestParser: 기존 JwtFilter/JwtProvider 처럼 요청마다 Key/파서를 만들고 서명 검증
+ * - cachedPrincipal: JwtProvider.parse (공유 파서 + 검증 결과 캐시, 같은 토큰 재사용)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtParseBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-benchmark-secret-key-0123456789";
+
+    private String token;
+    private JwtProvider jwtProvider;
+
+    @Setup
+    public void setUp() throws Exception {
+        Key key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        token = Jwts.builder()
+                .setSubject(UUID.randomUUID().toString())
+                .claim("role", "STUDENT")
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(key)
+                .compact();
+
+        jwtProvider = new JwtProvider();
+        setField(jwtProvider, "secret", SECRET);
+        setField(jwtProvider, "cacheMaxSize", 10_000L);
+        jwtProvider.init();
+    }
+
+    @Benchmark
+    public String perRequestParser() {
+        Key key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        Claims claims = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+        return claims.getSubject() + claims.get("role", String.class);
+    }
+
+    @Benchmark
+    public String cachedPrincipal() {
+        JwtPrincipal principal = jwtProvider.parse(token);
+        return principal.getUserId() + principal.getRole();
+    }
+
+    private static void setField(Object target, String name, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
@@ -0,0 +1,234 @@
+package com.lgcns.haibackend.loadtest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * 동시 스트림 수용량 측정 드라이버
+ * 백엔드의 /api/ai/chat, /api/ai-person/{promptId}/chat 에 N개의 SSE 스트림을 동시에 열고 다음을 출력한다.
+ * - TTFT (요청부터 첫 content 프레임까지) p50 / p90 / p99 / max - 엔드포인트별
+ * - 스트림 완료율 (done 프레임까지 받은 비율)과 결과별 개수 (error 프레임, 끊김, HTTP 상태, timeout, 연결 실패)
+ * - 노드 자원 사용량 (NodeResourceSampler - 백엔드 management 포트의 /actuator/prometheus)
+ *
+ * 사용자 한도(chat.limit.user.max-concurrent-streams)에 걸리지 않도록 사용자 수만큼 JWT 를 따로 만든다.
+ * 같은 스텁/같은 N 으로 servlet 모드(기본)와 reactive 모드(--spring.profiles.active=reactive)를
+ * 번갈아 띄워 두 결과를 비교한다.
+ *
+ * 실행: ./gradlew loadtestProbe -Pprobe.target=http://localhost:8080 -Pprobe.streams=2000
+ *       -Pprobe.endpoint=mixed           ai | ai-person | mixed (번갈아)
+ *       -Pprobe.users=2000               JWT 사용자 수 (기본: 스트림 수)
+ *       -Pprobe.ramp-seconds=10          스트림 시작을 고르게 나눌 시간 (0 이면 한꺼번에)
+ *       -Pprobe.metrics-target=http://localhost:9090   백엔드 management 포트 (actuator)
+ *       (JWT_SECRET_KEY 또는 -Pprobe.jwt-secret 은 백엔드와 같은 값, 없으면 loadtest 프로필 기본값)
+ */
+public final class ConcurrentStreamProbe {
+
+    // application-loadtest.yaml 의 jwt.secret 기본값
+    private static final String LOADTEST_SECRET = "loadtest-secret-key-loadtest-secret-key-0123456789";
+
+    // 시드 데이터(ai_person_data.sql) 의 promptId 일부 - 시대가 고르게 섞이도록 고른다
+    private static final String DEFAULT_PROMPT_IDS = "6C4ARC62GG,A0WGPOVLB7";
+
+    private static final String CONTENT_MARKER = "\"type\":\"content\"";
+    private static final String DONE_MARKER = "\"type\":\"done\"";
+    private static final String ERROR_MARKER = "\"type\":\"error\"";
+
+    private static final String[] QUESTIONS = {
+            "훈민정음은 언제 만들어졌나요?", "홍익인간의 뜻을 알려 주세요.", "고구려의 영토는 어디까지였나요?",
+            "집현전에서는 어떤 일을 했나요?", "임진왜란 때 거북선은 어떻게 쓰였나요?"
+    };
+
+    private ConcurrentStreamProbe() {
+    }
+
+    public static void main(String[] args) {
+        String target = System.getProperty("probe.target", "http://localhost:8080");
+        String metricsTarget = System.getProperty("probe.metrics-target", "http://localhost:9090");
+        int streams = Integer.getInteger("probe.streams", 1000);
+        int users = Math.max(1, Integer.getInteger("probe.users", streams));
+        String endpoint = System.getProperty("probe.endpoint", "mixed");
+        String[] promptIds = System.getProperty("probe.prompt-ids", DEFAULT_PROMPT_IDS).split(",");
+        Duration ramp = Duration.ofSeconds(Long.getLong("probe.ramp-seconds", 0));
+        Duration timeout = Duration.ofSeconds(Long.getLong("probe.timeout-seconds", 120));
+        Duration sampleInterval = Duration.ofMillis(Long.getLong("probe.sample-ms", 1000));
+        String secret = System.getProperty("probe.jwt-secret", System.getenv("JWT_SECRET_KEY"));
+        if (secret == null || secret.isBlank()) {
+            secret = LOADTEST_SECRET;
+        }
+
+        String[] tokens = new String[users];
+        for (int i = 0; i < users; i++) {
+            tokens[i] = token(secret);
+        }
+
+        // 클라이언트 쪽 커넥션 풀이 병목이 되지 않도록 스트림 수만큼 연결을 허용
+        HttpClient client = HttpClient.create(ConnectionProvider.builder("probe")
+                        .maxConnections(streams)
+                        .pendingAcquireMaxCount(-1)
+                        .build())
+                .baseUrl(target)
+                .headers(headers -> headers
+                        .set(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                        .set(HttpHeaderNames.ACCEPT, "text/event-stream"));
+
+        AtomicInteger open = new AtomicInteger();
+        AtomicInteger peakOpen = new AtomicInteger();
+        Map<String, AtomicInteger> outcomes = new ConcurrentHashMap<>();
+        String[] paths = new String[streams];
+        long[] ttftMillis = new long[streams];
+        Arrays.fill(ttftMillis, -1);
+        for (int i = 0; i < streams; i++) {
+            boolean aiPerson = "ai-person".equals(endpoint) || ("mixed".equals(endpoint) && i % 2 == 1);
+            paths[i] = aiPerson ? "/api/ai-person/" + promptIds[i % promptIds.length].trim() + "/chat" : "/api/ai/chat";
+        }
+
+        NodeResourceSampler sampler = new NodeResourceSampler(metricsTarget, sampleInterval);
+        sampler.start();
+
+        Flux<Integer> starts = Flux.range(0, streams);
+        if (!ramp.isZero()) {
+            starts = starts.delayElements(ramp.dividedBy(streams));
+        }
+
+        long started = System.nanoTime();
+        starts.flatMap(i -> openStream(client, tokens[i % users], paths[i], i, ttftMillis, open, peakOpen)
+                        .timeout(timeout)
+                        .onErrorResume(e -> Mono.just(outcomeOf(e)))
+                        .doOnNext(outcome -> outcomes.computeIfAbsent(outcome, key -> new AtomicInteger())
+                                .incrementAndGet()), streams)
+                .blockLast();
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - started).toMillis();
+        sampler.stop();
+
+        int completed = outcomes.getOrDefault(Outcome.COMPLETED, new AtomicInteger()).get();
+        System.out.printf("[PROBE] target=%s endpoint=%s streams=%d users=%d peakOpen=%d elapsed=%dms%n",
+                target, endpoint, streams, users, peakOpen.get(), elapsedMillis);
+        System.out.printf("[PROBE] completion rate=%.2f%% outcomes=%s%n",
+                100.0 * completed / streams, new TreeMap<>(outcomes));
+        printTtft("all", ttftMillis, paths, null);
+        printTtft("ai", ttftMillis, paths, "/api/ai/chat");
+        printTtft("ai-person", ttftMillis, paths, "/api/ai-person/");
+        System.out.printf("[PROBE] node %s%n", sampler.summary());
+    }
+
+    private static String token(String secret) {
+        return Jwts.builder()
+                .setSubject(UUID.randomUUID().toString())
+                .claim("role", "STUDENT")
+                .setExpiration(new Date(System.currentTimeMillis() + Duration.ofHours(1).toMillis()))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+
+    private static Mono<String> openStream(HttpClient client, String token, String path, int index,
+            long[] ttftMillis, AtomicInteger open, AtomicInteger peakOpen) {
+        long start = System.nanoTime();
+        String body = "{\"message\":\"" + QUESTIONS[index % QUESTIONS.length] + " (" + index + ")\"}";
+        return client.headers(headers -> headers.set(HttpHeaderNames.AUTHORIZATION, "Bearer " + token))
+                .post()
+                .uri(path)
+                .send(ByteBufFlux.fromString(Mono.just(body)))
+                .response((response, frames) -> {
+                    if (response.status().code() != 200) {
+                        return frames.then(Mono.just("http-" + response.status().code()));
+                    }
+                    peakOpen.accumulateAndGet(open.incrementAndGet(), Math::max);
+                    FrameScanner scanner = new FrameScanner();
+                    return frames.asString(StandardCharsets.ISO_8859_1)
+                            .doOnNext(text -> {
+                                if (scanner.scan(text) && ttftMillis[index] < 0) {
+                                    ttftMillis[index] = Duration.ofNanos(System.nanoTime() - start).toMillis();
+                                }
+                            })
+                            .then(Mono.fromSupplier(scanner::outcome))
+                            .doFinally(signal -> open.decrementAndGet());
+                })
+                .next();
+    }
+
+    private static String outcomeOf(Throwable error) {
+        if (error instanceof TimeoutException) {
+            return Outcome.TIMEOUT;
+        }
+        return error.getMessage() != null && error.getMessage().contains("Connection prematurely closed")
+                ? Outcome.TRUNCATED : Outcome.CONNECTION;
+    }
+
+    private static void printTtft(String label, long[] ttftMillis, String[] paths, String pathPrefix) {
+        long[] sorted = java.util.stream.IntStream.range(0, ttftMillis.length)
+                .filter(i -> ttftMillis[i] >= 0 && (pathPrefix == null || paths[i].startsWith(pathPrefix)))
+                .mapToLong(i -> ttftMillis[i])
+                .sorted()
+                .toArray();
+        if (sorted.length == 0) {
+            return;
+        }
+        System.out.printf("[PROBE] ttft %-9s n=%d p50=%dms p90=%dms p99=%dms max=%dms%n", label, sorted.length,
+                percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99), percentile(sorted, 1.0));
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return -1;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static final class Outcome {
+        static final String COMPLETED = "completed";
+        static final String ERROR_FRAME = "error-frame";
+        static final String TRUNCATED = "truncated";
+        static final String TIMEOUT = "timeout";
+        static final String CONNECTION = "connection";
+    }
+
+    /**
+     * SSE 본문에서 content / done / error 프레임을 찾는다
+     * 표식은 ASCII 이므로 ISO-8859-1 로 읽고, 조각 경계에 걸친 표식을 위해 앞 조각의 끝부분을 붙여 검사한다.
+     */
+    private static final class FrameScanner {
+
+        private static final int CARRY = DONE_MARKER.length() + CONTENT_MARKER.length();
+
+        private String tail = "";
+        private boolean content;
+        private boolean done;
+        private boolean error;
+
+        // 첫 content 프레임을 이번 조각에서 찾았으면 true
+        boolean scan(String text) {
+            String window = tail + text;
+            tail = window.length() > CARRY ? window.substring(window.length() - CARRY) : window;
+            boolean first = !content && window.contains(CONTENT_MARKER);
+            content |= first;
+            done |= window.contains(DONE_MARKER);
+            error |= window.contains(ERROR_MARKER);
+            return first;
+        }
+
+        String outcome() {
+            if (error) {
+                return Outcome.ERROR_FRAME;
+            }
+            return done ? Outcome.COMPLETED : Outcome.TRUNCATED;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.lgcns.haibackend.loadtest;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.lgcns.haibackend.config.FastApiClientConfig;
+import com.lgcns.haibackend.config.FastApiPoolProperties;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+
+/**
+ * 게이트웨이 커넥션 풀 모드별 동시 스트림 수용량 벤치마크
+ * 스텁 게이트웨이(http1 + h2c)를 프로세스 안에 띄우고, FastApiClientConfig 와 같은 풀 설정(기본값)으로
+ * N개의 /chat/prompt 스트림을 동시에 열어 모드별로 끝까지 받은 스트림 수, 동시에 열린 최대 스트림 수,
+ * 풀 지표(reactor.netty.connection.provider.*)의 최댓값을 출력한다.
+ *
+ * 실행: ./gradlew loadtestPool -Pbench.streams=1000 -Pbench.chunks=60 -Pbench.interval-ms=100
+ */
+public final class GatewayPoolBenchmark {
+
+    private static final String POOL_METRIC_PREFIX = "reactor.netty.connection.provider.";
+
+    private GatewayPoolBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int streams = Integer.getInteger("bench.streams", 1000);
+        int chunks = Integer.getInteger("bench.chunks", 60);
+        Duration interval = Duration.ofMillis(Long.getLong("bench.interval-ms", 100));
+
+        DisposableServer stub = StubGatewayServer.start(0, chunks, interval, true);
+        try {
+            for (FastApiPoolProperties.Protocol protocol : FastApiPoolProperties.Protocol.values()) {
+                FastApiPoolProperties pool = new FastApiPoolProperties();
+                pool.setProtocol(protocol);
+
+                // 풀 지표는 Micrometer 전역 레지스트리로 등록된다 (애플리케이션에서는 Spring Boot 레지스트리가 여기에 붙는다)
+                SimpleMeterRegistry registry = new SimpleMeterRegistry();
+                Metrics.addRegistry(registry);
+                try {
+                    run(pool, stub.port(), streams, registry);
+                } finally {
+                    Metrics.removeRegistry(registry);
+                }
+            }
+        } finally {
+            stub.disposeNow();
+        }
+    }
+
+    private static void run(FastApiPoolProperties pool, int port, int streams, SimpleMeterRegistry registry) {
+        HttpClient client = FastApiClientConfig.gatewayHttpClient(pool)
+                .baseUrl("http://localhost:" + port)
+                .headers(headers -> headers.set(HttpHeaderNames.CONTENT_TYPE, "application/json"));
+
+        AtomicInteger open = new AtomicInteger();
+        AtomicInteger peakOpen = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        Map<String, Double> peakPoolMetrics = new TreeMap<>();
+        Disposable sampler = Flux.interval(Duration.ofMillis(100))
+                .subscribe(tick -> samplePoolMetrics(registry, peakPoolMetrics));
+
+        long started = System.nanoTime();
+        Flux.range(0, streams)
+                .flatMap(i -> openStream(client, i, open, peakOpen)
+                        .doOnSuccess(v -> completed.incrementAndGet())
+                        .onErrorResume(e -> {
+                            failed.incrementAndGet();
+                            return Mono.empty();
+                        }), streams)
+                .blockLast();
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - started).toMillis();
+        sampler.dispose();
+        client.configuration().connectionProvider().disposeLater().block();
+
+        System.out.printf("[POOL] protocol=%s capacity=%d streams=%d completed=%d failed=%d peakOpen=%d elapsed=%dms%n",
+                pool.getProtocol(), pool.streamCapacity(), streams, completed.get(), failed.get(), peakOpen.get(),
+                elapsedMillis);
+        peakPoolMetrics.forEach((name, value) -> System.out.printf("[POOL]   max %s = %.0f%n", name, value));
+    }
+
+    private static Mono<Void> openStream(HttpClient client, int index, AtomicInteger open, AtomicInteger peakOpen) {
+        return client.post()
+                .uri("/chat/prompt")
+                .send(ByteBufFlux.fromString(Mono.just("{\"prompt_id\":\"bench\",\"user_query\":\"q" + index + "\"}")))
+                .response((response, body) -> {
+                    if (response.status().code() != 200) {
+                        return Mono.error(new IllegalStateException("HTTP " + response.status().code()));
+                    }
+                    peakOpen.accumulateAndGet(open.incrementAndGet(), Math::max);
+                    return body.doFinally(signal -> open.decrementAndGet());
+                })
+                .then();
+    }
+
+    // 원격 주소별 게이지를 지표 이름별로 합쳐 최댓값만 남긴다
+    private static void samplePoolMetrics(SimpleMeterRegistry registry, Map<String, Double> peaks) {
+        Map<String, Double> current = new TreeMap<>();
+        for (Meter meter : registry.getMeters()) {
+            String name = meter.getId().getName();
+            if (meter instanceof Gauge gauge && name.startsWith(POOL_METRIC_PREFIX)) {
+                current.merge(name.substring(POOL_METRIC_PREFIX.length()), gauge.value(), Double::sum);
+            }
+        }
+        synchronized (peaks) {
+            current.forEach((name, value) -> peaks.merge(name, value, Math::max));
+        }
+    }
+}
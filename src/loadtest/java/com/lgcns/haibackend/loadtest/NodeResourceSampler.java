@@ -0,0 +1,124 @@
+package com.lgcns.haibackend.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+/**
+ * 부하 중 백엔드 노드의 자원 사용량 샘플러
+ * management 포트의 /actuator/prometheus 를 주기적으로 읽어 CPU, 힙, 스레드, GC 정지 시간, 진행 중 게이트웨이 스트림 수를 모은다.
+ * 드라이버와 백엔드가 다른 머신이어도 백엔드 쪽 값이 잡힌다.
+ */
+final class NodeResourceSampler {
+
+    private final HttpClient client;
+    private final Duration interval;
+
+    private final List<Sample> samples = new ArrayList<>();
+    private Disposable polling;
+    private volatile String lastError;
+
+    NodeResourceSampler(String target, Duration interval) {
+        this.client = HttpClient.create().baseUrl(target);
+        this.interval = interval;
+    }
+
+    void start() {
+        polling = Flux.interval(Duration.ZERO, interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> client.get()
+                        .uri("/actuator/prometheus")
+                        .responseSingle((response, body) -> response.status().code() == 200
+                                ? body.asString()
+                                : Mono.error(new IllegalStateException("HTTP " + response.status().code())))
+                        .map(Sample::parse)
+                        .doOnNext(this::add)
+                        .onErrorResume(e -> {
+                            lastError = e.getMessage();
+                            return Mono.empty();
+                        }), 1)
+                .subscribe();
+    }
+
+    void stop() {
+        if (polling != null) {
+            polling.dispose();
+        }
+    }
+
+    private synchronized void add(Sample sample) {
+        samples.add(sample);
+    }
+
+    synchronized String summary() {
+        if (samples.size() < 2) {
+            return "no samples from /actuator/prometheus" + (lastError != null ? " (" + lastError + ")" : "");
+        }
+        double cpuSum = 0;
+        double cpuMax = 0;
+        double heapMax = 0;
+        double threadsMax = 0;
+        double activeMax = 0;
+        for (Sample sample : samples) {
+            cpuSum += sample.processCpu;
+            cpuMax = Math.max(cpuMax, sample.processCpu);
+            heapMax = Math.max(heapMax, sample.heapUsedBytes);
+            threadsMax = Math.max(threadsMax, sample.liveThreads);
+            activeMax = Math.max(activeMax, sample.activeGatewayStreams);
+        }
+        double gcPauseSeconds = samples.get(samples.size() - 1).gcPauseSeconds - samples.get(0).gcPauseSeconds;
+        return String.format("samples=%d cpu avg=%.0f%% max=%.0f%% heap max=%.0fMB threads max=%.0f "
+                        + "gc pause=%.0fms gateway streams max=%.0f",
+                samples.size(), cpuSum / samples.size() * 100, cpuMax * 100, heapMax / (1024 * 1024),
+                threadsMax, gcPauseSeconds * 1000, activeMax);
+    }
+
+    /**
+     * Prometheus 텍스트 형식에서 필요한 값만 읽은 한 시점의 샘플 (같은 이름의 시계열은 합산)
+     */
+    static final class Sample {
+
+        double processCpu;
+        double heapUsedBytes;
+        double liveThreads;
+        double gcPauseSeconds;
+        double activeGatewayStreams;
+
+        static Sample parse(String exposition) {
+            Sample sample = new Sample();
+            for (String line : exposition.split("\n")) {
+                if (line.isEmpty() || line.charAt(0) == '#') {
+                    continue;
+                }
+                int space = line.lastIndexOf(' ');
+                if (space < 0) {
+                    continue;
+                }
+                String series = line.substring(0, space);
+                double value;
+                try {
+                    value = Double.parseDouble(line.substring(space + 1));
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                if (series.startsWith("process_cpu_usage")) {
+                    sample.processCpu = value;
+                } else if (series.startsWith("jvm_memory_used_bytes{") && series.contains("area=\"heap\"")) {
+                    sample.heapUsedBytes += value;
+                } else if (series.startsWith("jvm_threads_live_threads")) {
+                    sample.liveThreads = value;
+                } else if (series.startsWith("jvm_gc_pause_seconds_sum")) {
+                    sample.gcPauseSeconds += value;
+                } else if (series.startsWith("fastapi_stream_active{")) {
+                    sample.activeGatewayStreams += value;
+                }
+            }
+            return sample;
+        }
+    }
+}
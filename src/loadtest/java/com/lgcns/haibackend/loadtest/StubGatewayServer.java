@@ -0,0 +1,261 @@
+package com.lgcns.haibackend.loadtest;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import reactor.core.publisher.Flux;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerResponse;
+import software.amazon.eventstream.HeaderValue;
+import software.amazon.eventstream.Message;
+
+/**
+ * 부하 테스트용 FastAPI 게이트웨이 / Bedrock 스텁
+ * 실제 Bedrock 대신 첫 토큰 지연(TTFT) 후 일정 간격으로 한국어 content 청크를 흘려보낸다.
+ * 조각 전송과 오류 주입으로 백엔드의 디코딩/오류 경로까지 같은 부하에서 확인할 수 있다.
+ *
+ * 실행: ./gradlew loadtestStub -Pstub.port=8000 -Pstub.chunks=60 -Pstub.interval-ms=100 [-Pstub.protocol=h2c]
+ *       -Pstub.ttft-ms=800 -Pstub.ttft-jitter-ms=400       첫 청크까지 지연 (+ 0~jitter 균등 분포)
+ *       -Pstub.fragment-bytes=16                           SSE 프레임을 1~N 바이트 조각으로 나눠 flush (0 이면 프레임 단위)
+ *       -Pstub.error.http-rate=0.02                        스트림 시작 전 503 + Retry-After (게이트웨이 과부하)
+ *       -Pstub.error.abort-rate=0.01                       스트림 도중 연결 끊기
+ *       -Pstub.error.frame-rate=0.01                       스트림 도중 {"type":"error"} 프레임 후 종료 (Bedrock 스로틀링)
+ * 백엔드는 FASTAPI_BASE_URL=http://localhost:8000 으로 이 스텁을 바라보게 한다.
+ * direct 백엔드(BEDROCK_GATEWAY_BACKEND=direct)는 BEDROCK_ENDPOINT_OVERRIDE=http://localhost:8000 으로
+ * 같은 스텁의 ConverseStream / RetrieveAndGenerateStream (AWS event stream 인코딩) 경로를 사용한다 (TTFT/간격만 적용).
+ */
+public final class StubGatewayServer {
+
+    // 토큰 단위로 잘린 답변 - 순서대로 돌려 쓴다
+    private static final String[] TOKENS = {
+            "세종대왕", "은 ", "1443년", "에 ", "훈민정음", "을 ", "창제", "하였", "습니다", ". ",
+            "백성", "이 ", "쉽게 ", "글을 ", "읽고 ", "쓸 ", "수 ", "있도록", " 하기 ", "위함", "이었", "지요", ".\\n"
+    };
+
+    private static final byte[][] CONTENT_FRAMES = contentFrames();
+    private static final byte[] DONE_FRAME = "data: {\"type\":\"done\"}\n\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ERROR_FRAME = ("data: {\"type\":\"error\",\"message\":\"ThrottlingException: "
+            + "Too many requests (injected by stub)\"}\n\n").getBytes(StandardCharsets.UTF_8);
+
+    // h2c 커넥션 하나에 허용하는 동시 스트림 수
+    private static final long MAX_CONCURRENT_STREAMS = 1000;
+
+    private static final String EVENT_STREAM_CONTENT_TYPE = "application/vnd.amazon.eventstream";
+
+    private StubGatewayServer() {
+    }
+
+    public static void main(String[] args) {
+        int port = Integer.getInteger("stub.port", 8000);
+        boolean h2c = "h2c".equalsIgnoreCase(System.getProperty("stub.protocol", "http1"));
+        StubOptions options = StubOptions.fromSystemProperties();
+
+        DisposableServer server = start(port, options, h2c);
+
+        System.out.printf("[STUB] FastAPI gateway / Bedrock stub on :%d (%s)%n", server.port(),
+                h2c ? "http1 + h2c" : "http1");
+        System.out.printf("[STUB] %s%n", options);
+        server.onDispose().block();
+    }
+
+    /**
+     * 오류 주입 없이 TTFT = 간격으로 흘려보내는 스텁 (커넥션 풀 벤치마크용)
+     */
+    public static DisposableServer start(int port, int chunks, Duration interval, boolean h2c) {
+        return start(port, new StubOptions(chunks, interval, interval, Duration.ZERO, 0, 0, 0, 0), h2c);
+    }
+
+    /**
+     * 스텁 서버 기동 - h2c 이면 HTTP/1.1 과 평문 HTTP/2 (prior knowledge / upgrade) 를 같은 포트에서 받는다
+     */
+    public static DisposableServer start(int port, StubOptions options, boolean h2c) {
+        HttpServer server = HttpServer.create().port(port);
+        if (h2c) {
+            server = server.protocol(HttpProtocol.HTTP11, HttpProtocol.H2C)
+                    .http2Settings(settings -> settings.maxConcurrentStreams(MAX_CONCURRENT_STREAMS));
+        }
+
+        return server
+                .route(routes -> routes
+                        .post("/chat/knowledge", (request, response) ->
+                                request.receive().then().thenMany(stream(response, options)))
+                        .post("/chat/prompt", (request, response) ->
+                                request.receive().then().thenMany(stream(response, options)))
+                        .post("/model/{modelId}/converse-stream", (request, response) ->
+                                request.receive().then().thenMany(converseStream(response, options)))
+                        .post("/retrieveAndGenerateStream", (request, response) ->
+                                request.receive().then().thenMany(retrieveAndGenerateStream(response, options)))
+                        .get("/health", (request, response) -> response
+                                .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                                .sendString(Flux.just("{\"status\":\"healthy\"}"))))
+                .bindNow();
+    }
+
+    private static Flux<Void> stream(HttpServerResponse response, StubOptions options) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double roll = random.nextDouble();
+
+        // 게이트웨이가 스트림을 열기 전에 거절 (백엔드는 503 + Retry-After 로 전달)
+        if (roll < options.httpErrorRate) {
+            return Flux.from(response.status(HttpResponseStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaderNames.RETRY_AFTER, "1")
+                    .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                    .sendString(Flux.just("{\"detail\":\"overloaded (injected by stub)\"}")));
+        }
+
+        int offset = random.nextInt(TOKENS.length);
+        Flux<byte[]> frames = Flux.interval(options.ttft(random), options.interval)
+                .take(options.chunks)
+                .map(i -> CONTENT_FRAMES[(int) ((offset + i) % CONTENT_FRAMES.length)]);
+
+        roll -= options.httpErrorRate;
+        if (roll < options.abortRate) {
+            // 청크 일부를 보낸 뒤 에러로 끝내면 reactor-netty 가 마지막 chunk 없이 연결을 닫는다
+            frames = frames.take(random.nextInt(options.chunks + 1))
+                    .concatWith(Flux.error(new IllegalStateException("connection aborted (injected by stub)")));
+        } else if (roll - options.abortRate < options.errorFrameRate) {
+            frames = frames.take(random.nextInt(options.chunks + 1)).concatWith(Flux.just(ERROR_FRAME));
+        } else {
+            frames = frames.concatWith(Flux.just(DONE_FRAME));
+        }
+
+        Flux<ByteBuf> buffers = options.fragmentBytes > 0
+                ? frames.concatMapIterable(frame -> fragments(frame, options.fragmentBytes))
+                : frames.map(Unpooled::wrappedBuffer);
+
+        // 게이트웨이처럼 조각마다 flush 한다
+        return Flux.from(response
+                .header(HttpHeaderNames.CONTENT_TYPE, "text/event-stream")
+                .send(buffers, buffer -> true));
+    }
+
+    // 프레임을 1~maxBytes 바이트 조각으로 나눈다 (한글 UTF-8 시퀀스와 이벤트 경계가 중간에서 잘린다)
+    private static List<ByteBuf> fragments(byte[] frame, int maxBytes) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<ByteBuf> pieces = new ArrayList<>();
+        int pos = 0;
+        while (pos < frame.length) {
+            int size = Math.min(frame.length - pos, 1 + random.nextInt(maxBytes));
+            pieces.add(Unpooled.wrappedBuffer(frame, pos, size));
+            pos += size;
+        }
+        return pieces;
+    }
+
+    // Bedrock ConverseStream: contentBlockDelta ... messageStop, metadata
+    private static Flux<Void> converseStream(HttpServerResponse response, StubOptions options) {
+        Flux<ByteBuffer> events = Flux.interval(options.ttft(ThreadLocalRandom.current()), options.interval)
+                .take(options.chunks)
+                .map(i -> event("contentBlockDelta", "{\"contentBlockIndex\":0,\"delta\":{\"text\":\""
+                        + TOKENS[(int) (i % TOKENS.length)] + "\"}}"))
+                .concatWith(Flux.just(
+                        event("messageStop", "{\"stopReason\":\"end_turn\"}"),
+                        event("metadata", "{\"usage\":{\"inputTokens\":12,\"outputTokens\":" + options.chunks
+                                + ",\"totalTokens\":" + (12 + options.chunks) + "},\"metrics\":{\"latencyMs\":"
+                                + options.interval.toMillis() * options.chunks + "}}")));
+        return sendEvents(response, events);
+    }
+
+    // Bedrock Agent RetrieveAndGenerateStream: output ...
+    private static Flux<Void> retrieveAndGenerateStream(HttpServerResponse response, StubOptions options) {
+        Flux<ByteBuffer> events = Flux.interval(options.ttft(ThreadLocalRandom.current()), options.interval)
+                .take(options.chunks)
+                .map(i -> event("output", "{\"text\":\"" + TOKENS[(int) (i % TOKENS.length)] + "\"}"));
+        return sendEvents(response, events);
+    }
+
+    private static Flux<Void> sendEvents(HttpServerResponse response, Flux<ByteBuffer> events) {
+        return Flux.from(response
+                .header(HttpHeaderNames.CONTENT_TYPE, EVENT_STREAM_CONTENT_TYPE)
+                .send(events.map(Unpooled::wrappedBuffer)));
+    }
+
+    private static ByteBuffer event(String eventType, String json) {
+        Map<String, HeaderValue> headers = new LinkedHashMap<>();
+        headers.put(":message-type", HeaderValue.fromString("event"));
+        headers.put(":event-type", HeaderValue.fromString(eventType));
+        headers.put(":content-type", HeaderValue.fromString("application/json"));
+        return new Message(headers, json.getBytes(StandardCharsets.UTF_8)).toByteBuffer();
+    }
+
+    private static byte[][] contentFrames() {
+        byte[][] frames = new byte[TOKENS.length][];
+        for (int i = 0; i < TOKENS.length; i++) {
+            frames[i] = ("data: {\"type\":\"content\",\"text\":\"" + TOKENS[i] + "\"}\n\n")
+                    .getBytes(StandardCharsets.UTF_8);
+        }
+        return frames;
+    }
+
+    /**
+     * 스텁 응답 형태 - 스트림 하나 = TTFT 후 chunks 개의 content 청크 (interval 간격) + done
+     */
+    public static final class StubOptions {
+
+        private final int chunks;
+        private final Duration interval;
+        private final Duration ttft;
+        private final Duration ttftJitter;
+        private final int fragmentBytes;
+        private final double httpErrorRate;
+        private final double abortRate;
+        private final double errorFrameRate;
+
+        public StubOptions(int chunks, Duration interval, Duration ttft, Duration ttftJitter, int fragmentBytes,
+                double httpErrorRate, double abortRate, double errorFrameRate) {
+            if (httpErrorRate + abortRate + errorFrameRate > 1) {
+                throw new IllegalArgumentException("오류 주입 비율의 합은 1 이하여야 합니다");
+            }
+            this.chunks = chunks;
+            this.interval = interval;
+            this.ttft = ttft;
+            this.ttftJitter = ttftJitter;
+            this.fragmentBytes = fragmentBytes;
+            this.httpErrorRate = httpErrorRate;
+            this.abortRate = abortRate;
+            this.errorFrameRate = errorFrameRate;
+        }
+
+        public static StubOptions fromSystemProperties() {
+            Duration interval = Duration.ofMillis(Long.getLong("stub.interval-ms", 100));
+            return new StubOptions(
+                    Integer.getInteger("stub.chunks", 60),
+                    interval,
+                    Duration.ofMillis(Long.getLong("stub.ttft-ms", interval.toMillis())),
+                    Duration.ofMillis(Long.getLong("stub.ttft-jitter-ms", 0)),
+                    Integer.getInteger("stub.fragment-bytes", 0),
+                    rate("stub.error.http-rate"),
+                    rate("stub.error.abort-rate"),
+                    rate("stub.error.frame-rate"));
+        }
+
+        private static double rate(String property) {
+            return Double.parseDouble(System.getProperty(property, "0"));
+        }
+
+        private Duration ttft(ThreadLocalRandom random) {
+            return ttftJitter.isZero() ? ttft : ttft.plusMillis(random.nextLong(ttftJitter.toMillis() + 1));
+        }
+
+        @Override
+        public String toString() {
+            return String.format("chunks=%d interval=%dms ttft=%dms(+0~%dms) fragment-bytes=%s "
+                            + "errors: http=%.3f abort=%.3f frame=%.3f",
+                    chunks, interval.toMillis(), ttft.toMillis(), ttftJitter.toMillis(),
+                    fragmentBytes > 0 ? "1~" + fragmentBytes : "frame",
+                    httpErrorRate, abortRate, errorFrameRate);
+        }
+    }
+}
@@ -3,11 +3,15 @@ package com.lgcns.haibackend.aiPerson.controller;
 import java.util.UUID;
 
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import com.lgcns.haibackend.aiPerson.service.AIPersonChatService;
+import com.lgcns.haibackend.bedrock.domain.dto.StreamChunk;
+import com.lgcns.haibackend.common.limit.ChatLimiter;
+import com.lgcns.haibackend.common.sse.StreamChunkSseWriter;
+import com.lgcns.haibackend.common.sse.StreamSummaryLogger;
 
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
@@ -21,50 +25,33 @@ import reactor.core.publisher.Flux;
 public class AIPersonChatController {
 
     private final AIPersonChatService aiPersonChatService;
+    private final StreamChunkSseWriter sseWriter;
+    private final StreamSummaryLogger streamSummaryLogger;
+    private final ChatLimiter chatLimiter;
 
     /**
      * AI 인물 채팅 엔드포인트 (스트리밍)
      */
     @PostMapping(value = "/{promptId}/chat", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public Flux<String> chatWithPerson(
+    public Flux<ServerSentEvent<String>> chatWithPerson(
             @PathVariable("promptId") String promptId,
-            @RequestBody AIPersonChatRequest request) {
-        
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        UUID userId = UUID.fromString(authentication.getPrincipal().toString());
+            @RequestBody AIPersonChatRequest request,
+            Authentication authentication) {
 
-        log.info("===========================================");
-        log.info("[AI PERSON CHAT REQUEST] PromptID: {}, UserID: {}, Message: {}", 
+        // JwtFilter(servlet) / JwtWebFilter(reactive) 가 principal 에 userId, 권한에 ROLE_{role} 을 넣어 둔다
+        UUID userId = UUID.fromString(authentication.getName());
+
+        log.debug("[AI PERSON CHAT REQUEST] PromptID: {}, UserID: {}, Message: {}",
                 promptId, userId, request.getMessage());
-        log.info("===========================================");
 
-        return aiPersonChatService.chat(promptId, userId, request.getMessage())
-                .doOnSubscribe(subscription -> {
-                    log.info("[AI PERSON CHAT] Starting chat with AI person...");
-                })
-                .map(chunk -> {
-                    // JSON 래핑: {"type": "content", "text": "..."}
-                    String escapedChunk = chunk.replace("\\", "\\\\")
-                                              .replace("\"", "\\\"")
-                                              .replace("\n", "\\n");
-                    return "{\"type\": \"content\", \"text\": \"" + escapedChunk + "\"}";
-                })
-                .doOnNext(chunk -> {
-                    // 스트리밍 청크마다 로그
-                    log.info("[SENDING CHUNK] {}", chunk.substring(0, Math.min(100, chunk.length())));
-                })
-                .doOnComplete(() -> {
-                    log.info("[AI PERSON CHAT] Chat completed successfully");
-                    log.info("===========================================");
-                })
-                .doOnError(error -> {
-                    log.error("[AI PERSON CHAT ERROR] {}", error.getMessage());
-                    log.error("===========================================", error);
-                })
-                .onErrorResume(error -> {
-                    log.error("Error in AI person chat: {}", error.getMessage());
-                    return Flux.just("data: Error: " + error.getMessage() + "\n\n");
-                });
+        // 청크마다 로그를 남기지 않고 스트림 종료 시 요약 한 줄만 남긴다 (StreamSummaryLogger)
+        Flux<StreamChunk> chunks = streamSummaryLogger.track("ai-person", userId,
+                        aiPersonChatService.chat(promptId, userId, request.getMessage()))
+                .doOnError(error -> log.error("[AI PERSON CHAT ERROR] {}", error.getMessage(), error));
+
+        // {"type": "content", "text": "..."} 형식의 SSE 프레임으로 변환 (에러는 error 프레임)
+        // 사용자/역할 한도를 넘으면 스트림을 열지 않고 429 + Retry-After (ChatLimitExceptionHandler)
+        return chatLimiter.limit(authentication, () -> sseWriter.write(chunks));
     }
 
     // AI Person ChatRequest DTO
@@ -1,19 +1,22 @@
 package com.lgcns.haibackend.aiPerson.controller;
 
-import java.util.List;
-
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.lgcns.haibackend.aiPerson.domain.dto.AIPersonDetailDTO;
-import com.lgcns.haibackend.aiPerson.domain.dto.AIPersonListDTO;
 import com.lgcns.haibackend.aiPerson.service.AIPersonService;
 
 import lombok.RequiredArgsConstructor;
 
+/**
+ * AI 인물 카탈로그 API
+ * 응답 본문은 카탈로그 스냅샷에 미리 직렬화해 둔 JSON(원본/gzip) 바이트를 그대로 내려준다.
+ * 내용이 바뀌지 않았으면 (If-None-Match 일치) 304 로 응답한다.
+ */
 @RestController
 @RequestMapping("/api/ai-person")
 @RequiredArgsConstructor
@@ -22,14 +25,20 @@ public class AIPersonController {
     private final AIPersonService aiPersonService;
 
     @GetMapping
-    public ResponseEntity<List<AIPersonListDTO>> getAllPersons() {
-        List<AIPersonListDTO> personList = aiPersonService.getAllPersons();
-        return ResponseEntity.ok(personList);
+    public ResponseEntity<byte[]> getAllPersons(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return aiPersonService.getCatalog()
+                .getPersonsJson()
+                .toResponse(ifNoneMatch, acceptEncoding);
     }
 
     @GetMapping("/{promptId}")
-    public ResponseEntity<AIPersonDetailDTO> getPersonDetail(@PathVariable("promptId") String promptId) {
-        AIPersonDetailDTO detail = aiPersonService.getPersonDetail(promptId);
-        return ResponseEntity.ok(detail);
+    public ResponseEntity<byte[]> getPersonDetail(
+            @PathVariable("promptId") String promptId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return aiPersonService.getPersonDetailJson(promptId)
+                .toResponse(ifNoneMatch, acceptEncoding);
     }
 }
@@ -0,0 +1,43 @@
+package com.lgcns.haibackend.aiPerson.domain.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import com.lgcns.haibackend.common.http.PreEncodedJson;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * AI 인물 카탈로그 스냅샷 (불변)
+ * 연도순으로 정렬된 목록, promptId 별 상세, 그리고 각각을 미리 직렬화한 JSON 을 한 번에 묶어 교체한다.
+ */
+@Getter
+@AllArgsConstructor
+public class AIPersonCatalogSnapshot {
+
+    private final List<AIPersonListDTO> persons;
+    private final Map<String, AIPersonDetailDTO> details;
+
+    private final PreEncodedJson personsJson;
+    private final Map<String, PreEncodedJson> detailsJson;
+
+    // promptId -> 시대 (지표의 prompt_class 태그용)
+    private final Map<String, String> eras;
+
+    public AIPersonDetailDTO getDetail(String promptId) {
+        return details.get(promptId);
+    }
+
+    public PreEncodedJson getDetailJson(String promptId) {
+        return detailsJson.get(promptId);
+    }
+
+    public String getEra(String promptId) {
+        return eras.get(promptId);
+    }
+
+    public String getEtag() {
+        return personsJson.getEtag();
+    }
+}
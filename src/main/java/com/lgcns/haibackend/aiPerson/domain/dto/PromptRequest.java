@@ -1,9 +1,12 @@
 package com.lgcns.haibackend.aiPerson.domain.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.lgcns.haibackend.bedrock.domain.dto.MessageDTO;
 import lombok.Builder;
 import lombok.Data;
 
+import java.util.List;
 import java.util.Map;
 
 @Data
@@ -15,4 +18,11 @@ public class PromptRequest {
     @JsonProperty("user_query")
     private String userQuery;
 
+    // 대화 기록 (토큰 예산 안의 최근 턴) 과 그 이전 턴의 요약 - 없으면 직렬화하지 않는다
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<MessageDTO> history;
+
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private String summary;
+
 }
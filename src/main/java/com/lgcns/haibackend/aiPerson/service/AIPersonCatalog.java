@@ -0,0 +1,113 @@
+package com.lgcns.haibackend.aiPerson.service;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lgcns.haibackend.aiPerson.domain.dto.AIPersonCatalogSnapshot;
+import com.lgcns.haibackend.aiPerson.domain.dto.AIPersonDetailDTO;
+import com.lgcns.haibackend.aiPerson.domain.dto.AIPersonListDTO;
+import com.lgcns.haibackend.aiPerson.domain.entity.AIPersonEntity;
+import com.lgcns.haibackend.aiPerson.repository.AIPersonRepository;
+import com.lgcns.haibackend.common.http.PreEncodedJson;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * AI 인물 카탈로그 인메모리 캐시
+ * ai_person 은 시드 데이터라 거의 바뀌지 않으므로, 시작 시 한 번 읽어 정렬된 불변 스냅샷을 만들고
+ * 요청은 JPA 를 거치지 않고 스냅샷에서 바로 응답한다. 주기적으로 또는 invalidate() 호출 시 다시 만든다.
+ * 응답 JSON(원본/gzip) 도 스냅샷을 만들 때 한 번만 직렬화한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AIPersonCatalog {
+
+    private final AIPersonRepository aiPersonRepository;
+    private final ObjectMapper objectMapper;
+
+    private volatile AIPersonCatalogSnapshot snapshot;
+
+    public AIPersonCatalogSnapshot getSnapshot() {
+        AIPersonCatalogSnapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    refresh();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * promptId 의 시대 - 스냅샷을 아직 만들지 않았으면 DB 를 읽지 않고 null 을 돌려준다 (스트림 경로용)
+     */
+    public String eraOf(String promptId) {
+        AIPersonCatalogSnapshot current = snapshot;
+        return current != null && promptId != null ? current.getEra(promptId) : null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        refresh();
+    }
+
+    // 시드 데이터가 바뀐 경우에 대비해 주기적으로 다시 읽는다
+    @Scheduled(initialDelayString = "${ai-person.catalog.refresh-interval-ms:600000}",
+            fixedDelayString = "${ai-person.catalog.refresh-interval-ms:600000}")
+    public void scheduledRefresh() {
+        refresh();
+    }
+
+    // 데이터를 변경한 쪽에서 명시적으로 호출
+    public void invalidate() {
+        refresh();
+    }
+
+    private synchronized void refresh() {
+        List<AIPersonEntity> entities = aiPersonRepository.findAll();
+
+        List<AIPersonListDTO> persons = entities.stream()
+                .map(AIPersonListDTO::fromEntity)
+                .sorted(Comparator.comparing(AIPersonListDTO::getYear,
+                        Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+
+        Map<String, AIPersonDetailDTO> details = new HashMap<>(entities.size() * 2);
+        Map<String, PreEncodedJson> detailsJson = new HashMap<>(entities.size() * 2);
+        Map<String, String> eras = new HashMap<>(entities.size() * 2);
+        for (AIPersonEntity entity : entities) {
+            AIPersonDetailDTO detail = AIPersonDetailDTO.fromEntity(entity);
+            details.put(entity.getPromptId(), detail);
+            detailsJson.put(entity.getPromptId(), encode(detail));
+            if (entity.getEra() != null) {
+                eras.put(entity.getPromptId(), entity.getEra());
+            }
+        }
+
+        PreEncodedJson personsJson = encode(persons);
+        snapshot = new AIPersonCatalogSnapshot(persons, Map.copyOf(details), personsJson, Map.copyOf(detailsJson),
+                Map.copyOf(eras));
+        log.info("[AI PERSON CATALOG] Loaded {} persons, etag={}", persons.size(), personsJson.getEtag());
+    }
+
+    private PreEncodedJson encode(Object body) {
+        try {
+            return PreEncodedJson.of(objectMapper.writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("AI 인물 카탈로그 직렬화 실패", e);
+        }
+    }
+}
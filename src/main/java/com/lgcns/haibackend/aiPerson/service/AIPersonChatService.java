@@ -1,12 +1,18 @@
 package com.lgcns.haibackend.aiPerson.service;
 
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.springframework.stereotype.Service;
 
+import com.lgcns.haibackend.bedrock.context.ContextAssembler;
 import com.lgcns.haibackend.bedrock.domain.dto.MessageDTO;
+import com.lgcns.haibackend.bedrock.domain.dto.StreamChunk;
 import com.lgcns.haibackend.bedrock.service.BedrockService;
-import com.lgcns.haibackend.common.redis.RedisChatRepository;
+import com.lgcns.haibackend.common.redis.ChatHistoryWriter;
+import com.lgcns.haibackend.common.tracing.StreamObservations;
+
+import io.micrometer.common.KeyValues;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,16 +24,17 @@ import reactor.core.publisher.Flux;
 public class AIPersonChatService {
 
     private final BedrockService bedrockService;
-    private final RedisChatRepository redisChatRepository;
+    private final ChatHistoryWriter chatHistoryWriter;
+    private final ContextAssembler contextAssembler;
+    private final StreamObservations streamObservations;
 
-    public Flux<String> chat(String promptId, UUID userId, String userMessage) {
+    public Flux<StreamChunk> chat(String promptId, UUID userId, String userMessage) {
 
         // 1) 인물 상세 정보 불러오기
         // AIPersonDetailDTO person = aiPersonService.getPersonDetail(promptId);
 
-        // 2) Redis에서 과거 히스토리 조회 (저장은 하지만, Prompt API로 보낼 방법이 명확하지 않아 일단 조회만 함)
+        // 2) Redis 과거 히스토리는 5) 에서 토큰 예산 안의 최근 턴 + 이전 턴 요약으로 조립해 함께 보낸다
         String historyKey = buildAIPersonKey(promptId, userId);
-        // List<Message> history = redisChatRepository.getMessages(historyKey);
 
         // 3) user 메시지 (Redis 저장을 위해 객체 생성)
         MessageDTO userMsg = MessageDTO.user(userMessage);
@@ -42,21 +49,35 @@ public class AIPersonChatService {
 
         // 5) Bedrock Prompt API 호출
         // Prompt ID는 URL의 promptId를 그대로 사용 (DB의 promptId가 Bedrock Prompt ID와 일치한다고 가정)
-        Flux<String> stream = bedrockService.chatWithPrompt(promptId, userMessage);
+        Flux<StreamChunk> stream = contextAssembler.assemble(userId, historyKey)
+                .flatMapMany(context -> bedrockService.chatWithPrompt(promptId, userMessage, context));
 
         StringBuilder assistantBuffer = new StringBuilder();
+        AtomicBoolean sawError = new AtomicBoolean();
 
         // 6) 스트리밍 응답을 그대로 흘려보내면서, 최종 답변은 Redis에 저장
         return stream
                 .doOnNext(chunk -> {
-                    assistantBuffer.append(chunk);
+                    if (chunk.isContent()) {
+                        assistantBuffer.append(chunk.getText());
+                    } else if (chunk.isError()) {
+                        sawError.set(true);
+                    }
                 })
                 .doOnComplete(() -> {
-                    // 7) 이번 대화(질문/답변)를 Redis에 저장
+                    // 게이트웨이 error 프레임을 받은 답변(잘렸거나 오류뿐)은 대화 기록에 남기지 않는다
+                    if (sawError.get()) {
+                        log.warn("[AI PERSON] Stream completed with a gateway error frame. Skipping save.");
+                        return;
+                    }
+                    // 7) 이번 대화(질문/답변)를 Redis에 저장 (write-behind 큐 - 이벤트 루프를 붙잡지 않음)
                     MessageDTO assistantMsg = MessageDTO.assistant(assistantBuffer.toString());
-                    redisChatRepository.appendMessage(historyKey, userMsg);
-                    redisChatRepository.appendMessage(historyKey, assistantMsg);
-                });
+                    chatHistoryWriter.saveTurn(userId, historyKey, userMsg, assistantMsg);
+                })
+                // 문맥 조회(Redis) ~ 게이트웨이 스트림 종료까지 한 span, 첫 토큰/완료는 span 이벤트로
+                .transform(chunks -> streamObservations.observe("chat.turn", "ai-person chat",
+                        KeyValues.of("endpoint", "ai-person"),
+                        KeyValues.of("prompt.id", promptId, "user.id", userId.toString()), chunks));
     }
 
     private String buildAIPersonKey(String promptId, UUID userId) {
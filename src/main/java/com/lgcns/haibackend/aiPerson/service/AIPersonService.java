@@ -1,38 +1,45 @@
 package com.lgcns.haibackend.aiPerson.service;
 
-import java.util.Comparator;
 import java.util.List;
 
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import com.lgcns.haibackend.aiPerson.domain.dto.AIPersonCatalogSnapshot;
 import com.lgcns.haibackend.aiPerson.domain.dto.AIPersonDetailDTO;
 import com.lgcns.haibackend.aiPerson.domain.dto.AIPersonListDTO;
-import com.lgcns.haibackend.aiPerson.domain.entity.AIPersonEntity;
-import com.lgcns.haibackend.aiPerson.repository.AIPersonRepository;
+import com.lgcns.haibackend.common.http.PreEncodedJson;
 
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
-@Transactional(readOnly = true)
 public class AIPersonService {
     
-    private final AIPersonRepository aiPersonRepository;
+    // 조회는 DB 대신 인메모리 카탈로그 스냅샷에서 처리
+    private final AIPersonCatalog aiPersonCatalog;
 
     public List<AIPersonListDTO> getAllPersons() {
-        return aiPersonRepository.findAll()
-                .stream()
-                .map(AIPersonListDTO::fromEntity)
-                .sorted(Comparator.comparing(AIPersonListDTO::getYear))
-                .toList();
+        return aiPersonCatalog.getSnapshot().getPersons();
+    }
+
+    public AIPersonCatalogSnapshot getCatalog() {
+        return aiPersonCatalog.getSnapshot();
     }
 
     public AIPersonDetailDTO getPersonDetail(String promptId) {
-        AIPersonEntity entity = aiPersonRepository.findById(promptId)
-                .orElseThrow(() -> new IllegalArgumentException("AI 인물을 찾을 수 없습니다. promptId=" + promptId));
+        AIPersonDetailDTO detail = aiPersonCatalog.getSnapshot().getDetail(promptId);
+        if (detail == null) {
+            throw new IllegalArgumentException("AI 인물을 찾을 수 없습니다. promptId=" + promptId);
+        }
+        return detail;
+    }
 
-        return AIPersonDetailDTO.fromEntity(entity);
+    public PreEncodedJson getPersonDetailJson(String promptId) {
+        PreEncodedJson detailJson = aiPersonCatalog.getSnapshot().getDetailJson(promptId);
+        if (detailJson == null) {
+            throw new IllegalArgumentException("AI 인물을 찾을 수 없습니다. promptId=" + promptId);
+        }
+        return detailJson;
     }
 
 }
@@ -0,0 +1,15 @@
+package com.lgcns.haibackend.bedrock.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 캐시된 Knowledge Base 답변과 원래 생성에 걸린 시간
+ */
+@Getter
+@AllArgsConstructor
+public class CachedAnswer {
+
+    private final String answer;
+    private final long generationMillis;
+}
@@ -0,0 +1,266 @@
+package com.lgcns.haibackend.bedrock.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import com.lgcns.haibackend.bedrock.domain.dto.StreamChunk;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+
+/**
+ * Knowledge Base 답변 캐시
+ * 같은 반 학생들이 거의 같은 질문을 반복하므로, 정규화된 질문을 key 로 완성된 답변을 Redis 에 보관하고
+ * 적중 시 게이트웨이 호출 없이 토큰 스트림처럼 나눠서 다시 흘려보낸다.
+ *
+ * - 정확 일치: QueryNormalizer 결과의 SHA-256
+ * - 유사 일치 (similarity-threshold > 0 일 때): 로컬 bigram 임베딩 코사인 유사도
+ * - 크기 제한: 저장 시각 ZSET 인덱스로 max-entries 를 넘는 오래된 답변부터 제거
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class KnowledgeAnswerCache {
+
+    private static final String KEY_PREFIX = "kbcache:answer:";
+    private static final String INDEX_KEY = "kbcache:index";
+    private static final String FIELD_ANSWER = "answer";
+    private static final String FIELD_MILLIS = "ms";
+
+    // 답변 저장 + 만료된 인덱스 항목 정리 + 최대 개수 초과분 제거를 한 번에 수행
+    // KEYS[1] = 답변 key, KEYS[2] = 인덱스 ZSET
+    // ARGV[1] = 답변, ARGV[2] = 생성 시간(ms), ARGV[3] = TTL(ms), ARGV[4] = 현재 시각(ms), ARGV[5] = 최대 개수
+    private static final RedisScript<Long> PUT_SCRIPT = RedisScript.of("""
+            redis.call('HSET', KEYS[1], 'answer', ARGV[1], 'ms', ARGV[2])
+            redis.call('PEXPIRE', KEYS[1], ARGV[3])
+            local now = tonumber(ARGV[4])
+            redis.call('ZREMRANGEBYSCORE', KEYS[2], '-inf', now - tonumber(ARGV[3]))
+            redis.call('ZADD', KEYS[2], now, KEYS[1])
+            local overflow = redis.call('ZCARD', KEYS[2]) - tonumber(ARGV[5])
+            if overflow > 0 then
+                local evicted = redis.call('ZRANGE', KEYS[2], 0, overflow - 1)
+                redis.call('ZREMRANGEBYRANK', KEYS[2], 0, overflow - 1)
+                redis.call('UNLINK', unpack(evicted))
+            end
+            return overflow
+            """, Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${bedrock.answer-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${bedrock.answer-cache.ttl:6h}")
+    private Duration ttl;
+
+    @Value("${bedrock.answer-cache.max-entries:5000}")
+    private int maxEntries;
+
+    // 0 이면 유사 일치를 사용하지 않는다
+    @Value("${bedrock.answer-cache.similarity-threshold:0}")
+    private double similarityThreshold;
+
+    // 재생 시 청크 하나에 담는 글자 수 / 청크 사이 간격
+    @Value("${bedrock.answer-cache.replay-chunk-chars:8}")
+    private int replayChunkChars;
+
+    @Value("${bedrock.answer-cache.replay-interval:15ms}")
+    private Duration replayInterval;
+
+    // 유사도 검색용 로컬 인덱스 (답변 key -> 임베딩) - 조회 시 잠금 없이 훑는다
+    private final Map<String, float[]> embeddings = new ConcurrentHashMap<>();
+
+    // 로컬 인덱스의 저장 순서 (오래된 것부터) - Redis 인덱스 ZSET 과 같은 순서로 max-entries 초과분을 버린다
+    // 추가/제거는 embeddings 와 함께 이 객체의 잠금 안에서만 한다
+    private final LinkedHashSet<String> embeddingOrder = new LinkedHashSet<>();
+
+    private Counter hitCounter;
+    private Counter missCounter;
+    private Timer latencySavedTimer;
+
+    @PostConstruct
+    public void initMetrics() {
+        hitCounter = Counter.builder("kb.answer.cache.requests")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        missCounter = Counter.builder("kb.answer.cache.requests")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        latencySavedTimer = Timer.builder("kb.answer.cache.latency.saved")
+                .description("Original generation time of answers served from the cache")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 캐시된 답변 조회 (없으면 null)
+     */
+    public CachedAnswer lookup(String query) {
+        if (!enabled) {
+            return null;
+        }
+        String normalized = QueryNormalizer.normalize(query);
+        if (normalized.isEmpty()) {
+            return null;
+        }
+
+        CachedAnswer answer = read(KEY_PREFIX + hash(normalized));
+        if (answer == null && similarityThreshold > 0) {
+            answer = lookupSimilar(normalized);
+        }
+
+        if (answer != null) {
+            hitCounter.increment();
+            latencySavedTimer.record(answer.getGenerationMillis(), TimeUnit.MILLISECONDS);
+        } else {
+            missCounter.increment();
+        }
+        return answer;
+    }
+
+    /**
+     * 완성된 답변 저장
+     */
+    public void put(String query, String answer, Duration generationTime) {
+        if (!enabled || answer == null || answer.isEmpty()) {
+            return;
+        }
+        String normalized = QueryNormalizer.normalize(query);
+        if (normalized.isEmpty()) {
+            return;
+        }
+
+        String key = KEY_PREFIX + hash(normalized);
+        try {
+            redisTemplate.execute(PUT_SCRIPT, List.of(key, INDEX_KEY),
+                    answer,
+                    String.valueOf(generationTime.toMillis()),
+                    String.valueOf(ttl.toMillis()),
+                    String.valueOf(System.currentTimeMillis()),
+                    String.valueOf(maxEntries));
+        } catch (Exception e) {
+            // 캐시 저장 실패는 응답에 영향을 주지 않는다
+            log.warn("[KB CACHE] Failed to store answer: {}", e.getMessage());
+            return;
+        }
+
+        if (similarityThreshold > 0) {
+            rememberEmbedding(key, normalized);
+        }
+    }
+
+    /**
+     * 캐시된 답변을 replay-chunk-chars 글자씩 잘라 토큰 스트림처럼 재생
+     */
+    public Flux<StreamChunk> replay(CachedAnswer cached) {
+        String answer = cached.getAnswer();
+        List<StreamChunk> chunks = new ArrayList<>(answer.length() / Math.max(replayChunkChars, 1) + 1);
+        int start = 0;
+        while (start < answer.length()) {
+            int end = start;
+            for (int n = 0; n < replayChunkChars && end < answer.length(); n++) {
+                end += Character.charCount(answer.codePointAt(end));
+            }
+            chunks.add(StreamChunk.content(answer.substring(start, end)));
+            start = end;
+        }
+
+        Flux<StreamChunk> stream = Flux.fromIterable(chunks);
+        return replayInterval.isZero() ? stream : stream.delayElements(replayInterval);
+    }
+
+    private CachedAnswer read(String key) {
+        try {
+            HashOperations<String, String, String> hashOps = redisTemplate.opsForHash();
+            List<String> values = hashOps.multiGet(key, List.of(FIELD_ANSWER, FIELD_MILLIS));
+            if (values == null || values.get(0) == null) {
+                return null;
+            }
+            long millis = values.get(1) != null ? Long.parseLong(values.get(1)) : 0;
+            return new CachedAnswer(values.get(0), millis);
+        } catch (Exception e) {
+            log.warn("[KB CACHE] Failed to read answer: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private CachedAnswer lookupSimilar(String normalized) {
+        float[] query = QueryEmbedding.embed(normalized);
+        String bestKey = null;
+        float bestScore = (float) similarityThreshold;
+
+        for (Map.Entry<String, float[]> entry : embeddings.entrySet()) {
+            float score = QueryEmbedding.cosine(query, entry.getValue());
+            if (score >= bestScore) {
+                bestScore = score;
+                bestKey = entry.getKey();
+            }
+        }
+        if (bestKey == null) {
+            return null;
+        }
+
+        CachedAnswer answer = read(bestKey);
+        if (answer == null) {
+            // Redis 에서 만료/제거된 답변
+            forgetEmbedding(bestKey);
+        }
+        return answer;
+    }
+
+    // 같은 key 를 다시 저장하면 ZADD 가 점수(저장 시각)를 갱신하듯 가장 최근 순서로 옮긴다
+    private void rememberEmbedding(String key, String normalized) {
+        float[] embedding = QueryEmbedding.embed(normalized);
+        synchronized (embeddingOrder) {
+            embeddingOrder.remove(key);
+            embeddingOrder.add(key);
+            embeddings.put(key, embedding);
+            Iterator<String> oldest = embeddingOrder.iterator();
+            while (embeddingOrder.size() > maxEntries) {
+                embeddings.remove(oldest.next());
+                oldest.remove();
+            }
+        }
+    }
+
+    private void forgetEmbedding(String key) {
+        synchronized (embeddingOrder) {
+            embeddingOrder.remove(key);
+            embeddings.remove(key);
+        }
+    }
+
+    private static String hash(String normalized) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(normalized.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.lgcns.haibackend.bedrock.cache;
+
+/**
+ * 로컬에서 계산하는 가벼운 질문 임베딩
+ * 정규화된 질문의 문자 bigram 을 고정 차원 벡터에 해싱하고 L2 정규화한다.
+ * 한글은 음절 단위라 bigram 만으로도 어순/조사 차이가 있는 유사 질문을 잘 잡는다.
+ */
+public final class QueryEmbedding {
+
+    public static final int DIMENSIONS = 256;
+
+    private QueryEmbedding() {
+    }
+
+    public static float[] embed(String normalizedQuery) {
+        float[] vector = new float[DIMENSIONS];
+        int previous = -1;
+        for (int i = 0; i < normalizedQuery.length(); ) {
+            int codePoint = normalizedQuery.codePointAt(i);
+            i += Character.charCount(codePoint);
+            // 띄어쓰기가 달라도 비슷하게 나오도록 구분자는 건너뛴다
+            if (codePoint == QueryNormalizer.SEPARATOR) {
+                continue;
+            }
+            // unigram 도 약하게 반영해서 짧은 질문이 0 벡터가 되지 않도록 한다
+            vector[Math.floorMod(codePoint * 0x9E3779B1, DIMENSIONS)] += 0.5f;
+            if (previous >= 0) {
+                vector[Math.floorMod((previous * 31 + codePoint) * 0x9E3779B1, DIMENSIONS)] += 1f;
+            }
+            previous = codePoint;
+        }
+
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        if (norm > 0) {
+            float inverse = (float) (1 / Math.sqrt(norm));
+            for (int i = 0; i < DIMENSIONS; i++) {
+                vector[i] *= inverse;
+            }
+        }
+        return vector;
+    }
+
+    // 두 벡터 모두 L2 정규화되어 있으므로 내적 = 코사인 유사도
+    public static float cosine(float[] a, float[] b) {
+        float dot = 0;
+        for (int i = 0; i < DIMENSIONS; i++) {
+            dot += a[i] * b[i];
+        }
+        return dot;
+    }
+}
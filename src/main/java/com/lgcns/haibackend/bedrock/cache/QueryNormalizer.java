@@ -0,0 +1,53 @@
+package com.lgcns.haibackend.bedrock.cache;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * 질문 문자열 정규화
+ * 같은 질문을 띄어쓰기/문장부호/대소문자만 다르게 입력해도 같은 key 가 나오도록 한다.
+ * NFKC 로 한글 자모 조합형/반각 문자를 완성형으로 맞춘 뒤 문자와 숫자만 남기고,
+ * 그 사이의 공백/문장부호 연속은 구분자(공백 하나)로 줄인다.
+ * 숫자 경계와 부호는 뜻을 바꾸므로 지우지 않는다 ("1 2" != "12", "-2333" != "2333").
+ */
+public final class QueryNormalizer {
+
+    public static final char SEPARATOR = ' ';
+
+    private QueryNormalizer() {
+    }
+
+    public static String normalize(String query) {
+        if (query == null) {
+            return "";
+        }
+        String composed = Normalizer.normalize(query, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+
+        StringBuilder sb = new StringBuilder(composed.length());
+        boolean pendingSeparator = false;
+        for (int i = 0; i < composed.length(); ) {
+            int codePoint = composed.codePointAt(i);
+            int next = i + Character.charCount(codePoint);
+            boolean keep = Character.isLetterOrDigit(codePoint)
+                    || ((codePoint == '-' || codePoint == '+') && isSignOf(composed, sb, next));
+            if (keep) {
+                if (pendingSeparator && sb.length() > 0) {
+                    sb.append(SEPARATOR);
+                }
+                pendingSeparator = false;
+                sb.appendCodePoint(codePoint);
+            } else {
+                pendingSeparator = true;
+            }
+            i = next;
+        }
+        return sb.toString();
+    }
+
+    // 부호 바로 뒤가 숫자이거나, 바로 앞에 남긴 글자가 숫자면 (예: "-2333", "1+2") 부호로 본다
+    private static boolean isSignOf(String composed, StringBuilder kept, int next) {
+        boolean digitAfter = next < composed.length() && Character.isDigit(composed.codePointAt(next));
+        boolean digitBefore = kept.length() > 0 && Character.isDigit(kept.charAt(kept.length() - 1));
+        return digitAfter || digitBefore;
+    }
+}
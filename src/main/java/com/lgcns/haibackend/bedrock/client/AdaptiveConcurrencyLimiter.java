@@ -0,0 +1,73 @@
+package com.lgcns.haibackend.bedrock.client;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 게이트웨이 동시 요청 한도를 관측된 지연으로 조절하는 AIMD 리미터
+ *
+ * - 첫 청크까지 걸린 시간(TTFT)이 기준 이하이고 한도를 절반 이상 쓰고 있으면 한도를 조금씩 늘린다 (성공 1건당 +1/limit, 즉 한도만큼 성공하면 +1)
+ * - TTFT 가 기준을 넘거나 요청이 실패(타임아웃 등)하면 한도를 backoff-ratio 배로 줄인다
+ * - 한도만큼 진행 중이면 새 요청은 기다리지 않고 바로 거절한다
+ *
+ * 스트림 전체 길이는 답변 길이에 따라 달라지므로 지연 신호로는 TTFT 만 사용한다.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // 갱신은 onSample 에서만 (짧은 synchronized), 읽기는 volatile
+    private volatile double limit;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyThresholdNanos,
+            double backoffRatio) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+    }
+
+    /**
+     * 슬롯 하나를 잡는다. 한도만큼 진행 중이면 false (대기 없음)
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * 요청 하나의 결과 반영 - dropped 는 실패/타임아웃
+     */
+    public synchronized void onSample(long latencyNanos, boolean dropped) {
+        if (dropped || latencyNanos > latencyThresholdNanos) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (inFlight.get() * 2 >= limit) {
+            // 한도를 충분히 쓰고 있을 때만 늘린다 (한가할 때 한도만 부풀지 않도록)
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,277 @@
+package com.lgcns.haibackend.bedrock.client;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.lgcns.haibackend.aiPerson.domain.dto.PromptRequest;
+import com.lgcns.haibackend.bedrock.domain.dto.KnowledgeBaseRequest;
+import com.lgcns.haibackend.bedrock.domain.dto.MessageDTO;
+import com.lgcns.haibackend.bedrock.domain.dto.StreamChunk;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.bedrockagentruntime.BedrockAgentRuntimeAsyncClient;
+import software.amazon.awssdk.services.bedrockagentruntime.model.RetrieveAndGenerateStreamRequest;
+import software.amazon.awssdk.services.bedrockagentruntime.model.RetrieveAndGenerateStreamResponseHandler;
+import software.amazon.awssdk.services.bedrockagentruntime.model.RetrieveAndGenerateType;
+import software.amazon.awssdk.services.bedrockruntime.BedrockRuntimeAsyncClient;
+import software.amazon.awssdk.services.bedrockruntime.model.ConverseStreamRequest;
+import software.amazon.awssdk.services.bedrockruntime.model.ConverseStreamResponseHandler;
+import software.amazon.awssdk.services.bedrockruntime.model.PromptVariableValues;
+import software.amazon.awssdk.services.bedrockruntime.model.TokenUsage;
+import software.amazon.awssdk.utils.SdkAutoCloseable;
+
+/**
+ * Bedrock SDK 직접 스트리밍 (bedrock.gateway.backend=direct)
+ *
+ * - 프롬프트 채팅: BedrockRuntimeAsyncClient.converseStream (modelId 에 프롬프트 ARN, 질문은 프롬프트 변수로)
+ * - Knowledge Base: BedrockAgentRuntimeAsyncClient.retrieveAndGenerateStream
+ *
+ * 두 클라이언트는 Netty 비동기 HTTP 클라이언트 하나를 공유하고, SDK 이벤트를 FastAPI 게이트웨이와 같은 StreamChunk 로 바꾼다.
+ * endpoint-override 를 지정하면 로컬 스텁(StubGatewayServer)으로 보낼 수 있다.
+ *
+ * RetrieveAndGenerate 에는 대화 기록 필드가 없어(서버 측 세션만 지원) Knowledge Base 경로에는 대화 문맥을 보내지 않는다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "bedrock.gateway.backend", havingValue = "direct")
+@RequiredArgsConstructor
+public class BedrockDirectClient implements LlmGateway {
+
+    private final GatewayGuard gatewayGuard;
+
+    // 첫 청크 전 헤지 + 연결 실패 재시도
+    private final GatewayHedger gatewayHedger;
+
+    // TTFT / 토큰 간 간격 / 바이트 / 오류 유형 지표
+    private final GatewayStreamMetrics gatewayStreamMetrics;
+
+    @Value("${aws.region:ap-northeast-2}")
+    private String region;
+
+    @Value("${aws.credentials.access-key-id:}")
+    private String accessKeyId;
+
+    @Value("${aws.credentials.secret-access-key:}")
+    private String secretAccessKey;
+
+    // 로컬 스텁 등으로 보낼 때만 지정 (예: http://localhost:8000)
+    @Value("${bedrock.gateway.direct.endpoint-override:}")
+    private String endpointOverride;
+
+    // promptId 가 ARN 이 아니면 이 값을 앞에 붙인다 (예: arn:aws:bedrock:ap-northeast-2:123456789012:prompt/)
+    @Value("${bedrock.gateway.direct.prompt-arn-prefix:}")
+    private String promptArnPrefix;
+
+    // 프롬프트 템플릿에서 사용자 질문을 받는 변수 이름
+    @Value("${bedrock.gateway.direct.prompt-query-variable:user_query}")
+    private String promptQueryVariable;
+
+    // 프롬프트 템플릿에 대화 문맥(요약 + 최근 턴)을 넣을 변수 이름 - 비어 있으면 보내지 않는다
+    @Value("${bedrock.gateway.direct.prompt-history-variable:}")
+    private String promptHistoryVariable;
+
+    @Value("${bedrock.gateway.direct.max-concurrency:${fastapi.pool.max-connections:100}}")
+    private int maxConcurrency;
+
+    @Value("${fastapi.timeout.connect:5000}")
+    private int connectTimeout;
+
+    @Value("${fastapi.timeout.read:60000}")
+    private int readTimeout;
+
+    private SdkAsyncHttpClient httpClient;
+    private AwsCredentialsProvider credentialsProvider;
+    private BedrockRuntimeAsyncClient runtimeClient;
+    private BedrockAgentRuntimeAsyncClient agentRuntimeClient;
+
+    @PostConstruct
+    public void init() {
+        httpClient = NettyNioAsyncHttpClient.builder()
+                .maxConcurrency(maxConcurrency)
+                .connectionTimeout(Duration.ofMillis(connectTimeout))
+                .readTimeout(Duration.ofMillis(readTimeout))
+                .build();
+
+        // create() 는 공유 싱글턴(deprecated)이므로 이 클라이언트 전용으로 만들고 close() 에서 닫는다
+        credentialsProvider = accessKeyId.isBlank()
+                ? DefaultCredentialsProvider.builder().build()
+                : StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKeyId, secretAccessKey));
+
+        var runtimeBuilder = BedrockRuntimeAsyncClient.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentialsProvider)
+                .httpClient(httpClient);
+        var agentRuntimeBuilder = BedrockAgentRuntimeAsyncClient.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentialsProvider)
+                .httpClient(httpClient);
+        if (!endpointOverride.isBlank()) {
+            runtimeBuilder.endpointOverride(URI.create(endpointOverride));
+            agentRuntimeBuilder.endpointOverride(URI.create(endpointOverride));
+        }
+        runtimeClient = runtimeBuilder.build();
+        agentRuntimeClient = agentRuntimeBuilder.build();
+
+        log.info("[BEDROCK DIRECT] Streaming directly to Bedrock (region={}, endpoint={})",
+                region, endpointOverride.isBlank() ? "default" : endpointOverride);
+    }
+
+    @PreDestroy
+    public void close() {
+        // SDK 클라이언트는 외부에서 넘긴 HTTP 클라이언트 / 자격 증명 공급자를 닫지 않는다
+        runtimeClient.close();
+        agentRuntimeClient.close();
+        httpClient.close();
+        if (credentialsProvider instanceof SdkAutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    @Override
+    public Flux<StreamChunk> chatPromptStream(PromptRequest request) {
+        log.debug("🌐 [PROMPT REQUEST] promptId={}, query={}", request.getPromptId(), request.getUserQuery());
+
+        Map<String, PromptVariableValues> variables = new LinkedHashMap<>();
+        variables.put(promptQueryVariable, PromptVariableValues.fromText(request.getUserQuery()));
+        if (!promptHistoryVariable.isBlank()) {
+            variables.put(promptHistoryVariable,
+                    PromptVariableValues.fromText(renderContext(request.getSummary(), request)));
+        }
+        ConverseStreamRequest converseRequest = ConverseStreamRequest.builder()
+                .modelId(promptArn(request.getPromptId()))
+                .promptVariables(variables)
+                .build();
+
+        return gatewayHedger.execute(GatewayHedger.PROMPT, () -> gatewayGuard.guard(() -> Flux.<StreamChunk>create(sink -> {
+                    ConverseStreamResponseHandler handler = ConverseStreamResponseHandler.builder()
+                            .subscriber(ConverseStreamResponseHandler.Visitor.builder()
+                                    .onContentBlockDelta(event -> {
+                                        String text = event.delta().text();
+                                        if (text != null && !text.isEmpty()) {
+                                            sink.next(StreamChunk.content(text));
+                                        }
+                                    })
+                                    .onMetadata(event -> {
+                                        if (event.usage() != null) {
+                                            sink.next(usageChunk(event.usage()));
+                                        }
+                                    })
+                                    .build())
+                            .onError(sink::error)
+                            .onComplete(() -> {
+                                sink.next(StreamChunk.done());
+                                sink.complete();
+                            })
+                            .build();
+                    bridge(sink, runtimeClient.converseStream(converseRequest, handler));
+                })))
+                .transform(stream -> gatewayStreamMetrics.instrument(GatewayHedger.PROMPT,
+                        gatewayStreamMetrics.promptClass(request.getPromptId()), stream))
+                .doOnError(error -> log.error("❌ [PROMPT ERROR] {}", error.getMessage()))
+                .doOnComplete(() -> log.debug("✅ [PROMPT COMPLETE]"));
+    }
+
+    @Override
+    public Flux<StreamChunk> retrieveFromKnowledgeBaseStream(KnowledgeBaseRequest request) {
+        log.debug("🌐 [KB REQUEST] query={}", request.getQuery());
+
+        RetrieveAndGenerateStreamRequest ragRequest = RetrieveAndGenerateStreamRequest.builder()
+                .input(input -> input.text(request.getQuery()))
+                .retrieveAndGenerateConfiguration(config -> config
+                        .type(RetrieveAndGenerateType.KNOWLEDGE_BASE)
+                        .knowledgeBaseConfiguration(kb -> kb
+                                .knowledgeBaseId(request.getKbId())
+                                .modelArn(request.getModelArn())
+                                .retrievalConfiguration(retrieval -> retrieval
+                                        .vectorSearchConfiguration(vector -> vector
+                                                .numberOfResults(request.getMaxResults())))))
+                .build();
+
+        return gatewayHedger.execute(GatewayHedger.KNOWLEDGE, () -> gatewayGuard.guard(() -> Flux.<StreamChunk>create(sink -> {
+                    RetrieveAndGenerateStreamResponseHandler handler = RetrieveAndGenerateStreamResponseHandler.builder()
+                            .subscriber(RetrieveAndGenerateStreamResponseHandler.Visitor.builder()
+                                    .onOutput(event -> {
+                                        if (event.text() != null && !event.text().isEmpty()) {
+                                            sink.next(StreamChunk.content(event.text()));
+                                        }
+                                    })
+                                    .build())
+                            .onError(sink::error)
+                            .onComplete(() -> {
+                                sink.next(StreamChunk.done());
+                                sink.complete();
+                            })
+                            .build();
+                    bridge(sink, agentRuntimeClient.retrieveAndGenerateStream(ragRequest, handler));
+                })))
+                .transform(stream -> gatewayStreamMetrics.instrument(GatewayHedger.KNOWLEDGE,
+                        GatewayStreamMetrics.PROMPT_CLASS_NONE, stream))
+                .doOnError(error -> log.error("❌ [KB ERROR] {}", error.getMessage()));
+    }
+
+    /**
+     * SDK 에는 별도 헬스 엔드포인트가 없으므로 서킷 상태로 대신한다
+     */
+    @Override
+    public Mono<Boolean> checkHealth() {
+        return Mono.just(gatewayGuard.isAvailable());
+    }
+
+    // 요청 future 가 핸들러 콜백 없이 실패하는 경우(연결 실패 등)도 에러로 전달하고, 구독 취소 시 요청을 끊는다
+    private static void bridge(FluxSink<StreamChunk> sink, CompletableFuture<Void> future) {
+        future.whenComplete((ignored, error) -> {
+            if (error != null) {
+                sink.error(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+            }
+        });
+        sink.onCancel(() -> future.cancel(true));
+    }
+
+    private String promptArn(String promptId) {
+        return promptId.startsWith("arn:") ? promptId : promptArnPrefix + promptId;
+    }
+
+    private static String renderContext(String summary, PromptRequest request) {
+        StringBuilder sb = new StringBuilder();
+        if (summary != null && !summary.isEmpty()) {
+            sb.append("[이전 대화 요약]\n").append(summary).append("\n\n");
+        }
+        if (request.getHistory() != null) {
+            for (MessageDTO message : request.getHistory()) {
+                sb.append(message.getRole()).append(": ").append(message.getContent()).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    private static StreamChunk usageChunk(TokenUsage usage) {
+        Map<String, Integer> values = new LinkedHashMap<>();
+        values.put("input_tokens", usage.inputTokens());
+        values.put("output_tokens", usage.outputTokens());
+        return StreamChunk.builder()
+                .type(StreamChunk.TYPE_USAGE)
+                .usage(values)
+                .build();
+    }
+}
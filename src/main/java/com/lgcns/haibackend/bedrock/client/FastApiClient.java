@@ -1,12 +1,17 @@
 package com.lgcns.haibackend.bedrock.client;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.lgcns.haibackend.aiPerson.domain.dto.PromptRequest;
 import com.lgcns.haibackend.bedrock.domain.dto.KnowledgeBaseRequest;
+import com.lgcns.haibackend.bedrock.domain.dto.StreamChunk;
+
+import jakarta.annotation.PostConstruct;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.stereotype.Component;
@@ -14,158 +19,157 @@ import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * FastAPI Bedrock Gateway 클라이언트
- * WebClient를 사용한 비동기 방식
+ * WebClient를 사용한 비동기 방식 (bedrock.gateway.backend=fastapi, 기본값)
  */
 @Slf4j
 @Component
+@ConditionalOnProperty(name = "bedrock.gateway.backend", havingValue = "fastapi", matchIfMissing = true)
 @RequiredArgsConstructor
-public class FastApiClient {
+public class FastApiClient implements LlmGateway {
 
     private final WebClient webClient;
     private final ObjectMapper objectMapper;
 
+    // 서킷 브레이커 + 적응형 동시 요청 한도
+    private final GatewayGuard gatewayGuard;
+
+    // 첫 청크 전 헤지 + 연결 실패 재시도
+    private final GatewayHedger gatewayHedger;
+
+    // TTFT / 토큰 간 간격 / 바이트 / 오류 유형 지표
+    private final GatewayStreamMetrics gatewayStreamMetrics;
+
     @Value("${fastapi.base-url:http://localhost:8000}")
     private String baseUrl;
 
+    // 청크마다 타입 해석을 반복하지 않도록 미리 만들어 둔 reader
+    private ObjectReader chunkReader;
+
+    @PostConstruct
+    public void init() {
+        this.chunkReader = objectMapper.readerFor(StreamChunk.class);
+    }
+
     /**
      * 프롬프트 템플릿 기반 채팅 요청 (스트리밍) - /chat/prompt
      */
-    public Flux<String> chatPromptStream(PromptRequest request) {
+    @Override
+    public Flux<StreamChunk> chatPromptStream(PromptRequest request) {
         String endpoint = baseUrl + "/chat/prompt";
 
-        log.info("🌐 [PROMPT REQUEST] promptId={}, query={}", request.getPromptId(), request.getUserQuery());
+        log.debug("🌐 [PROMPT REQUEST] promptId={}, query={}", request.getPromptId(), request.getUserQuery());
 
-        return webClient.post()
+        return gatewayHedger.execute(GatewayHedger.PROMPT, () -> gatewayGuard.guard(() -> webClient.post()
                 .uri(endpoint)
                 .bodyValue(request)
                 .retrieve()
                 .bodyToFlux(org.springframework.core.io.buffer.DataBuffer.class)
-                .transform(this::decodeAndParseSse)
+                .transform(this::decodeAndParseSse)))
+                .transform(stream -> gatewayStreamMetrics.instrument(GatewayHedger.PROMPT,
+                        gatewayStreamMetrics.promptClass(request.getPromptId()), stream))
                 .doOnError(error -> {
                     log.error("❌ [PROMPT ERROR] {}", error.getMessage());
                 })
                 .doOnComplete(() -> {
-                    log.info("✅ [PROMPT COMPLETE]");
+                    log.debug("✅ [PROMPT COMPLETE]");
                 });
     }
 
     /**
      * Knowledge Base 검색 (스트리밍)
      */
-    public Flux<String> retrieveFromKnowledgeBaseStream(KnowledgeBaseRequest request) {
+    @Override
+    public Flux<StreamChunk> retrieveFromKnowledgeBaseStream(KnowledgeBaseRequest request) {
         String endpoint = baseUrl + "/chat/knowledge";
-        log.info("🌐 [KB REQUEST] query={}", request.getQuery());
+        log.debug("🌐 [KB REQUEST] query={}", request.getQuery());
 
-        return webClient.post()
+        return gatewayHedger.execute(GatewayHedger.KNOWLEDGE, () -> gatewayGuard.guard(() -> webClient.post()
                 .uri(endpoint)
-                .bodyValue(Map.of(
-                        "query", request.getQuery(),
-                        "kb_id", request.getKbId(),
-                        "model_arn", request.getModelArn()))
+                .bodyValue(knowledgeBody(request))
                 .retrieve()
                 .bodyToFlux(org.springframework.core.io.buffer.DataBuffer.class)
-                .transform(this::decodeAndParseSse)
+                .transform(this::decodeAndParseSse)))
+                .transform(stream -> gatewayStreamMetrics.instrument(GatewayHedger.KNOWLEDGE,
+                        GatewayStreamMetrics.PROMPT_CLASS_NONE, stream))
                 .doOnError(error -> log.error("❌ [KB ERROR] {}", error.getMessage()));
     }
 
+    // 게이트웨이 /chat/knowledge 요청 본문 (snake_case) - 대화 문맥은 있을 때만 보낸다
+    private static Map<String, Object> knowledgeBody(KnowledgeBaseRequest request) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("query", request.getQuery());
+        body.put("kb_id", request.getKbId());
+        body.put("model_arn", request.getModelArn());
+        if (request.getHistory() != null && !request.getHistory().isEmpty()) {
+            body.put("history", request.getHistory());
+        }
+        if (request.getSummary() != null && !request.getSummary().isEmpty()) {
+            body.put("summary", request.getSummary());
+        }
+        return body;
+    }
+
     /**
      * ✅ SSE 스트림 디코딩 및 파싱 (순서 보장)
+     * 구독마다 새 SseDataDecoder를 만들어 도착한 바이트만 증분 스캔한다.
+     * (FastApiSseBenchmark 가 녹화된 응답으로 직접 호출하므로 package-private)
      */
-    private Flux<String> decodeAndParseSse(Flux<DataBuffer> body) {
-        AtomicReference<StringBuilder> buffer = new AtomicReference<>(new StringBuilder());
-
-        return body
-                .map(dataBuffer -> {
-                    byte[] bytes = new byte[dataBuffer.readableByteCount()];
-                    dataBuffer.read(bytes);
-                    DataBufferUtils.release(dataBuffer);
-                    return new String(bytes, StandardCharsets.UTF_8);
-                })
-                // ⭐ flatMap → concatMap으로 변경 (순서 보장)
-                .concatMap(text -> {
-                    buffer.get().append(text);
-                    String accumulated = buffer.get().toString();
-
-                    String[] events = accumulated.split("\n\n");
-
-                    if (events.length > 1) {
-                        buffer.set(new StringBuilder(events[events.length - 1]));
-
-                        String[] completeEvents = new String[events.length - 1];
-                        System.arraycopy(events, 0, completeEvents, 0, events.length - 1);
-
-                        return Flux.fromArray(completeEvents);
-                    }
-
-                    return Flux.empty();
-                })
-                // ⭐ 스트림 종료 시 남은 버퍼 처리
-                .concatWith(Flux.defer(() -> {
-                    String remaining = buffer.get().toString().trim();
-                    if (!remaining.isEmpty()) {
-                        log.info("🔚 [FINAL BUFFER] {}", remaining);
-                        return Flux.just(remaining);
-                    }
-                    return Flux.empty();
-                }))
-                // ⭐ 여기도 concatMap으로 변경
-                .concatMap(event -> {
-                    String[] lines = event.split("\n");
-                    return Flux.fromArray(lines)
-                            // ⭐ 여기도 concatMap으로 변경
-                            .concatMap(line -> {
-                                if (line.contains("data: ")) {
-                                    String[] parts = line.split("(?=data: )");
-                                    return Flux.fromArray(parts);
+    Flux<StreamChunk> decodeAndParseSse(Flux<DataBuffer> body) {
+        return Flux.defer(() -> {
+                    SseDataDecoder decoder = new SseDataDecoder();
+                    return body
+                            .concatMapIterable(dataBuffer -> {
+                                try {
+                                    return decoder.decode(dataBuffer);
+                                } finally {
+                                    DataBufferUtils.release(dataBuffer);
                                 }
-                                return Flux.just(line);
                             })
-                            .filter(line -> line.startsWith("data: "))
-                            .map(line -> line.substring(6).trim());
+                            // ⭐ 스트림 종료 시 개행 없이 남은 라인 처리
+                            .concatWith(Flux.defer(() -> Flux.fromIterable(decoder.flush())));
                 })
-                .filter(data -> !data.isEmpty() && !data.equals("[DONE]"))
-                .map(data -> {
+                .filter(data -> !data.equals("[DONE]"))
+                .handle((data, sink) -> {
                     try {
-                        Map<String, Object> chunk = objectMapper.readValue(data, Map.class);
-                        String type = (String) chunk.get("type");
-
-                        if ("content".equals(type)) {
-                            return (String) chunk.getOrDefault("text", "");
-                        } else if ("done".equals(type)) {
-                            log.info("✅ [STREAM DONE]");
-                            return "";
+                        StreamChunk chunk = chunkReader.readValue(data);
+
+                        if (chunk.isContent()) {
+                            if (chunk.getText() != null && !chunk.getText().isEmpty()) {
+                                sink.next(chunk);
+                            }
+                            return;
+                        } else if (StreamChunk.TYPE_DONE.equals(chunk.getType())) {
+                            log.debug("✅ [STREAM DONE]");
+                        }
+                        if (chunk.getType() != null) {
+                            sink.next(chunk);
                         }
-                        return "";
                     } catch (Exception e) {
                         log.error("❌ [JSON PARSE ERROR] data={}", data, e);
-                        return "";
                     }
-                })
-                .filter(text -> !text.isEmpty());
+                });
     }
 
     /**
-     * 헬스 체크
+     * 헬스 체크 (논블로킹) - 요청마다 부르지 말고 GatewayHealthMonitor 의 캐시된 상태를 사용
      */
-    public boolean isHealthy() {
-        try {
-            Map<String, Object> health = webClient.get()
-                    .uri(baseUrl + "/health")
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .block();
-
-            return health != null && "healthy".equals(health.get("status"));
-        } catch (Exception e) {
-            log.error("Health check failed: {}", e.getMessage());
-            return false;
-        }
+    @Override
+    public Mono<Boolean> checkHealth() {
+        return webClient.get()
+                .uri(baseUrl + "/health")
+                .retrieve()
+                .bodyToMono(Map.class)
+                .map(health -> "healthy".equals(health.get("status")))
+                .defaultIfEmpty(false)
+                .onErrorResume(e -> {
+                    log.error("Health check failed: {}", e.getMessage());
+                    return Mono.just(false);
+                });
     }
-}
\ No newline at end of file
+}
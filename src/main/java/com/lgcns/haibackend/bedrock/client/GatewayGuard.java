@@ -0,0 +1,225 @@
+package com.lgcns.haibackend.bedrock.client;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.lgcns.haibackend.bedrock.domain.dto.StreamChunk;
+import com.lgcns.haibackend.config.FastApiPoolProperties;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+
+/**
+ * FastAPI 게이트웨이 스트림 보호 (서킷 브레이커 + 적응형 동시 요청 한도)
+ *
+ * 1. 서킷이 열려 있으면 게이트웨이를 부르지 않고 바로 거절
+ * 2. 동시 요청이 한도(AdaptiveConcurrencyLimiter)만큼 차 있으면 커넥션 풀에서 기다리지 않고 바로 거절
+ * 3. 첫 청크가 first-chunk-timeout 안에 오지 않으면 실패로 끊는다 (read timeout 60초까지 SSE 를 붙잡지 않음)
+ *
+ * 거절은 GatewayUnavailableException 으로 스트림 시작 전에 나므로 클라이언트는 바로 503 을 받는다.
+ * 게이트웨이 4xx 는 요청 문제이므로 서킷 실패로 세지 않는다.
+ * 200 스트림 안의 error 프레임(게이트웨이가 알려 주는 Bedrock 실패)은 스트림 에러와 같이 서킷 실패 + 한도 감소로 센다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GatewayGuard {
+
+    private final MeterRegistry meterRegistry;
+
+    private final FastApiPoolProperties poolProperties;
+
+    @Value("${fastapi.guard.enabled:true}")
+    private boolean enabled;
+
+    @Value("${fastapi.guard.first-chunk-timeout:15s}")
+    private Duration firstChunkTimeout;
+
+    @Value("${fastapi.guard.concurrency.initial-limit:20}")
+    private int initialLimit;
+
+    @Value("${fastapi.guard.concurrency.min-limit:4}")
+    private int minLimit;
+
+    // 0 이하면 커넥션 풀의 동시 스트림 상한 (FastApiPoolProperties.streamCapacity) - 그보다 크게 잡으면 넘친 요청은 풀에서 기다리게 된다
+    @Value("${fastapi.guard.concurrency.max-limit:0}")
+    private int maxLimit;
+
+    @Value("${fastapi.guard.concurrency.latency-threshold:3s}")
+    private Duration latencyThreshold;
+
+    @Value("${fastapi.guard.concurrency.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    @Value("${fastapi.guard.concurrency.retry-after:1s}")
+    private Duration overloadedRetryAfter;
+
+    @Value("${fastapi.guard.circuit-breaker.failure-rate-threshold:50}")
+    private float failureRateThreshold;
+
+    @Value("${fastapi.guard.circuit-breaker.sliding-window-size:20}")
+    private int slidingWindowSize;
+
+    @Value("${fastapi.guard.circuit-breaker.minimum-number-of-calls:10}")
+    private int minimumNumberOfCalls;
+
+    @Value("${fastapi.guard.circuit-breaker.wait-duration-in-open-state:15s}")
+    private Duration waitDurationInOpenState;
+
+    @Value("${fastapi.guard.circuit-breaker.permitted-calls-in-half-open-state:3}")
+    private int permittedCallsInHalfOpenState;
+
+    private CircuitBreaker circuitBreaker;
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    private Counter shedCircuitOpenCounter;
+    private Counter shedOverloadedCounter;
+
+    @PostConstruct
+    public void init() {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumNumberOfCalls)
+                .waitDurationInOpenState(waitDurationInOpenState)
+                .permittedNumberOfCallsInHalfOpenState(permittedCallsInHalfOpenState)
+                .ignoreException(GatewayGuard::isClientError)
+                .build();
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+        circuitBreaker = registry.circuitBreaker("fastapi");
+        circuitBreaker.getEventPublisher().onStateTransition(event ->
+                log.warn("[GATEWAY GUARD] Circuit {}", event.getStateTransition()));
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+
+        concurrencyLimiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit,
+                maxLimit > 0 ? maxLimit : poolProperties.streamCapacity(),
+                latencyThreshold.toNanos(), backoffRatio);
+        Gauge.builder("fastapi.concurrency.limit", concurrencyLimiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive limit on concurrent gateway streams")
+                .register(meterRegistry);
+        Gauge.builder("fastapi.concurrency.inflight", concurrencyLimiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Gateway streams currently in flight")
+                .register(meterRegistry);
+        shedCircuitOpenCounter = shedCounter("circuit-open");
+        shedOverloadedCounter = shedCounter("overloaded");
+    }
+
+    private Counter shedCounter(String reason) {
+        return Counter.builder("fastapi.requests.shed")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * upstream 스트림을 보호해서 구독한다 - 구독 시점마다 서킷/한도를 확인한다
+     */
+    public Flux<StreamChunk> guard(Supplier<Flux<StreamChunk>> upstream) {
+        if (!enabled) {
+            return Flux.defer(upstream);
+        }
+
+        return Flux.defer(() -> {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                shedCircuitOpenCounter.increment();
+                return Flux.error(new GatewayUnavailableException("circuit-open", waitDurationInOpenState));
+            }
+            if (!concurrencyLimiter.tryAcquire()) {
+                circuitBreaker.releasePermission();
+                shedOverloadedCounter.increment();
+                log.warn("[GATEWAY GUARD] Shedding request ({} in flight, limit {})",
+                        concurrencyLimiter.getInFlight(), concurrencyLimiter.getLimit());
+                return Flux.error(new GatewayUnavailableException("overloaded", overloadedRetryAfter));
+            }
+
+            long startNanos = System.nanoTime();
+            // 첫 청크 도착 시각 (0 이면 아직) - 한 구독 안에서만 쓰인다
+            long[] firstChunkNanos = new long[1];
+            // error 프레임으로 이미 서킷/한도에 실패를 기록했는지 - 이후 완료/에러/취소는 다시 기록하지 않는다
+            boolean[] failureRecorded = new boolean[1];
+
+            return Flux.defer(upstream)
+                    .timeout(Mono.delay(firstChunkTimeout), chunk -> Mono.never())
+                    .doOnNext(chunk -> {
+                        if (failureRecorded[0]) {
+                            return;
+                        }
+                        if (chunk.isError()) {
+                            // 빠른 error 프레임을 빠른 첫 청크로 세면 AIMD 한도가 오히려 늘어난다
+                            failureRecorded[0] = true;
+                            long elapsed = System.nanoTime() - startNanos;
+                            circuitBreaker.onError(elapsed, TimeUnit.NANOSECONDS,
+                                    new IllegalStateException("gateway error frame: " + chunk.getMessage()));
+                            concurrencyLimiter.onSample(elapsed, true);
+                            return;
+                        }
+                        if (firstChunkNanos[0] == 0) {
+                            firstChunkNanos[0] = System.nanoTime();
+                            concurrencyLimiter.onSample(firstChunkNanos[0] - startNanos, false);
+                        }
+                    })
+                    .doOnError(error -> {
+                        if (failureRecorded[0]) {
+                            return;
+                        }
+                        long elapsed = System.nanoTime() - startNanos;
+                        circuitBreaker.onError(elapsed, TimeUnit.NANOSECONDS, error);
+                        if (!isClientError(error)) {
+                            concurrencyLimiter.onSample(elapsed, true);
+                        }
+                    })
+                    .doOnComplete(() -> {
+                        if (failureRecorded[0]) {
+                            return;
+                        }
+                        // 서킷에는 스트림 전체가 아니라 첫 청크까지의 시간을 기록한다
+                        long ttft = (firstChunkNanos[0] != 0 ? firstChunkNanos[0] : System.nanoTime()) - startNanos;
+                        circuitBreaker.onSuccess(ttft, TimeUnit.NANOSECONDS);
+                    })
+                    .doFinally(signal -> {
+                        if (signal == SignalType.CANCEL && !failureRecorded[0]) {
+                            circuitBreaker.releasePermission();
+                        }
+                        concurrencyLimiter.release();
+                    });
+        });
+    }
+
+    /**
+     * 서킷이 닫혀 있는지 (OPEN / FORCED_OPEN 이 아니면 호출 가능) - 별도 헬스 엔드포인트가 없는 백엔드용
+     */
+    public boolean isAvailable() {
+        if (!enabled) {
+            return true;
+        }
+        CircuitBreaker.State state = circuitBreaker.getState();
+        return state != CircuitBreaker.State.OPEN && state != CircuitBreaker.State.FORCED_OPEN;
+    }
+
+    // 요청 자체가 잘못된 4xx 는 게이트웨이/Bedrock 장애로 보지 않는다 (WebClient, Bedrock SDK 공통)
+    private static boolean isClientError(Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            return response.getStatusCode().is4xxClientError();
+        }
+        if (error instanceof SdkServiceException service) {
+            return service.statusCode() >= 400 && service.statusCode() < 500;
+        }
+        return false;
+    }
+}
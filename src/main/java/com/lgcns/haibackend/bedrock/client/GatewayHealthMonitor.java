@@ -0,0 +1,44 @@
+package com.lgcns.haibackend.bedrock.client;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * LLM 게이트웨이 상태 캐시
+ * /api/ai/health 요청마다 게이트웨이를 부르지 않고, 백그라운드에서 주기적으로 확인한 마지막 결과를 돌려준다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GatewayHealthMonitor {
+
+    private final LlmGateway llmGateway;
+
+    // null 이면 아직 한 번도 확인하지 못함
+    private volatile Boolean healthy;
+
+    @Scheduled(fixedDelayString = "${fastapi.health.refresh-interval:10000}")
+    public void refresh() {
+        llmGateway.checkHealth().subscribe(this::update);
+    }
+
+    /**
+     * 마지막으로 확인한 게이트웨이 상태 (기동 직후 아직 결과가 없을 때만 직접 확인)
+     */
+    public Mono<Boolean> currentStatus() {
+        Boolean current = healthy;
+        return current != null ? Mono.just(current) : llmGateway.checkHealth().doOnNext(this::update);
+    }
+
+    private void update(boolean status) {
+        Boolean previous = healthy;
+        healthy = status;
+        if (previous != null && previous != status) {
+            log.warn("[GATEWAY HEALTH] Gateway is now {}", status ? "healthy" : "unhealthy");
+        }
+    }
+}
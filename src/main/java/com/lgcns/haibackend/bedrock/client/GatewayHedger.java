@@ -0,0 +1,267 @@
+package com.lgcns.haibackend.bedrock.client;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.lgcns.haibackend.bedrock.domain.dto.StreamChunk;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+/**
+ * 첫 토큰 전 구간의 헤지(hedged request) + 연결 실패 재시도
+ *
+ * - 헤지: 첫 청크가 마감 시간(최근 TTFT 의 percentile 값) 안에 오지 않으면 같은 요청을 한 번 더 보내고,
+ *   먼저 content 청크를 낸 스트림만 이어 받고 나머지는 취소한다. 헤지는 budget-ratio (요청 대비 비율) 안에서만 보낸다.
+ *   content 전에 온 error 프레임은 경주를 가리지 않는다 - 두 시도 모두 content 없이 끝나면 주 요청의 프레임을 돌려준다.
+ * - 재시도: 연결 실패(IOException 계열)이고 아직 청크를 하나도 내보내지 않았을 때만 다시 시도한다.
+ *   HTTP 상태 오류, 첫 청크 타임아웃, GatewayGuard 거절은 재시도하지 않는다.
+ *
+ * 각 시도는 호출자가 넘긴 upstream(GatewayGuard 로 감싼 스트림)을 새로 구독하므로
+ * 헤지/재시도도 서킷 브레이커와 동시 요청 한도에 그대로 잡힌다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GatewayHedger {
+
+    public static final String PROMPT = "prompt";
+    public static final String KNOWLEDGE = "knowledge";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${fastapi.hedge.enabled:true}")
+    private boolean hedgeEnabled;
+
+    @Value("${fastapi.hedge.percentile:0.95}")
+    private double percentile;
+
+    // TTFT 샘플이 min-samples 개 모이기 전의 마감 시간
+    @Value("${fastapi.hedge.initial-delay:2s}")
+    private Duration initialDelay;
+
+    @Value("${fastapi.hedge.min-delay:300ms}")
+    private Duration minDelay;
+
+    @Value("${fastapi.hedge.max-delay:5s}")
+    private Duration maxDelay;
+
+    @Value("${fastapi.hedge.window-size:200}")
+    private int windowSize;
+
+    @Value("${fastapi.hedge.min-samples:20}")
+    private int minSamples;
+
+    // 요청 하나당 쌓이는 헤지 허용량 (0.1 이면 최대 약 10%)
+    @Value("${fastapi.hedge.budget-ratio:0.1}")
+    private double budgetRatio;
+
+    @Value("${fastapi.retry.max-retries:1}")
+    private int maxRetries;
+
+    @Value("${fastapi.retry.backoff:100ms}")
+    private Duration retryBackoff;
+
+    // 한가할 때 쌓인 허용량으로 헤지가 한꺼번에 몰리지 않도록 상한을 둔다
+    private static final double BUDGET_CAP = 10;
+
+    private Map<String, Operation> operations;
+
+    private double hedgeBudget;
+
+    @PostConstruct
+    public void init() {
+        operations = Map.of(PROMPT, new Operation(PROMPT), KNOWLEDGE, new Operation(KNOWLEDGE));
+    }
+
+    /**
+     * upstream 을 재시도/헤지로 감싼다 - upstream 은 구독할 때마다 새 요청을 보내야 한다
+     */
+    public Flux<StreamChunk> execute(String operation, Supplier<Flux<StreamChunk>> upstream) {
+        Operation op = operations.get(operation);
+        if (!hedgeEnabled) {
+            return attempt(op, upstream, false);
+        }
+
+        return Flux.defer(() -> {
+            op.requests.increment();
+            synchronized (this) {
+                hedgeBudget = Math.min(BUDGET_CAP, hedgeBudget + budgetRatio);
+            }
+
+            // 주 요청이 첫 content 청크 없이 끝나면(실패 포함) 헤지를 보내지 않고 그 결과를 그대로 돌려준다
+            Sinks.One<Boolean> primaryTerminated = Sinks.one();
+            AtomicReference<List<StreamChunk>> primaryFrames = new AtomicReference<>(List.of());
+            AtomicReference<List<StreamChunk>> hedgeFrames = new AtomicReference<>(List.of());
+            Flux<StreamChunk> primary = untilContent(attempt(op, upstream, false), primaryFrames)
+                    .doOnTerminate(() -> primaryTerminated.tryEmitValue(true));
+            Duration deadline = op.deadline();
+            Flux<StreamChunk> hedge = Mono.delay(deadline)
+                    .takeUntilOther(primaryTerminated.asMono())
+                    .filter(tick -> tryConsumeBudget())
+                    .flatMapMany(tick -> {
+                        op.fired.increment();
+                        log.debug("[GATEWAY HEDGE] No first chunk within {} ms, sending hedge ({})",
+                                deadline.toMillis(), operation);
+                        return untilContent(attempt(op, upstream, true), hedgeFrames);
+                    });
+
+            return Flux.firstWithValue(primary, hedge)
+                    .onErrorResume(NoSuchElementException.class,
+                            error -> noWinner(error, primaryFrames.get(), hedgeFrames.get()));
+        });
+    }
+
+    // 두 시도 모두 content 없이 끝나면 firstWithValue 는 NoSuchElementException(원인: 시도별 오류의 복합 예외)으로 끝난다
+    // 주 요청이 붙잡아 둔 프레임 > 주 요청부터의 실제 오류 > 헤지의 프레임 순으로 돌려주고, 모두 비어 있으면 빈 완료로 끝낸다
+    private static Flux<StreamChunk> noWinner(NoSuchElementException error, List<StreamChunk> primaryFrames,
+            List<StreamChunk> hedgeFrames) {
+        if (!primaryFrames.isEmpty()) {
+            return Flux.fromIterable(primaryFrames);
+        }
+        if (error.getCause() != null) {
+            // 빈 채로 끝난 시도는 "source at index N completed empty" NoSuchElementException 으로 들어 있다
+            for (Throwable attemptError : Exceptions.unwrapMultiple(error.getCause())) {
+                if (!(attemptError instanceof NoSuchElementException)) {
+                    return Flux.error(attemptError);
+                }
+            }
+        }
+        return Flux.fromIterable(hedgeFrames);
+    }
+
+    // 첫 content 청크 전의 청크(error 프레임 등)는 붙잡아 두었다가 content 와 함께 내보낸다 - 경주는 content 로만 가린다
+    // content 없이 끝나면 붙잡은 청크를 noContentFrames 에 넘기고 빈 스트림으로 끝난다
+    private static Flux<StreamChunk> untilContent(Flux<StreamChunk> attempt,
+            AtomicReference<List<StreamChunk>> noContentFrames) {
+        return Flux.defer(() -> {
+            List<StreamChunk> held = new ArrayList<>();
+            boolean[] released = new boolean[1];
+            return attempt
+                    .concatMapIterable(chunk -> {
+                        if (released[0]) {
+                            return List.of(chunk);
+                        }
+                        held.add(chunk);
+                        if (!chunk.isContent()) {
+                            return List.of();
+                        }
+                        released[0] = true;
+                        return List.copyOf(held);
+                    })
+                    .doOnComplete(() -> {
+                        if (!released[0]) {
+                            noContentFrames.set(List.copyOf(held));
+                        }
+                    });
+        });
+    }
+
+    private Flux<StreamChunk> attempt(Operation op, Supplier<Flux<StreamChunk>> upstream, boolean hedge) {
+        return Flux.defer(() -> {
+            long startNanos = System.nanoTime();
+            // 청크를 하나라도 받았으면 재시도하지 않는다 (재시도 간에 공유)
+            boolean[] forwarded = new boolean[1];
+            // TTFT 창과 헤지 승리는 첫 content 청크로만 센다 (빠른 error 프레임이 마감 시간을 끌어내리지 않도록)
+            boolean[] firstContent = new boolean[1];
+
+            return Flux.defer(upstream)
+                    .doOnNext(chunk -> {
+                        forwarded[0] = true;
+                        if (!firstContent[0] && chunk.isContent()) {
+                            firstContent[0] = true;
+                            op.ttft.record(System.nanoTime() - startNanos);
+                            if (hedge) {
+                                op.wins.increment();
+                            }
+                        }
+                    })
+                    .retryWhen(Retry.backoff(maxRetries, retryBackoff)
+                            .filter(error -> !forwarded[0] && isConnectionFailure(error))
+                            .doBeforeRetry(signal -> {
+                                op.retries.increment();
+                                log.warn("[GATEWAY RETRY] {} attempt failed before first chunk: {}",
+                                        op.name, signal.failure().getMessage());
+                            })
+                            .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+        });
+    }
+
+    private synchronized boolean tryConsumeBudget() {
+        if (hedgeBudget < 1) {
+            return false;
+        }
+        hedgeBudget -= 1;
+        return true;
+    }
+
+    // 연결 단계 실패 (연결 거부, 응답 전 연결 종료 등) - WebClientRequestException / SdkClientException 의 원인으로 감싸져 온다
+    static boolean isConnectionFailure(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Duration clamp(Duration delay) {
+        if (delay.compareTo(minDelay) < 0) {
+            return minDelay;
+        }
+        return delay.compareTo(maxDelay) > 0 ? maxDelay : delay;
+    }
+
+    private class Operation {
+
+        private final String name;
+        private final LatencyPercentileWindow ttft;
+        private final Counter requests;
+        private final Counter fired;
+        private final Counter wins;
+        private final Counter retries;
+
+        Operation(String name) {
+            this.name = name;
+            this.ttft = new LatencyPercentileWindow(windowSize, percentile, minSamples, 16);
+            this.requests = counter("fastapi.hedge.requests", "Streams eligible for hedging");
+            this.fired = counter("fastapi.hedge.fired", "Hedge requests sent after the first-chunk deadline");
+            this.wins = counter("fastapi.hedge.wins", "Hedge requests that produced the first content chunk");
+            this.retries = counter("fastapi.retries", "Attempts retried after a connection failure");
+            Gauge.builder("fastapi.hedge.deadline", this, o -> o.deadline().toNanos() / 1e9)
+                    .description("Current first-chunk deadline before a hedge is sent (seconds)")
+                    .tag("operation", name)
+                    .register(meterRegistry);
+        }
+
+        Duration deadline() {
+            long nanos = ttft.percentileNanos();
+            return clamp(nanos < 0 ? initialDelay : Duration.ofNanos(nanos));
+        }
+
+        private Counter counter(String metric, String description) {
+            return Counter.builder(metric)
+                    .description(description)
+                    .tag("operation", name)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.lgcns.haibackend.bedrock.client;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.lgcns.haibackend.bedrock.domain.dto.StreamChunk;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+
+/**
+ * 게이트웨이 요청 single-flight
+ * 같은 key(엔드포인트, promptId/kbId, 정규화된 질문)의 요청이 진행 중이면 새 요청을 보내지 않고
+ * 진행 중인 upstream 에 붙는다. replay 로 멀티캐스트하므로 나중에 붙은 구독자도 처음부터 전체 토큰을 받는다.
+ * 모든 구독자가 취소하면 refCount 가 upstream 을 해제한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GatewayRequestCoalescer {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${fastapi.coalescing.enabled:true}")
+    private boolean enabled;
+
+    private final ConcurrentHashMap<String, Flux<StreamChunk>> inFlight = new ConcurrentHashMap<>();
+
+    private Counter coalescedCounter;
+
+    @PostConstruct
+    public void initMetrics() {
+        coalescedCounter = Counter.builder("fastapi.requests.coalesced")
+                .description("Gateway requests served by attaching to an identical in-flight stream")
+                .register(meterRegistry);
+    }
+
+    public Flux<StreamChunk> coalesce(String key, Supplier<Flux<StreamChunk>> upstream) {
+        if (!enabled) {
+            return upstream.get();
+        }
+
+        return Flux.defer(() -> {
+            boolean[] created = new boolean[1];
+            Flux<StreamChunk> shared = inFlight.computeIfAbsent(key, k -> {
+                created[0] = true;
+                return share(k, upstream.get());
+            });
+
+            if (!created[0]) {
+                coalescedCounter.increment();
+                log.debug("[COALESCE] Attached to in-flight request key={}", key);
+            }
+            return shared;
+        });
+    }
+
+    private Flux<StreamChunk> share(String key, Flux<StreamChunk> upstream) {
+        AtomicReference<Flux<StreamChunk>> self = new AtomicReference<>();
+        Flux<StreamChunk> shared = upstream
+                // 완료/에러(구독자에게 전달되기 전)/전원 취소 시 map 에서 제거해 다음 요청은 새로 보낸다
+                .doOnTerminate(() -> inFlight.remove(key, self.get()))
+                .doOnCancel(() -> inFlight.remove(key, self.get()))
+                .replay()
+                .refCount(1);
+        self.set(shared);
+        return shared;
+    }
+}
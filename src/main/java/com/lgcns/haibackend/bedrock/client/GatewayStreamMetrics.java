@@ -0,0 +1,256 @@
+package com.lgcns.haibackend.bedrock.client;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.lgcns.haibackend.aiPerson.service.AIPersonCatalog;
+import com.lgcns.haibackend.bedrock.domain.dto.StreamChunk;
+import com.lgcns.haibackend.common.sse.StreamSummaryLogger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+
+/**
+ * 게이트웨이 스트림 지표 (TTFT, 토큰 간 간격, 바이트, 토큰 처리량, 소요 시간, 오류 유형, 진행 중 스트림 수)
+ *
+ * 태그는 endpoint(prompt | knowledge) 와 prompt_class(AI 인물의 시대, Knowledge Base 는 none) 만 쓴다.
+ * promptId 를 그대로 태그로 쓰면 인물 수 x 히스토그램 버킷만큼 시계열이 늘어나므로 시대 단위로 묶는다.
+ *
+ * 미터는 (endpoint, prompt_class) 조합마다 한 번만 등록해 두고 스트림 시작 시 찾아 두므로,
+ * 청크마다 하는 일은 nanoTime 과 Timer/Counter 기록뿐이다 (태그/문자열을 만들지 않는다).
+ */
+@Component
+@RequiredArgsConstructor
+public class GatewayStreamMetrics {
+
+    public static final String PROMPT_CLASS_NONE = "none";
+    public static final String PROMPT_CLASS_UNKNOWN = "unknown";
+    public static final String PROMPT_CLASS_OTHER = "other";
+
+    private static final Duration[] TTFT_BUCKETS = durations(100, 250, 500, 1000, 2000, 3000, 5000, 10000, 15000, 30000);
+    private static final Duration[] GAP_BUCKETS = durations(5, 10, 25, 50, 100, 250, 500, 1000, 2000, 5000);
+    private static final Duration[] DURATION_BUCKETS = durations(1000, 2000, 5000, 10000, 20000, 30000, 60000, 120000);
+    private static final double[] TOKENS_PER_SECOND_BUCKETS = {5, 10, 20, 30, 50, 75, 100, 150, 200};
+
+    private final MeterRegistry meterRegistry;
+    private final AIPersonCatalog aiPersonCatalog;
+
+    // prompt_class 태그 값 종류 상한 - 넘으면 other 로 묶는다
+    @Value("${fastapi.metrics.max-prompt-classes:20}")
+    private int maxPromptClasses;
+
+    private final Map<String, Map<String, StreamMeters>> meters = new ConcurrentHashMap<>();
+
+    /**
+     * 스트림 하나를 계측한다 - 구독마다 기록기를 하나 만들고, 종료(완료/에러/취소) 시 소요 시간과 토큰 수를 남긴다
+     */
+    public Flux<StreamChunk> instrument(String endpoint, String promptClass, Flux<StreamChunk> stream) {
+        return Flux.defer(() -> {
+            StreamRecorder recorder = new StreamRecorder(meters(endpoint, promptClass));
+            return stream
+                    .doOnNext(recorder::onChunk)
+                    .doOnError(recorder::onError)
+                    .doFinally(recorder::finish);
+        });
+    }
+
+    /**
+     * promptId 의 prompt_class 태그 값 (카탈로그의 시대) - 카탈로그에 없으면 unknown
+     */
+    public String promptClass(String promptId) {
+        String era = aiPersonCatalog.eraOf(promptId);
+        return era != null && !era.isBlank() ? era : PROMPT_CLASS_UNKNOWN;
+    }
+
+    StreamMeters meters(String endpoint, String promptClass) {
+        Map<String, StreamMeters> byClass = meters.computeIfAbsent(endpoint, key -> new ConcurrentHashMap<>());
+        StreamMeters found = byClass.get(promptClass);
+        if (found != null) {
+            return found;
+        }
+        String tag = byClass.size() < maxPromptClasses ? promptClass : PROMPT_CLASS_OTHER;
+        return byClass.computeIfAbsent(tag, key -> new StreamMeters(endpoint, key));
+    }
+
+    // 오류 유형 태그 - 값 종류가 고정되도록 예외 클래스 이름 대신 분류 값을 쓴다
+    static String errorType(Throwable error) {
+        if (error instanceof GatewayUnavailableException unavailable) {
+            return unavailable.getReason();
+        }
+        if (error instanceof WebClientResponseException response) {
+            return response.getStatusCode().is4xxClientError() ? "http-4xx" : "http-5xx";
+        }
+        if (error instanceof SdkServiceException service) {
+            return service.statusCode() >= 400 && service.statusCode() < 500 ? "http-4xx" : "http-5xx";
+        }
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException || cause instanceof io.netty.handler.timeout.TimeoutException) {
+                return "timeout";
+            }
+        }
+        return GatewayHedger.isConnectionFailure(error) ? "connection" : "other";
+    }
+
+    private static Duration[] durations(long... millis) {
+        Duration[] durations = new Duration[millis.length];
+        for (int i = 0; i < millis.length; i++) {
+            durations[i] = Duration.ofMillis(millis[i]);
+        }
+        return durations;
+    }
+
+    /**
+     * (endpoint, prompt_class) 조합 하나의 미터 묶음
+     */
+    final class StreamMeters {
+
+        private final Tags tags;
+        private final Timer ttft;
+        private final Timer interTokenGap;
+        private final Counter bytes;
+        private final Counter tokens;
+        private final DistributionSummary tokensPerSecond;
+        private final Timer completed;
+        private final Timer failed;
+        private final Timer cancelled;
+        private final AtomicInteger active = new AtomicInteger();
+        private final Map<String, Counter> errors = new ConcurrentHashMap<>();
+
+        StreamMeters(String endpoint, String promptClass) {
+            this.tags = Tags.of("endpoint", endpoint, "prompt_class", promptClass);
+            this.ttft = Timer.builder("fastapi.stream.ttft")
+                    .description("Time from request to the first content chunk")
+                    .tags(tags)
+                    .serviceLevelObjectives(TTFT_BUCKETS)
+                    .register(meterRegistry);
+            this.interTokenGap = Timer.builder("fastapi.stream.inter.token")
+                    .description("Gap between consecutive content chunks")
+                    .tags(tags)
+                    .serviceLevelObjectives(GAP_BUCKETS)
+                    .register(meterRegistry);
+            this.bytes = Counter.builder("fastapi.stream.bytes")
+                    .description("UTF-8 bytes of streamed content")
+                    .baseUnit("bytes")
+                    .tags(tags)
+                    .register(meterRegistry);
+            this.tokens = Counter.builder("fastapi.stream.tokens")
+                    .description("Output tokens (usage chunk, or content chunks when usage is missing)")
+                    .tags(tags)
+                    .register(meterRegistry);
+            this.tokensPerSecond = DistributionSummary.builder("fastapi.stream.tokens.per.second")
+                    .description("Output tokens per second after the first content chunk, per stream")
+                    .tags(tags)
+                    .serviceLevelObjectives(TOKENS_PER_SECOND_BUCKETS)
+                    .register(meterRegistry);
+            this.completed = duration("complete");
+            this.failed = duration("error");
+            this.cancelled = duration("cancel");
+            Gauge.builder("fastapi.stream.active", active, AtomicInteger::get)
+                    .description("Gateway streams in progress")
+                    .tags(tags)
+                    .register(meterRegistry);
+        }
+
+        private Timer duration(String outcome) {
+            return Timer.builder("fastapi.stream.duration")
+                    .description("Total gateway stream duration")
+                    .tags(tags)
+                    .tag("outcome", outcome)
+                    .serviceLevelObjectives(DURATION_BUCKETS)
+                    .register(meterRegistry);
+        }
+
+        // 오류 경로에서만 불린다
+        void error(String type) {
+            errors.computeIfAbsent(type, key -> Counter.builder("fastapi.stream.errors")
+                    .description("Gateway stream failures by type")
+                    .tags(tags)
+                    .tag("type", key)
+                    .register(meterRegistry))
+                    .increment();
+        }
+    }
+
+    /**
+     * 스트림 하나의 기록기 - 한 구독 안에서 순서대로 불리므로 동기화가 필요 없다
+     */
+    static final class StreamRecorder {
+
+        private final StreamMeters meters;
+        private final long startNanos = System.nanoTime();
+        private long firstContentNanos;
+        private long lastContentNanos;
+        private int contentChunks;
+        private int outputTokens = -1;
+
+        StreamRecorder(StreamMeters meters) {
+            this.meters = meters;
+            meters.active.incrementAndGet();
+        }
+
+        void onChunk(StreamChunk chunk) {
+            if (chunk.isContent()) {
+                long now = System.nanoTime();
+                if (firstContentNanos == 0) {
+                    firstContentNanos = now;
+                    meters.ttft.record(now - startNanos, TimeUnit.NANOSECONDS);
+                } else {
+                    meters.interTokenGap.record(now - lastContentNanos, TimeUnit.NANOSECONDS);
+                }
+                lastContentNanos = now;
+                contentChunks++;
+                if (chunk.getText() != null) {
+                    meters.bytes.increment(StreamSummaryLogger.utf8Length(chunk.getText()));
+                }
+            } else if (StreamChunk.TYPE_USAGE.equals(chunk.getType()) && chunk.getUsage() != null) {
+                Integer output = chunk.getUsage().get("output_tokens");
+                if (output == null) {
+                    output = chunk.getUsage().get("outputTokens");
+                }
+                if (output != null) {
+                    outputTokens = output;
+                }
+            } else if (StreamChunk.TYPE_ERROR.equals(chunk.getType())) {
+                meters.error("gateway-error");
+            }
+        }
+
+        void onError(Throwable error) {
+            meters.error(errorType(error));
+        }
+
+        void finish(SignalType signal) {
+            long now = System.nanoTime();
+            meters.active.decrementAndGet();
+            Timer duration = signal == SignalType.ON_COMPLETE ? meters.completed
+                    : signal == SignalType.ON_ERROR ? meters.failed : meters.cancelled;
+            duration.record(now - startNanos, TimeUnit.NANOSECONDS);
+
+            int tokens = outputTokens >= 0 ? outputTokens : contentChunks;
+            if (tokens > 0) {
+                meters.tokens.increment(tokens);
+            }
+            // 첫 청크 이후 생성 구간의 처리량 (청크가 하나뿐이면 구간이 없어 기록하지 않는다)
+            long generationNanos = lastContentNanos - firstContentNanos;
+            if (contentChunks > 1 && generationNanos > 0) {
+                meters.tokensPerSecond.record(tokens / (generationNanos / 1e9));
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.lgcns.haibackend.bedrock.client;
+
+import java.time.Duration;
+
+import lombok.Getter;
+
+/**
+ * 게이트웨이를 부르지 않고 바로 거절한 요청 (서킷 열림 / 동시 요청 한도 초과)
+ * 스트림을 열기 전에 나므로 GatewayExceptionHandler 가 503 + Retry-After 로 응답한다.
+ */
+@Getter
+public class GatewayUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    // circuit-open | overloaded
+    private final String reason;
+    private final Duration retryAfter;
+
+    public GatewayUnavailableException(String reason, Duration retryAfter) {
+        super("FastAPI gateway unavailable (" + reason + ")");
+        this.reason = reason;
+        this.retryAfter = retryAfter;
+    }
+}
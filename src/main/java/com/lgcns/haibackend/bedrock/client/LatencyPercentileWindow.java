@@ -0,0 +1,51 @@
+package com.lgcns.haibackend.bedrock.client;
+
+import java.util.Arrays;
+
+/**
+ * 최근 지연 샘플(고정 크기 링 버퍼)의 백분위수
+ *
+ * 헤지 마감 시간 계산용 - 요청마다 정렬하지 않도록 recompute-every 샘플마다 한 번만 다시 계산하고,
+ * 그 사이에는 캐시된 값을 읽는다.
+ */
+public class LatencyPercentileWindow {
+
+    private final long[] samples;
+    private final double percentile;
+    private final int minSamples;
+    private final int recomputeEvery;
+
+    private int next;
+    private int count;
+    private int sinceRecompute;
+
+    // 샘플이 minSamples 개 모이기 전에는 -1
+    private volatile long cachedNanos = -1;
+
+    public LatencyPercentileWindow(int size, double percentile, int minSamples, int recomputeEvery) {
+        this.samples = new long[Math.max(1, size)];
+        this.percentile = percentile;
+        this.minSamples = Math.max(1, Math.min(minSamples, samples.length));
+        this.recomputeEvery = Math.max(1, recomputeEvery);
+    }
+
+    public synchronized void record(long latencyNanos) {
+        samples[next] = latencyNanos;
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+        if (count >= minSamples && (cachedNanos < 0 || ++sinceRecompute >= recomputeEvery)) {
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * count) - 1;
+            cachedNanos = sorted[Math.max(0, Math.min(count - 1, index))];
+            sinceRecompute = 0;
+        }
+    }
+
+    /**
+     * 마지막으로 계산한 백분위수 (nanos) - 아직 샘플이 부족하면 -1
+     */
+    public long percentileNanos() {
+        return cachedNanos;
+    }
+}
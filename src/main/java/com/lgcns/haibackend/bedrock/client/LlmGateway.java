@@ -0,0 +1,33 @@
+package com.lgcns.haibackend.bedrock.client;
+
+import com.lgcns.haibackend.aiPerson.domain.dto.PromptRequest;
+import com.lgcns.haibackend.bedrock.domain.dto.KnowledgeBaseRequest;
+import com.lgcns.haibackend.bedrock.domain.dto.StreamChunk;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * LLM 호출 경로 (bedrock.gateway.backend 로 선택)
+ * - fastapi: Python FastAPI 게이트웨이 경유 (FastApiClient)
+ * - direct: Bedrock SDK 로 직접 스트리밍 (BedrockDirectClient) - 네트워크 hop 과 토큰별 SSE 직렬화/파싱이 한 번 줄어든다
+ *
+ * 두 구현 모두 같은 StreamChunk 스트림(content ... usage, done)을 내보낸다.
+ */
+public interface LlmGateway {
+
+    /**
+     * 프롬프트 관리(Prompt) 기반 채팅 스트림
+     */
+    Flux<StreamChunk> chatPromptStream(PromptRequest request);
+
+    /**
+     * Knowledge Base 검색 + 답변 생성 스트림
+     */
+    Flux<StreamChunk> retrieveFromKnowledgeBaseStream(KnowledgeBaseRequest request);
+
+    /**
+     * 호출 경로 상태 확인 (논블로킹) - 요청마다 부르지 말고 GatewayHealthMonitor 의 캐시된 상태를 사용
+     */
+    Mono<Boolean> checkHealth();
+}
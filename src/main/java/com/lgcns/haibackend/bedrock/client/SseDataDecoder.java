@@ -0,0 +1,116 @@
+package com.lgcns.haibackend.bedrock.client;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.core.io.buffer.DataBuffer;
+
+/**
+ * SSE 스트림 증분 디코더
+ * 새로 도착한 바이트만 스캔해서 라인 경계를 찾고, {@code data:} 필드의 payload만 방출한다.
+ *
+ * - 라인 바이트를 모았다가 라인이 끝날 때 한 번만 UTF-8 디코딩하므로
+ *   버퍼 경계에서 잘린 멀티바이트(한글 등) 문자도 깨지지 않는다.
+ * - 게이트웨이는 data 라인마다 JSON 하나를 보내므로 이벤트가 아닌 data 라인 단위로 방출한다.
+ * - 스트림 하나당 인스턴스 하나를 사용한다 (thread-safe 하지 않음).
+ */
+public final class SseDataDecoder {
+
+    private static final byte LF = '\n';
+    private static final byte CR = '\r';
+    private static final int INITIAL_LINE_CAPACITY = 256;
+
+    private byte[] line = new byte[INITIAL_LINE_CAPACITY];
+    private int length;
+
+    // CR 바로 뒤에 오는 LF는 같은 줄바꿈(CRLF)이므로 건너뛴다
+    private boolean skipNextLf;
+
+    /**
+     * DataBuffer의 읽을 수 있는 바이트를 모두 소비한다. 버퍼 release는 호출자 책임이다.
+     */
+    public List<String> decode(DataBuffer buffer) {
+        List<String> out = null;
+        try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+            while (iterator.hasNext()) {
+                out = scan(iterator.next(), out);
+            }
+        }
+        buffer.readPosition(buffer.writePosition());
+        return out != null ? out : Collections.emptyList();
+    }
+
+    /**
+     * byte 배열 구간을 소비한다 (벤치마크/테스트 용).
+     */
+    public List<String> decode(byte[] bytes, int offset, int count) {
+        List<String> out = scan(ByteBuffer.wrap(bytes, offset, count), null);
+        return out != null ? out : Collections.emptyList();
+    }
+
+    /**
+     * 스트림 종료 시 개행 없이 남은 마지막 라인을 처리한다.
+     */
+    public List<String> flush() {
+        if (length == 0) {
+            return Collections.emptyList();
+        }
+        List<String> out = processLine(null);
+        length = 0;
+        return out != null ? out : Collections.emptyList();
+    }
+
+    private List<String> scan(ByteBuffer bytes, List<String> out) {
+        while (bytes.hasRemaining()) {
+            byte b = bytes.get();
+            if (b == LF) {
+                if (skipNextLf) {
+                    skipNextLf = false;
+                    continue;
+                }
+                out = processLine(out);
+                length = 0;
+            } else if (b == CR) {
+                skipNextLf = true;
+                out = processLine(out);
+                length = 0;
+            } else {
+                skipNextLf = false;
+                if (length == line.length) {
+                    line = Arrays.copyOf(line, length << 1);
+                }
+                line[length++] = b;
+            }
+        }
+        return out;
+    }
+
+    // "data:" 로 시작하는 라인만 payload로 방출 (빈 라인, 주석, 다른 필드는 무시)
+    private List<String> processLine(List<String> out) {
+        if (length < 5 || line[0] != 'd' || line[1] != 'a' || line[2] != 't' || line[3] != 'a' || line[4] != ':') {
+            return out;
+        }
+
+        int start = 5;
+        int end = length;
+        while (start < end && (line[start] & 0xFF) <= ' ') {
+            start++;
+        }
+        while (end > start && (line[end - 1] & 0xFF) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return out;
+        }
+
+        if (out == null) {
+            out = new ArrayList<>(2);
+        }
+        out.add(new String(line, start, end - start, StandardCharsets.UTF_8));
+        return out;
+    }
+}
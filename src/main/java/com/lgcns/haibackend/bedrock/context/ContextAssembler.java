@@ -0,0 +1,187 @@
+package com.lgcns.haibackend.bedrock.context;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.lgcns.haibackend.bedrock.domain.dto.MessageDTO;
+import com.lgcns.haibackend.common.redis.RedisChatRepository;
+import com.lgcns.haibackend.common.redis.RollingSummary;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * 게이트웨이 요청에 붙일 대화 문맥 조립
+ *
+ * 1. Redis 히스토리에서 최근 턴을 max-turns / token-budget 안에서 고른다
+ * 2. 창 밖으로 밀려난 이전 턴은 한 줄씩 줄여 누적 요약에 접어 넣고, 요약은 Redis에 캐시한다
+ *    (다음 요청에서는 새로 밀려난 턴만 이어서 반영)
+ * 3. 요약도 summary-token-budget 을 넘으면 가장 오래된 줄부터 버린다
+ *
+ * 따라서 대화가 아무리 길어져도 요청당 문맥 토큰은 token-budget + summary-token-budget 을 넘지 않는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ContextAssembler {
+
+    private final RedisChatRepository redisChatRepository;
+
+    // 히스토리/요약 조회는 블로킹 Redis 호출 (BlockingSchedulerConfig)
+    private final Scheduler blockingScheduler;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${chat.context.enabled:true}")
+    private boolean enabled;
+
+    @Value("${chat.context.max-turns:6}")
+    private int maxTurns;
+
+    @Value("${chat.context.token-budget:1500}")
+    private int tokenBudget;
+
+    @Value("${chat.context.summary-token-budget:300}")
+    private int summaryTokenBudget;
+
+    // 요약 한 줄에 남기는 최대 글자 수 (질문 / 답변)
+    private static final int SUMMARY_QUESTION_CHARS = 80;
+    private static final int SUMMARY_ANSWER_CHARS = 120;
+
+    private DistributionSummary contextTokens;
+
+    @PostConstruct
+    public void initMetrics() {
+        contextTokens = DistributionSummary.builder("chat.context.tokens")
+                .description("Estimated history + summary tokens attached to one gateway request")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 대화 key 의 문맥 조립 - 블로킹 조회는 blockingScheduler 에서 실행하고, 실패하면 문맥 없이 진행한다
+     */
+    public Mono<ConversationContext> assemble(UUID userId, String key) {
+        if (!enabled) {
+            return Mono.just(ConversationContext.EMPTY);
+        }
+        return Mono.fromCallable(() -> assembleBlocking(userId, key))
+                .subscribeOn(blockingScheduler)
+                .onErrorResume(e -> {
+                    log.warn("[CONTEXT] Failed to assemble context for key {}: {}", key, e.getMessage());
+                    return Mono.just(ConversationContext.EMPTY);
+                });
+    }
+
+    ConversationContext assembleBlocking(UUID userId, String key) {
+        List<MessageDTO> messages = redisChatRepository.getMessages(key);
+        if (messages.isEmpty()) {
+            contextTokens.record(0);
+            return ConversationContext.EMPTY;
+        }
+
+        // 뒤에서부터 턴 수/토큰 예산 안에 드는 만큼 고른다
+        int start = messages.size();
+        int windowTokens = 0;
+        while (start > 0) {
+            int tokens = TokenEstimator.estimate(messages.get(start - 1));
+            if (messages.size() - start + 1 > maxTurns * 2 || windowTokens + tokens > tokenBudget) {
+                break;
+            }
+            windowTokens += tokens;
+            start--;
+        }
+        // 창은 항상 user 메시지로 시작한다 (답변만 덩그러니 남지 않게)
+        while (start < messages.size() && !"user".equals(messages.get(start).getRole())) {
+            windowTokens -= TokenEstimator.estimate(messages.get(start));
+            start++;
+        }
+
+        List<MessageDTO> window = new ArrayList<>(messages.subList(start, messages.size()));
+        String summary = foldSummary(userId, key, messages.size(), messages.subList(0, start));
+        int tokens = windowTokens + TokenEstimator.estimate(summary);
+
+        contextTokens.record(tokens);
+        return new ConversationContext(window, summary, tokens);
+    }
+
+    // 창 밖 메시지를 캐시된 요약에 이어 붙인다 (이미 반영된 메시지는 건너뜀)
+    // 반영 위치는 메시지 내용이 아니라 절대 위치로 기억한다 - 같은 메시지가 반복돼도 위치를 잘못 찾지 않는다
+    private String foldSummary(UUID userId, String key, int listLength, List<MessageDTO> older) {
+        if (older.isEmpty() || summaryTokenBudget <= 0) {
+            return null;
+        }
+
+        RollingSummary cached = redisChatRepository.getSummary(key);
+        // 리스트 첫 메시지의 절대 위치 (LTRIM 으로 앞에서 잘려 나간 메시지 수)
+        // 리스트를 먼저 읽었으므로 그 사이 append 가 있으면 실제보다 크게 나와, 건너뛰는 대신 몇 줄을 다시 반영한다
+        long head = cached != null ? Math.max(0, cached.getAppendedCount() - listLength) : 0;
+        int from = 0;
+        Deque<String> lines = new ArrayDeque<>();
+        if (cached != null && cached.getText() != null) {
+            // 반영된 위치가 리스트 안이면 그 다음부터, 잘려 나간 구간이면 창 밖 전체가 새 메시지다
+            from = (int) Math.min(Math.max(cached.getFoldedCount() - head, 0), older.size());
+            if (!cached.getText().isEmpty()) {
+                lines.addAll(List.of(cached.getText().split("\n")));
+            }
+        }
+        if (from >= older.size()) {
+            return lines.isEmpty() ? null : String.join("\n", lines);
+        }
+
+        for (MessageDTO message : older.subList(from, older.size())) {
+            lines.addLast(summaryLine(message));
+        }
+        int tokens = 0;
+        for (String line : lines) {
+            tokens += TokenEstimator.estimate(line);
+        }
+        while (tokens > summaryTokenBudget && !lines.isEmpty()) {
+            tokens -= TokenEstimator.estimate(lines.removeFirst());
+        }
+
+        String text = String.join("\n", lines);
+        // appendedCount 는 append 스크립트만 갱신하므로 저장할 때는 쓰지 않는다
+        redisChatRepository.saveSummary(userId, key, new RollingSummary(text, head + older.size(), 0));
+        return text.isEmpty() ? null : text;
+    }
+
+    private static String summaryLine(MessageDTO message) {
+        boolean user = "user".equals(message.getRole());
+        String content = message.getContent() != null ? message.getContent() : "";
+        if (!user) {
+            // 답변은 첫 문장만 남긴다
+            int end = indexOfSentenceEnd(content);
+            if (end > 0) {
+                content = content.substring(0, end);
+            }
+        }
+        return (user ? "Q: " : "A: ") + truncate(content.replace('\n', ' ').trim(),
+                user ? SUMMARY_QUESTION_CHARS : SUMMARY_ANSWER_CHARS);
+    }
+
+    private static int indexOfSentenceEnd(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '.' || c == '?' || c == '!' || c == '\n') {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static String truncate(String text, int maxChars) {
+        return text.length() <= maxChars ? text : text.substring(0, maxChars) + "…";
+    }
+}
@@ -0,0 +1,74 @@
+package com.lgcns.haibackend.bedrock.context;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+
+import com.lgcns.haibackend.bedrock.domain.dto.MessageDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 게이트웨이 요청에 붙일 대화 문맥 (최근 턴 + 그 이전 턴의 누적 요약)
+ */
+@Getter
+@AllArgsConstructor
+public class ConversationContext {
+
+    private static final int DIGEST_BYTES = 16;
+
+    public static final ConversationContext EMPTY = new ConversationContext(Collections.emptyList(), null, 0);
+
+    // 예산 안에 들어온 최근 메시지 (오래된 순, user 로 시작)
+    private final List<MessageDTO> history;
+
+    // 창 밖으로 밀려난 이전 턴의 요약 (없으면 null)
+    private final String summary;
+
+    // history + summary 의 추정 토큰 수
+    private final int estimatedTokens;
+
+    public boolean isEmpty() {
+        return history.isEmpty() && summary == null;
+    }
+
+    /**
+     * 같은 질문이라도 문맥이 다르면 다른 요청으로 보도록 coalescing key 에 붙이는 값
+     * key 가 같으면 게이트웨이 스트림 하나를 나눠 받으므로, 충돌하지 않도록 SHA-256 (앞 128비트) 을 쓴다
+     */
+    public String digest() {
+        if (isEmpty()) {
+            return "";
+        }
+        MessageDigest sha256 = sha256();
+        for (MessageDTO message : history) {
+            update(sha256, message.getRole());
+            update(sha256, message.getContent());
+        }
+        update(sha256, summary);
+        return ":" + HexFormat.of().formatHex(sha256.digest(), 0, DIGEST_BYTES);
+    }
+
+    // 필드 경계가 섞이지 않도록 길이를 앞에 붙인다 (null 은 -1)
+    private static void update(MessageDigest digest, String value) {
+        byte[] bytes = value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+        int length = bytes != null ? bytes.length : -1;
+        digest.update(new byte[] {
+                (byte) (length >>> 24), (byte) (length >>> 16), (byte) (length >>> 8), (byte) length });
+        if (bytes != null) {
+            digest.update(bytes);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.lgcns.haibackend.bedrock.context;
+
+import com.lgcns.haibackend.bedrock.domain.dto.MessageDTO;
+
+/**
+ * 토크나이저 없이 입력 토큰 수를 빠르게 어림한다 (예산 계산용, 약간 넉넉하게 잡는다)
+ *
+ * - 한글 음절/자모, 한자, 가나: 글자당 1 토큰
+ * - 영문/숫자: 단어마다 4글자당 1 토큰 (올림)
+ * - 그 밖의 기호: 글자당 1 토큰, 공백은 0
+ */
+public final class TokenEstimator {
+
+    // 메시지마다 role 구분 등으로 붙는 고정 비용
+    private static final int MESSAGE_OVERHEAD = 4;
+
+    private TokenEstimator() {
+    }
+
+    public static int estimate(MessageDTO message) {
+        return MESSAGE_OVERHEAD + estimate(message.getContent());
+    }
+
+    public static int estimate(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+
+        int tokens = 0;
+        int wordChars = 0;
+        for (int i = 0; i < text.length(); ) {
+            int cp = text.codePointAt(i);
+            i += Character.charCount(cp);
+
+            if (cp < 0x80 && Character.isLetterOrDigit(cp)) {
+                wordChars++;
+                continue;
+            }
+            // 영문 단어가 끝나면 4글자당 1 토큰
+            tokens += (wordChars + 3) / 4;
+            wordChars = 0;
+
+            if (!Character.isWhitespace(cp)) {
+                tokens++;
+            }
+        }
+        return tokens + (wordChars + 3) / 4;
+    }
+}
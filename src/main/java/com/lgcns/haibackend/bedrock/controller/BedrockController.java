@@ -1,15 +1,20 @@
 package com.lgcns.haibackend.bedrock.controller;
 
+import com.lgcns.haibackend.bedrock.domain.dto.StreamChunk;
 import com.lgcns.haibackend.bedrock.service.BedrockService;
+import com.lgcns.haibackend.common.limit.ChatLimiter;
+import com.lgcns.haibackend.common.sse.StreamChunkSseWriter;
+import com.lgcns.haibackend.common.sse.StreamSummaryLogger;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Map;
@@ -25,50 +30,31 @@ import java.util.UUID;
 public class BedrockController {
 
     private final BedrockService bedrockService;
+    private final StreamChunkSseWriter sseWriter;
+    private final StreamSummaryLogger streamSummaryLogger;
+    private final ChatLimiter chatLimiter;
 
     /**
      * AI 채팅 엔드포인트 (스트리밍) - Knowledge Base 사용
      * 프론트엔드에서 /api/ai/chat 호출 시 사용됨
      */
     @PostMapping(value = "/chat", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public Flux<String> chat(@RequestBody ChatInput input) {
+    public Flux<ServerSentEvent<String>> chat(@RequestBody ChatInput input,
+            Authentication authentication) {
 
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        UUID userId = UUID.fromString(authentication.getPrincipal().toString());
+        // JwtFilter(servlet) / JwtWebFilter(reactive) 가 principal 에 userId, 권한에 ROLE_{role} 을 넣어 둔다
+        UUID userId = UUID.fromString(authentication.getName());
 
-        log.info("===========================================");
-        log.info("[CHAT REQUEST] UserID: {}, Query: {}", userId, input.getMessage());
-        log.info("===========================================");
+        log.debug("[CHAT REQUEST] UserID: {}, Query: {}", userId, input.getMessage());
 
-        return bedrockService.retrieveFromKnowledgeBase(input.getMessage(), userId)
-                .doOnSubscribe(subscription -> {
-                    log.info("[KB SEARCH] Starting Knowledge Base search...");
-                })
-                .doOnSubscribe(subscription -> {
-                    log.info("[KB SEARCH] Starting Knowledge Base search...");
-                })
-                .map(chunk -> {
-                    // JSON 래핑: {"type": "content", "text": "..."}
-                    // Spring이 자동으로 "data: " prefix를 붙이므로 여기서는 제거
-                    String escapedChunk = chunk.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
-                    return "{\"type\": \"content\", \"text\": \"" + escapedChunk + "\"}";
-                })
-                .doOnNext(chunk -> {
-                    // 스트리밍 청크마다 로그
-                    log.info("[SENDING CHUNK] {}", chunk.substring(0, Math.min(100, chunk.length())));
-                })
-                .doOnComplete(() -> {
-                    log.info("[KB SEARCH] Knowledge Base search completed successfully");
-                    log.info("===========================================");
-                })
-                .doOnError(error -> {
-                    log.error("[KB SEARCH ERROR] {}", error.getMessage());
-                    log.error("===========================================", error);
-                })
-                .onErrorResume(error -> {
-                    log.error("Error in chat: {}", error.getMessage());
-                    return Flux.just("data: Error: " + error.getMessage() + "\n\n");
-                });
+        // 청크마다 로그를 남기지 않고 스트림 종료 시 요약 한 줄만 남긴다 (StreamSummaryLogger)
+        Flux<StreamChunk> chunks = streamSummaryLogger.track("kb", userId,
+                        bedrockService.retrieveFromKnowledgeBase(input.getMessage(), userId))
+                .doOnError(error -> log.error("[KB SEARCH ERROR] {}", error.getMessage(), error));
+
+        // {"type": "content", "text": "..."} 형식의 SSE 프레임으로 변환 (에러는 error 프레임)
+        // 사용자/역할 한도를 넘으면 스트림을 열지 않고 429 + Retry-After (ChatLimitExceptionHandler)
+        return chatLimiter.limit(authentication, () -> sseWriter.write(chunks));
     }
 
 
@@ -76,15 +62,16 @@ public class BedrockController {
      * 헬스 체크
      */
     @GetMapping("/health")
-    public ResponseEntity<Map<String, Object>> healthCheck() {
+    public Mono<ResponseEntity<Map<String, Object>>> healthCheck() {
         log.info("[HEALTH] Checking service health");
 
-        boolean isHealthy = bedrockService.isServiceAvailable();
-
-        log.info("[HEALTH] Status: {}", isHealthy ? "healthy" : "unhealthy");
-        return ResponseEntity.ok(Map.of(
-                "status", isHealthy ? "healthy" : "unhealthy",
-                "fastapi_gateway", isHealthy ? "connected" : "disconnected"));
+        return bedrockService.isServiceAvailable()
+                .map(isHealthy -> {
+                    log.info("[HEALTH] Status: {}", isHealthy ? "healthy" : "unhealthy");
+                    return ResponseEntity.ok(Map.<String, Object>of(
+                            "status", isHealthy ? "healthy" : "unhealthy",
+                            "fastapi_gateway", isHealthy ? "connected" : "disconnected"));
+                });
     }
 
     // ===== DTO 클래스들 =====
@@ -0,0 +1,21 @@
+package com.lgcns.haibackend.bedrock.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import com.lgcns.haibackend.bedrock.client.GatewayUnavailableException;
+import com.lgcns.haibackend.common.http.RetryAfter;
+
+/**
+ * 게이트웨이 보호(GatewayGuard)로 바로 거절된 채팅 요청을 503 + Retry-After(초, 올림) 로 응답 (servlet / reactive 공통)
+ */
+@RestControllerAdvice
+public class GatewayExceptionHandler {
+
+    @ExceptionHandler(GatewayUnavailableException.class)
+    public ResponseEntity<Void> handleGatewayUnavailable(GatewayUnavailableException e) {
+        return RetryAfter.response(HttpStatus.SERVICE_UNAVAILABLE, e.getRetryAfter());
+    }
+}
@@ -2,6 +2,8 @@ package com.lgcns.haibackend.bedrock.domain.dto;
 
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -22,6 +24,11 @@ public class KnowledgeBaseRequest {
     @Builder.Default
     private Integer maxResults = 5;
 
-    // 대화 기록을 담을 필드
-    // private List<Message> history;
+    // 대화 기록을 담을 필드 (토큰 예산 안의 최근 턴, 오래된 순) - 없으면 직렬화하지 않는다
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<MessageDTO> history;
+
+    // history 이전 턴의 요약
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private String summary;
 }
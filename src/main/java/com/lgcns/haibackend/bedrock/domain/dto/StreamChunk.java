@@ -0,0 +1,71 @@
+package com.lgcns.haibackend.bedrock.domain.dto;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 스트리밍 청크 DTO
+ * 게이트웨이 SSE payload와 클라이언트로 내보내는 SSE payload가 같은 형식을 쓴다.
+ * {"type": "content", "text": "..."} / {"type": "done"} / {"type": "error", "message": "..."} / {"type": "usage", "usage": {...}}
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class StreamChunk {
+
+    public static final String TYPE_CONTENT = "content";
+    public static final String TYPE_DONE = "done";
+    public static final String TYPE_ERROR = "error";
+    public static final String TYPE_USAGE = "usage";
+
+    private String type;
+
+    private String text;
+
+    @JsonAlias("error")
+    private String message;
+
+    private Map<String, Integer> usage;
+
+    public static StreamChunk content(String text) {
+        return StreamChunk.builder()
+                .type(TYPE_CONTENT)
+                .text(text)
+                .build();
+    }
+
+    public static StreamChunk done() {
+        return StreamChunk.builder()
+                .type(TYPE_DONE)
+                .build();
+    }
+
+    public static StreamChunk error(String message) {
+        return StreamChunk.builder()
+                .type(TYPE_ERROR)
+                .message(message)
+                .build();
+    }
+
+    @JsonIgnore
+    public boolean isContent() {
+        return TYPE_CONTENT.equals(type);
+    }
+
+    @JsonIgnore
+    public boolean isError() {
+        return TYPE_ERROR.equals(type);
+    }
+}
@@ -1,21 +1,38 @@
 package com.lgcns.haibackend.bedrock.service;
 
 import com.lgcns.haibackend.aiPerson.domain.dto.PromptRequest;
+import com.lgcns.haibackend.bedrock.cache.CachedAnswer;
+import com.lgcns.haibackend.bedrock.cache.KnowledgeAnswerCache;
+import com.lgcns.haibackend.bedrock.cache.QueryNormalizer;
 import com.lgcns.haibackend.bedrock.client.*;
+import com.lgcns.haibackend.bedrock.context.ContextAssembler;
+import com.lgcns.haibackend.bedrock.context.ConversationContext;
 import com.lgcns.haibackend.bedrock.domain.dto.KnowledgeBaseRequest;
 import com.lgcns.haibackend.bedrock.domain.dto.MessageDTO;
-import com.lgcns.haibackend.common.redis.RedisChatRepository;
-
+import com.lgcns.haibackend.bedrock.domain.dto.StreamChunk;
+import com.lgcns.haibackend.common.redis.ChatHistoryWriter;
+import com.lgcns.haibackend.common.redis.PartialAnswerPolicy;
+import com.lgcns.haibackend.common.tracing.StreamObservations;
+
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Bedrock AI 서비스
@@ -25,8 +42,8 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class BedrockService {
-        // redischatrepository 주입
-        private final RedisChatRepository redisChatRepository;
+        // 완료된 턴 저장 (write-behind 큐 또는 inline)
+        private final ChatHistoryWriter chatHistoryWriter;
 
         @Value("${aws.bedrock.knowledge-base.id}")
         private String knowledgeBaseId;
@@ -37,7 +54,40 @@ public class BedrockService {
         @Value("${aws.bedrock.model.chat}")
         private String chatModelName;
 
-        private final FastApiClient fastApiClient;
+        private final LlmGateway llmGateway;
+
+        private final KnowledgeAnswerCache answerCache;
+
+        private final GatewayRequestCoalescer requestCoalescer;
+
+        private final MeterRegistry meterRegistry;
+
+        // 블로킹 Redis 호출(답변 캐시)을 실행할 스케줄러 (BlockingSchedulerConfig)
+        private final Scheduler blockingScheduler;
+
+        // 이전 대화를 토큰 예산 안에서 요청에 붙인다
+        private final ContextAssembler contextAssembler;
+
+        // 백그라운드에서 갱신되는 게이트웨이 상태
+        private final GatewayHealthMonitor gatewayHealthMonitor;
+
+        // 대화 한 턴의 span (문맥 조회 ~ 게이트웨이 스트림 종료)
+        private final StreamObservations streamObservations;
+
+        @Value("${chat.history.on-cancel:persist}")
+        private PartialAnswerPolicy onCancelPolicy;
+
+        // 요청 시작 ~ 첫 토큰 도착까지 걸린 시간 (time-to-first-token)
+        private Timer knowledgeTtftTimer;
+
+        @PostConstruct
+        public void initMetrics() {
+                knowledgeTtftTimer = Timer.builder("chat.stream.ttft")
+                                .description("Time from request to first streamed token")
+                                .tag("endpoint", "knowledge")
+                                .publishPercentiles(0.5, 0.95, 0.99)
+                                .register(meterRegistry);
+        }
 
         // // redis key관련 상수 및 key 생성 로직 추가
         // private static final String CHATBOT_KEY_PREFIX = "chatbot:chat:";
@@ -49,81 +99,151 @@ public class BedrockService {
         /**
          * Knowledge Base 검색 - 스트리밍
          * 이 메서드를 사용하세요!
+         * 청크는 도착하는 즉시 흘려보내고, 완료 시점에 질문/답변을 Redis에 저장한다.
          */
-        public Flux<String> retrieveFromKnowledgeBase(String query, UUID userId) {
+        public Flux<StreamChunk> retrieveFromKnowledgeBase(String query, UUID userId) {
                 String redisKey = getChatbotKey(userId);
 
-                // log.info("[RAG] Starting RAG stream for UserID: {}", userId);
-
-                // 1. 대화 기록(History) 불러오기 (Redis)
-                // List<Message> history = redisChatRepository.getMessages(redisKey);
-                // log.debug("[RAG] Loaded History Size: {}", history.size());
-
-                // 2. 사용자 메시지를 Redis에 먼저 저장 (History Append - User Message)
-                MessageDTO userMessage = MessageDTO.user(query);
-                redisChatRepository.appendMessage(redisKey, userMessage);
+                // 1. 대화 기록(History) 불러오기 (Redis) - 최근 턴은 토큰 예산 안에서, 그 이전 턴은 요약으로
+                // 2. 답변 캐시 조회 후, 없으면 FastAPI 호출 (응답 스트림) - 구독마다 답변 버퍼/타이머를 새로 만든다
+                // 문맥/캐시 조회는 블로킹 Redis 호출이므로 이벤트 루프가 아닌 blockingScheduler 에서 실행
+                return contextAssembler.assemble(userId, redisKey)
+                                .flatMapMany(context -> {
+                                        KnowledgeBaseRequest request = KnowledgeBaseRequest.builder()
+                                                        .query(query)
+                                                        .kbId(knowledgeBaseId)
+                                                        .modelArn(knowledgeBaseModelArn)
+                                                        .history(context.getHistory())
+                                                        .summary(context.getSummary())
+                                                        .build();
+
+                                        // 앞선 대화에 기대는 질문("그럼 그 다음은?")의 답은 다른 사용자와 공유할 수 없으므로
+                                        // 문맥이 있으면 답변 캐시를 건너뛴다
+                                        if (!context.isEmpty()) {
+                                                return streamAnswer(request, query, userId, redisKey, context, null);
+                                        }
+                                        return Mono.fromCallable(() -> Optional.ofNullable(answerCache.lookup(query)))
+                                                        .subscribeOn(blockingScheduler)
+                                                        .flatMapMany(cached -> streamAnswer(request, query, userId, redisKey,
+                                                                        context, cached.orElse(null)));
+                                })
+                                .transform(stream -> streamObservations.observe("chat.turn", "kb chat",
+                                                KeyValues.of("endpoint", "kb"), KeyValues.of("user.id", userId.toString()),
+                                                stream));
+        }
 
-                // 3. KnowledgeBaseRequest에 History 포함하여 요청 생성
-                KnowledgeBaseRequest request = KnowledgeBaseRequest.builder()
-                                .query(query)
-                                .kbId(knowledgeBaseId)
-                                .modelArn(knowledgeBaseModelArn)
-                                //.history(history)
-                                .build();
+        private Flux<StreamChunk> streamAnswer(KnowledgeBaseRequest request, String query, UUID userId,
+                        String redisKey, ConversationContext context, CachedAnswer cached) {
+                return Flux.defer(() -> {
+                        StringBuilder answerBuffer = new StringBuilder();
+                        AtomicBoolean sawError = new AtomicBoolean();
+                        long startNanos = System.nanoTime();
+
+                        boolean cacheHit = cached != null;
+                        Flux<StreamChunk> source = cacheHit
+                                        ? answerCache.replay(cached)
+                                        : requestCoalescer.coalesce(
+                                                        "knowledge:" + knowledgeBaseId + ":" + QueryNormalizer.normalize(query)
+                                                                        + context.digest(),
+                                                        () -> llmGateway.retrieveFromKnowledgeBaseStream(request));
+
+                        return source
+                                        .doOnNext(chunk -> {
+                                                // 게이트웨이 error 프레임 뒤에 정상 완료가 와도 답변은 잘렸거나 오류뿐이다
+                                                if (chunk.isError()) {
+                                                        sawError.set(true);
+                                                }
+                                                if (!chunk.isContent()) {
+                                                        return;
+                                                }
+                                                if (answerBuffer.length() == 0 && !cacheHit) {
+                                                        knowledgeTtftTimer.record(System.nanoTime() - startNanos,
+                                                                        TimeUnit.NANOSECONDS);
+                                                }
+                                                answerBuffer.append(chunk.getText());
+                                        })
+                                        // 4. 응답 완료 후 질문/답변을 Redis에 저장 (게이트웨이 답변은 답변 캐시에도 저장)
+                                        //    error 프레임을 받은 답변은 대화 기록에도, 공유 답변 캐시에도 남기지 않는다
+                                        .doOnComplete(() -> {
+                                                if (sawError.get()) {
+                                                        log.warn("[RAG] Stream completed with a gateway error frame. Skipping save and cache.");
+                                                        return;
+                                                }
+                                                log.debug("[RAG] Stream completed (cache {}). Saving response to Redis.",
+                                                                cacheHit ? "hit" : "miss");
+                                                saveTurn(userId, redisKey, query, answerBuffer.toString());
+                                                if (!cacheHit && context.isEmpty()) {
+                                                        String answer = answerBuffer.toString();
+                                                        Duration generationTime = Duration.ofNanos(System.nanoTime() - startNanos);
+                                                        blockingScheduler.schedule(
+                                                                        () -> answerCache.put(query, answer, generationTime));
+                                                }
+                                        })
+                                        // 5. 클라이언트 연결 종료 시 정책에 따라 부분 답변 저장/폐기
+                                        .doOnCancel(() -> {
+                                                if (onCancelPolicy == PartialAnswerPolicy.PERSIST
+                                                                && answerBuffer.length() > 0 && !sawError.get()) {
+                                                        log.debug("[RAG] Stream cancelled. Saving partial response ({} chars).",
+                                                                        answerBuffer.length());
+                                                        saveTurn(userId, redisKey, query, answerBuffer.toString());
+                                                } else {
+                                                        log.debug("[RAG] Stream cancelled. Discarding partial response.");
+                                                }
+                                        })
+                                        .doOnError(error -> {
+                                                log.error("[RAG ERROR] Stream failed for UserID: {}, Error: {}", userId,
+                                                                error.getMessage());
+                                        });
+                });
+        }
 
-                // 4. FastAPI 호출 (응답 스트림)
-                return fastApiClient.retrieveFromKnowledgeBaseStream(request)
-                                .collect(Collectors.joining())
-                                // 5. 응답 완료 후 로직 수행 (History Append - AI Message)
-                                .doOnSuccess(fullResponse -> {
-                                        log.info("[RAG] Stream completed. Saving response to Redis.");
-                                        MessageDTO aiMessage = MessageDTO.assistant(fullResponse);
-                                        redisChatRepository.appendMessage(redisKey, aiMessage);
-                                })
-                                .doOnError(error -> {
-                                        log.error("[RAG ERROR] Stream failed for UserID: {}, Error: {}", userId,
-                                                        error.getMessage());
-                                })
-                                // 6. Mono<String>을 다시 Flux<String>으로 변환하여 스트리밍
-                                .flatMapMany(response -> {
-                                        return Flux.just(response);
-                                });
+        // 큐에 넣기만 하므로 완료 콜백이 실행되는 이벤트 루프 스레드를 붙잡지 않는다
+        private void saveTurn(UUID userId, String redisKey, String query, String answer) {
+                chatHistoryWriter.saveTurn(userId, redisKey, MessageDTO.user(query), MessageDTO.assistant(answer));
         }
+
         /**
-         * FastAPI 게이트웨이 상태 확인
+         * FastAPI 게이트웨이 상태 확인 (캐시된 마지막 확인 결과)
          */
-        public boolean isServiceAvailable() {
-                return fastApiClient.isHealthy();
+        public Mono<Boolean> isServiceAvailable() {
+                return gatewayHealthMonitor.currentStatus();
         }
 
         /**
          * Bedrock Prompt (프롬프트 관리 기능) 기반 채팅
          * ✅ 수정: 실시간 스트리밍 지원 + 상세 로그 추가
          */
-        public Flux<String> chatWithPrompt(String promptId, String userQuery) {
-                log.info("🚀 [AIPERSON PROMPT CHAT START] promptId={}, query={}", promptId, userQuery);
+        public Flux<StreamChunk> chatWithPrompt(String promptId, String userQuery) {
+                return chatWithPrompt(promptId, userQuery, ConversationContext.EMPTY);
+        }
+
+        /**
+         * 이전 대화 문맥(최근 턴 + 요약)을 함께 보내는 프롬프트 채팅
+         */
+        public Flux<StreamChunk> chatWithPrompt(String promptId, String userQuery, ConversationContext context) {
+                log.debug("🚀 [AIPERSON PROMPT CHAT START] promptId={}, query={}, contextTokens={}",
+                                promptId, userQuery, context.getEstimatedTokens());
                 
                 PromptRequest request = PromptRequest.builder()
                                 .promptId(promptId)
                                 .userQuery(userQuery)
+                                .history(context.getHistory())
+                                .summary(context.getSummary())
                                 .build();
 
-                return fastApiClient.chatPromptStream(request)
-                                // ✅ 각 청크를 실시간으로 전달 (collect 제거)
-                                .doOnNext(chunk -> {
-                                        log.debug("📦 [AIPERSON CHUNK RECEIVED] length={}, preview={}", 
-                                                chunk.length(), 
-                                                chunk.substring(0, Math.min(50, chunk.length())));
-                                })
+                // 같은 인물에게 같은 질문이 같은 문맥으로 동시에 들어오면 게이트웨이 호출 하나를 공유
+                return requestCoalescer.coalesce(
+                                "prompt:" + promptId + ":" + QueryNormalizer.normalize(userQuery) + context.digest(),
+                                () -> llmGateway.chatPromptStream(request))
                                 .doOnComplete(() -> {
-                                        log.info("✅ [AIPERSON PROMPT CHAT COMPLETE]");
+                                        log.debug("✅ [AIPERSON PROMPT CHAT COMPLETE]");
                                 })
                                 .doOnError(e -> {
                                         log.error("❌ [AIPERSON PROMPT CHAT ERROR] promptId={}, error={}", 
                                                 promptId, e.getMessage(), e);
                                 })
                                 .doOnSubscribe(s -> {
-                                        log.info("🔗 [AIPERSON PROMPT CHAT SUBSCRIBED] Starting stream...");
+                                        log.debug("🔗 [AIPERSON PROMPT CHAT SUBSCRIBED] Starting stream...");
                                 });
         }
 }
\ No newline at end of file
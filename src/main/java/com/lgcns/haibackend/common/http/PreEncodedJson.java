@@ -0,0 +1,109 @@
+package com.lgcns.haibackend.common.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+
+import lombok.Getter;
+
+/**
+ * 미리 직렬화해 둔 JSON 응답 본문
+ * 원본 바이트, gzip 바이트, ETag 를 한 번만 만들어 두고 요청마다 그대로 내려준다.
+ * 두 표현은 바이트가 다르므로 강한 ETag 도 따로 둔다 (gzip 쪽은 "-gzip" 접미사).
+ */
+@Getter
+public final class PreEncodedJson {
+
+    private final byte[] identity;
+    private final byte[] gzip;
+    private final String etag;
+    private final String gzipEtag;
+
+    private PreEncodedJson(byte[] identity, byte[] gzip, String digest) {
+        this.identity = identity;
+        this.gzip = gzip;
+        this.etag = "\"" + digest + "\"";
+        this.gzipEtag = "\"" + digest + "-gzip\"";
+    }
+
+    public static PreEncodedJson of(byte[] json) {
+        return new PreEncodedJson(json, gzip(json), DigestUtils.md5DigestAsHex(json));
+    }
+
+    /**
+     * Accept-Encoding 에 맞춰 gzip 또는 원본 표현을 고르고, If-None-Match 가 그 표현의 ETag 와 일치하면 304
+     */
+    public ResponseEntity<byte[]> toResponse(String ifNoneMatch, String acceptEncoding) {
+        boolean useGzip = acceptsGzip(acceptEncoding);
+        String selectedEtag = useGzip ? gzipEtag : etag;
+
+        if (ifNoneMatch != null && (ifNoneMatch.trim().equals("*") || ifNoneMatch.contains(selectedEtag))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(selectedEtag)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(selectedEtag)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (useGzip) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzip);
+        }
+        return builder.body(identity);
+    }
+
+    /**
+     * Accept-Encoding 의 q 값까지 본다 (gzip;q=0 은 거부, gzip 이 없으면 * 의 q 값을 따른다)
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return false;
+        }
+        Double gzipQ = null;
+        Double wildcardQ = null;
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            String coding = params[0].trim().toLowerCase();
+            double q = 1.0;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        q = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzipQ = gzipQ == null ? q : Math.max(gzipQ, q);
+            } else if (coding.equals("*")) {
+                wildcardQ = q;
+            }
+        }
+        if (gzipQ != null) {
+            return gzipQ > 0;
+        }
+        return wildcardQ != null && wildcardQ > 0;
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2 + 32);
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+            gzipOut.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("gzip 압축 실패", e);
+        }
+        return out.toByteArray();
+    }
+}
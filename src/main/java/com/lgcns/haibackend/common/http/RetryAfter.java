@@ -0,0 +1,27 @@
+package com.lgcns.haibackend.common.http;
+
+import java.time.Duration;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * 스트림을 열기 전에 거절한 채팅 요청의 응답 (429 한도 초과, 503 게이트웨이 보호 공통)
+ * SSE 엔드포인트라 본문 형식을 협상할 수 없으므로 본문 없이 Retry-After 헤더(초, 올림, 최소 1초)만 보낸다.
+ */
+public final class RetryAfter {
+
+    private RetryAfter() {
+    }
+
+    public static ResponseEntity<Void> response(HttpStatusCode status, Duration retryAfter) {
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(seconds(retryAfter)))
+                .build();
+    }
+
+    public static long seconds(Duration retryAfter) {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+}
@@ -0,0 +1,25 @@
+package com.lgcns.haibackend.common.limit;
+
+import java.time.Duration;
+
+import lombok.Getter;
+
+/**
+ * 채팅 요청이 제한에 걸렸을 때 - ChatLimitExceptionHandler 가 429 + Retry-After 로 바꾼다
+ */
+@Getter
+public class ChatLimitExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String scope;
+    private final LimitReason reason;
+    private final Duration retryAfter;
+
+    public ChatLimitExceededException(String scope, LimitReason reason, Duration retryAfter) {
+        super("Chat limit exceeded (" + scope + ", " + reason + "), retry after " + retryAfter.toMillis() + "ms");
+        this.scope = scope;
+        this.reason = reason;
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,21 @@
+package com.lgcns.haibackend.common.limit;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import com.lgcns.haibackend.common.http.RetryAfter;
+
+/**
+ * 제한에 걸린 채팅 요청을 429 + Retry-After(초, 올림) 로 응답 (servlet / reactive 공통)
+ * SSE 엔드포인트라 본문 형식을 협상할 수 없으므로 본문 없이 헤더만 보낸다.
+ */
+@RestControllerAdvice
+public class ChatLimitExceptionHandler {
+
+    @ExceptionHandler(ChatLimitExceededException.class)
+    public ResponseEntity<Void> handleChatLimitExceeded(ChatLimitExceededException e) {
+        return RetryAfter.response(HttpStatus.TOO_MANY_REQUESTS, e.getRetryAfter());
+    }
+}
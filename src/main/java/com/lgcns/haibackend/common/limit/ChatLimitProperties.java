@@ -0,0 +1,64 @@
+package com.lgcns.haibackend.common.limit;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * 채팅 스트림 요청 제한 설정 (chat.limit.*)
+ *
+ * - user: 사용자 한 명당 기본 제한
+ * - roles.{ROLE}.user: 해당 역할 사용자의 1인당 제한 (없으면 user 값)
+ * - roles.{ROLE}.total: 해당 역할 사용자 전체가 나눠 쓰는 제한 (없으면 두지 않음)
+ */
+@Data
+@ConfigurationProperties(prefix = "chat.limit")
+public class ChatLimitProperties {
+
+    private boolean enabled = true;
+
+    private ChatLimiterMode mode = ChatLimiterMode.LOCAL;
+
+    private LimitPolicy user = new LimitPolicy(30, 10, 3);
+
+    private Map<String, RoleLimits> roles = new LinkedHashMap<>();
+
+    // 동시 스트림 한도에 걸렸을 때 Retry-After 로 알려 줄 대기 시간 (언제 빌지 알 수 없으므로 고정값)
+    private Duration concurrencyRetryAfter = Duration.ofSeconds(2);
+
+    // redis 모드: 반납되지 못한 슬롯(인스턴스 비정상 종료 등)이 자동으로 풀리는 시간 - 가장 긴 스트림보다 길게
+    private Duration streamLease = Duration.ofMinutes(5);
+
+    @Data
+    public static class RoleLimits {
+        private LimitPolicy user;
+        private LimitPolicy total;
+    }
+
+    public LimitPolicy userPolicy(String role) {
+        RoleLimits limits = roleLimits(role);
+        return limits != null && limits.getUser() != null ? limits.getUser() : user;
+    }
+
+    public LimitPolicy totalPolicy(String role) {
+        RoleLimits limits = roleLimits(role);
+        return limits != null ? limits.getTotal() : null;
+    }
+
+    // 환경 변수 바인딩 등으로 대소문자가 달라질 수 있어 역할 이름은 대소문자를 무시하고 찾는다
+    private RoleLimits roleLimits(String role) {
+        if (role == null) {
+            return null;
+        }
+        for (Map.Entry<String, RoleLimits> entry : roles.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(role)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,90 @@
+package com.lgcns.haibackend.common.limit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 채팅 스트림 요청 제한 (사용자별 / 역할별 요청 속도 + 동시 스트림 수)
+ *
+ * 한도에 걸린 요청은 upstream 커넥션 풀에서 기다리게 두지 않고 바로 ChatLimitExceededException(429) 으로 끝낸다.
+ * 제한 저장소(Redis)에 문제가 생기면 채팅을 막지 않도록 제한 없이 통과시킨다 (fail-open).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChatLimiter {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final ChatLimitProperties properties;
+    private final ChatLimiterBackend backend;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 제한을 통과하면 stream 을 구독하고, 스트림이 끝나면(완료/에러/취소) 동시 스트림 슬롯을 반납한다.
+     */
+    public <T> Flux<T> limit(Authentication authentication, Supplier<Flux<T>> stream) {
+        return acquire(authentication.getName(), roleOf(authentication))
+                .flatMapMany(permit -> Flux.defer(stream).doFinally(signal -> permit.release()));
+    }
+
+    public Mono<ChatPermit> acquire(String userId, String role) {
+        if (!properties.isEnabled()) {
+            return Mono.just(ChatPermit.NONE);
+        }
+
+        List<LimitScope> scopes = new ArrayList<>(2);
+        scopes.add(new LimitScope("user", "user:" + userId, properties.userPolicy(role)));
+        LimitPolicy total = properties.totalPolicy(role);
+        if (total != null) {
+            // 설정과 마찬가지로 역할 이름의 대소문자는 구분하지 않는다
+            scopes.add(new LimitScope("role", "role:" + role.toUpperCase(Locale.ROOT), total));
+        }
+
+        return backend.tryAcquire(scopes)
+                .doOnNext(permit -> decisionCounter("admitted", "none", "none").increment())
+                .onErrorResume(e -> {
+                    if (e instanceof ChatLimitExceededException exceeded) {
+                        decisionCounter("rejected", exceeded.getScope(), exceeded.getReason().name().toLowerCase())
+                                .increment();
+                        log.info("[CHAT LIMIT] Rejected userId={}, role={}: {}", userId, role, e.getMessage());
+                        return Mono.error(e);
+                    }
+                    decisionCounter("error", "none", "none").increment();
+                    log.warn("[CHAT LIMIT] Limiter unavailable, admitting userId={}: {}", userId, e.getMessage());
+                    return Mono.just(ChatPermit.NONE);
+                });
+    }
+
+    private Counter decisionCounter(String result, String scope, String reason) {
+        return Counter.builder("chat.limit.decisions")
+                .tag("result", result)
+                .tag("scope", scope)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    // JwtFilter / JwtWebFilter 는 권한 하나(ROLE_{role})만 넣는다
+    static String roleOf(Authentication authentication) {
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            String name = authority.getAuthority();
+            if (name != null && name.startsWith(ROLE_PREFIX)) {
+                return name.substring(ROLE_PREFIX.length());
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,17 @@
+package com.lgcns.haibackend.common.limit;
+
+import java.util.List;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * 제한 상태 저장소 (chat.limit.mode 에 따라 Local / Redis 중 하나가 등록된다)
+ */
+public interface ChatLimiterBackend {
+
+    /**
+     * 모든 scope 를 통과하면 요청 토큰을 쓰고 동시 스트림 슬롯을 잡은 permit 을,
+     * 하나라도 걸리면 아무것도 소비하지 않고 ChatLimitExceededException 을 낸다.
+     */
+    Mono<ChatPermit> tryAcquire(List<LimitScope> scopes);
+}
@@ -0,0 +1,11 @@
+package com.lgcns.haibackend.common.limit;
+
+/**
+ * 제한 상태를 어디에 두는지
+ */
+public enum ChatLimiterMode {
+    // 인스턴스 메모리 (인스턴스마다 따로 센다)
+    LOCAL,
+    // Redis Lua 스크립트 (모든 인스턴스가 같은 한도를 나눠 쓴다)
+    REDIS
+}
@@ -0,0 +1,26 @@
+package com.lgcns.haibackend.common.limit;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 스트림 하나가 잡고 있는 동시 실행 슬롯
+ * 스트림이 어떻게 끝나든(완료/에러/취소) release 를 한 번 호출하면 되고, 여러 번 호출해도 한 번만 반납된다.
+ */
+public final class ChatPermit {
+
+    public static final ChatPermit NONE = new ChatPermit(() -> {
+    });
+
+    private final Runnable onRelease;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    public ChatPermit(Runnable onRelease) {
+        this.onRelease = onRelease;
+    }
+
+    public void release() {
+        if (released.compareAndSet(false, true)) {
+            onRelease.run();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.lgcns.haibackend.common.limit;
+
+import java.time.Duration;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 한 범위(사용자 한 명 / 역할 전체)에 적용하는 제한
+ * 값이 0 이면 해당 제한을 두지 않는다.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LimitPolicy {
+
+    // 분당 허용 요청 수 (토큰 버킷 충전 속도)
+    private int requestsPerMinute;
+
+    // 한 번에 몰아서 보낼 수 있는 요청 수 (버킷 크기)
+    private int burst = 1;
+
+    // 동시에 열 수 있는 스트림 수
+    private int maxConcurrentStreams;
+
+    public boolean isRateLimited() {
+        return requestsPerMinute > 0;
+    }
+
+    public boolean isConcurrencyLimited() {
+        return maxConcurrentStreams > 0;
+    }
+
+    /**
+     * 토큰 하나가 다시 차는 간격
+     */
+    public Duration emissionInterval() {
+        return Duration.ofNanos(Duration.ofMinutes(1).toNanos() / requestsPerMinute);
+    }
+
+    public int effectiveBurst() {
+        return Math.max(burst, 1);
+    }
+}
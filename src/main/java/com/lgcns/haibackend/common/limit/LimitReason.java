@@ -0,0 +1,11 @@
+package com.lgcns.haibackend.common.limit;
+
+/**
+ * 요청을 거절한 이유
+ */
+public enum LimitReason {
+    // 요청 속도 초과 (토큰 버킷이 비었음)
+    RATE,
+    // 동시 스트림 수 초과
+    CONCURRENCY
+}
@@ -0,0 +1,20 @@
+package com.lgcns.haibackend.common.limit;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 제한을 세는 단위 하나 - 예: name=user, key=user:{userId}
+ */
+@Getter
+@AllArgsConstructor
+public class LimitScope {
+
+    // 메트릭 태그 / 로그용 (user | role)
+    private final String name;
+
+    // 카운터를 구분하는 key
+    private final String key;
+
+    private final LimitPolicy policy;
+}
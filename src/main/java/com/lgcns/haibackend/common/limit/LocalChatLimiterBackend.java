@@ -0,0 +1,150 @@
+package com.lgcns.haibackend.common.limit;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * 인스턴스 메모리 제한 저장소 (chat.limit.mode=local)
+ *
+ * 락 없이 CAS 만 사용한다.
+ * - 요청 속도: GCRA(토큰 버킷과 같은 동작) - key 마다 "다음 토큰이 도착하는 이론 시각(tat)" 하나만 둔다
+ * - 동시 스트림: key 마다 진행 중 스트림 수
+ * 여러 scope 중 하나라도 걸리면 앞서 잡은 scope 는 되돌린다.
+ */
+@Component
+@ConditionalOnProperty(name = "chat.limit.mode", havingValue = "local", matchIfMissing = true)
+@RequiredArgsConstructor
+public class LocalChatLimiterBackend implements ChatLimiterBackend {
+
+    private final ChatLimitProperties properties;
+
+    private final ConcurrentMap<String, Counters> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<ChatPermit> tryAcquire(List<LimitScope> scopes) {
+        return Mono.fromSupplier(() -> acquire(scopes, System.nanoTime()));
+    }
+
+    ChatPermit acquire(List<LimitScope> scopes, long now) {
+        Counters[] acquired = new Counters[scopes.size()];
+        for (int i = 0; i < scopes.size(); i++) {
+            LimitScope scope = scopes.get(i);
+            LimitPolicy policy = scope.getPolicy();
+            Counters c = counters.computeIfAbsent(scope.getKey(), key -> new Counters());
+
+            if (policy.isConcurrencyLimited() && !c.tryEnter(policy.getMaxConcurrentStreams())) {
+                rollback(scopes, acquired, i);
+                throw new ChatLimitExceededException(scope.getName(), LimitReason.CONCURRENCY,
+                        properties.getConcurrencyRetryAfter());
+            }
+            if (policy.isRateLimited()) {
+                long waitNanos = c.tryConsume(policy.emissionInterval().toNanos(), policy.effectiveBurst(), now);
+                if (waitNanos > 0) {
+                    if (policy.isConcurrencyLimited()) {
+                        c.exit();
+                    }
+                    rollback(scopes, acquired, i);
+                    throw new ChatLimitExceededException(scope.getName(), LimitReason.RATE,
+                            Duration.ofNanos(waitNanos));
+                }
+            }
+            acquired[i] = c;
+        }
+
+        return new ChatPermit(() -> {
+            for (int i = 0; i < scopes.size(); i++) {
+                if (scopes.get(i).getPolicy().isConcurrencyLimited()) {
+                    acquired[i].exit();
+                }
+            }
+        });
+    }
+
+    // 앞에서 통과한 scope 의 토큰/슬롯을 돌려준다
+    private void rollback(List<LimitScope> scopes, Counters[] acquired, int count) {
+        for (int i = 0; i < count; i++) {
+            LimitPolicy policy = scopes.get(i).getPolicy();
+            if (policy.isConcurrencyLimited()) {
+                acquired[i].exit();
+            }
+            if (policy.isRateLimited()) {
+                acquired[i].refund(policy.emissionInterval().toNanos());
+            }
+        }
+    }
+
+    /**
+     * 진행 중 스트림이 없고 버킷이 가득 찬 key 는 새로 만든 것과 같으므로 주기적으로 지운다.
+     * 지우는 순간 다른 요청이 같은 객체를 쓰고 있으면 그 한 번은 새 카운터 기준으로 세어질 수 있다 (최대 1회 관대).
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdle() {
+        long now = System.nanoTime();
+        counters.values().removeIf(c -> c.isIdle(now));
+    }
+
+    int size() {
+        return counters.size();
+    }
+
+    static final class Counters {
+
+        // 다음 요청이 버킷을 하나도 쓰지 않은 상태로 도착할 수 있는 이론 시각 (nanoTime 기준)
+        private final AtomicLong tat = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        boolean tryEnter(int max) {
+            while (true) {
+                int current = inFlight.get();
+                if (current >= max) {
+                    return false;
+                }
+                if (inFlight.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void exit() {
+            inFlight.decrementAndGet();
+        }
+
+        /**
+         * 토큰 하나를 쓴다. 성공하면 0, 버킷이 비었으면 토큰이 생길 때까지 남은 시간(ns)
+         */
+        long tryConsume(long intervalNanos, int burst, long now) {
+            while (true) {
+                long current = tat.get();
+                long base = current == Long.MIN_VALUE || current - now < 0 ? now : current;
+                long next = base + intervalNanos;
+                long allowAt = next - burst * intervalNanos;
+                if (allowAt - now > 0) {
+                    return allowAt - now;
+                }
+                if (tat.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        void refund(long intervalNanos) {
+            tat.addAndGet(-intervalNanos);
+        }
+
+        boolean isIdle(long now) {
+            long current = tat.get();
+            return inFlight.get() == 0 && (current == Long.MIN_VALUE || current - now <= 0);
+        }
+    }
+}
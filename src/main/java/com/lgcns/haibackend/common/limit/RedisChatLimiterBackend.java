@@ -0,0 +1,126 @@
+package com.lgcns.haibackend.common.limit;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Redis 제한 저장소 (chat.limit.mode=redis) - 모든 인스턴스가 같은 한도를 나눠 쓴다
+ *
+ * 확인과 소비를 Lua 스크립트 하나로 원자적으로 처리한다 (reactive 커넥션이라 이벤트 루프를 막지 않음).
+ * - 요청 속도: GCRA, key 하나에 tat(µs) 저장
+ * - 동시 스트림: ZSET(member=permit id, score=lease 만료 시각) - 반납되지 못한 슬롯은 lease 가 지나면 자동으로 빠진다
+ * 시각은 인스턴스 간 시계 차이가 없도록 Redis TIME 을 쓴다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "chat.limit.mode", havingValue = "redis")
+@RequiredArgsConstructor
+public class RedisChatLimiterBackend implements ChatLimiterBackend {
+
+    private static final String KEY_PREFIX = "chat:limit:";
+
+    // KEYS: scope 마다 [rate key, streams key]
+    // ARGV: [1]=permit id, [2]=lease(µs), [3]=동시 스트림 초과 시 retry(µs), 이후 scope 마다 [interval(µs), burst, max streams]
+    // 반환: {0,0,0}=통과, {1,retry µs,scope 번호}=속도 초과, {2,retry µs,scope 번호}=동시 스트림 초과
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> ACQUIRE_SCRIPT = RedisScript.of("""
+            local t = redis.call('TIME')
+            local now = tonumber(t[1]) * 1000000 + tonumber(t[2])
+            local lease = tonumber(ARGV[2])
+            local n = #KEYS / 2
+            local tats = {}
+            for i = 1, n do
+              local interval = tonumber(ARGV[3 * i + 1])
+              local burst = tonumber(ARGV[3 * i + 2])
+              local maxStreams = tonumber(ARGV[3 * i + 3])
+              if maxStreams > 0 then
+                redis.call('ZREMRANGEBYSCORE', KEYS[2 * i], '-inf', now)
+                if redis.call('ZCARD', KEYS[2 * i]) >= maxStreams then
+                  return {2, tonumber(ARGV[3]), i}
+                end
+              end
+              if interval > 0 then
+                local tat = tonumber(redis.call('GET', KEYS[2 * i - 1]) or now)
+                if tat < now then tat = now end
+                local nextTat = tat + interval
+                local allowAt = nextTat - burst * interval
+                if allowAt > now then
+                  return {1, allowAt - now, i}
+                end
+                tats[i] = nextTat
+              end
+            end
+            for i = 1, n do
+              if tats[i] then
+                redis.call('SET', KEYS[2 * i - 1], string.format('%d', tats[i]),
+                  'PX', math.ceil((tats[i] - now) / 1000) + 1)
+              end
+              if tonumber(ARGV[3 * i + 3]) > 0 then
+                redis.call('ZADD', KEYS[2 * i], now + lease, ARGV[1])
+                redis.call('PEXPIRE', KEYS[2 * i], math.ceil(lease / 1000))
+              end
+            end
+            return {0, 0, 0}
+            """, List.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final ChatLimitProperties properties;
+
+    @Override
+    public Mono<ChatPermit> tryAcquire(List<LimitScope> scopes) {
+        String permitId = UUID.randomUUID().toString();
+        List<String> keys = new ArrayList<>(scopes.size() * 2);
+        List<String> args = new ArrayList<>(3 + scopes.size() * 3);
+        args.add(permitId);
+        args.add(Long.toString(micros(properties.getStreamLease())));
+        args.add(Long.toString(micros(properties.getConcurrencyRetryAfter())));
+        for (LimitScope scope : scopes) {
+            LimitPolicy policy = scope.getPolicy();
+            keys.add(KEY_PREFIX + scope.getKey() + ":rate");
+            keys.add(KEY_PREFIX + scope.getKey() + ":streams");
+            args.add(Long.toString(policy.isRateLimited() ? micros(policy.emissionInterval()) : 0));
+            args.add(Integer.toString(policy.effectiveBurst()));
+            args.add(Integer.toString(policy.getMaxConcurrentStreams()));
+        }
+
+        return redisTemplate.execute(ACQUIRE_SCRIPT, keys, args)
+                .next()
+                .map(result -> toPermit(result, scopes, permitId));
+    }
+
+    private ChatPermit toPermit(List<?> result, List<LimitScope> scopes, String permitId) {
+        long status = ((Number) result.get(0)).longValue();
+        if (status != 0) {
+            Duration retryAfter = Duration.of(((Number) result.get(1)).longValue(), ChronoUnit.MICROS);
+            String scope = scopes.get(((Number) result.get(2)).intValue() - 1).getName();
+            throw new ChatLimitExceededException(scope, status == 1 ? LimitReason.RATE : LimitReason.CONCURRENCY,
+                    retryAfter);
+        }
+        return new ChatPermit(() -> release(scopes, permitId));
+    }
+
+    // 스트림 종료 콜백에서 호출 - 결과를 기다리지 않는다 (실패해도 lease 가 지나면 풀린다)
+    private void release(List<LimitScope> scopes, String permitId) {
+        Flux.fromIterable(scopes)
+                .filter(scope -> scope.getPolicy().isConcurrencyLimited())
+                .flatMap(scope -> redisTemplate.opsForZSet().remove(KEY_PREFIX + scope.getKey() + ":streams", permitId))
+                .subscribe(null, e -> log.warn("[CHAT LIMIT] Failed to release permit {}: {}", permitId, e.getMessage()));
+    }
+
+    private static long micros(Duration duration) {
+        return duration.toNanos() / 1000;
+    }
+}
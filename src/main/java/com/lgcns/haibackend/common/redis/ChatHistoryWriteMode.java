@@ -0,0 +1,11 @@
+package com.lgcns.haibackend.common.redis;
+
+/**
+ * 완료된 대화 턴을 Redis에 쓰는 방식
+ */
+public enum ChatHistoryWriteMode {
+    // 턴마다 바로 reactive 커넥션으로 스크립트 실행
+    INLINE,
+    // 메모리 큐에 넣고 백그라운드 writer 가 배치 파이프라인으로 저장
+    WRITE_BEHIND
+}
@@ -0,0 +1,248 @@
+package com.lgcns.haibackend.common.redis;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.lgcns.haibackend.bedrock.domain.dto.MessageDTO;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 완료된 대화 턴 저장기 (write-behind)
+ * 스트림 완료 콜백은 큐에 넣기만 하고 바로 끝나며, 백그라운드 writer 스레드가 쌓인 턴을
+ * 한 번의 파이프라인(EVALSHA x N)으로 Redis에 쓴다. Redis 가 느리거나 잠시 끊겨도 사용자 스트림은 영향을 받지 않는다.
+ *
+ * - 큐는 고정 크기이며, 가득 차면 overflow 정책(drop-newest | drop-oldest)에 따라 버린다
+ * - 실패한 턴만 max-retries 번까지 backoff 후 다시 쓰고, 그래도 실패하면 버린다
+ * - 애플리케이션 종료 시 웹 서버가 멈춘 뒤, Redis 커넥션이 닫히기 전에 큐를 비운다
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChatHistoryWriter implements SmartLifecycle {
+
+    private final RedisChatRepository redisChatRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${chat.history.write-mode:write-behind}")
+    private ChatHistoryWriteMode writeMode;
+
+    @Value("${chat.history.write-behind.queue-capacity:10000}")
+    private int queueCapacity;
+
+    // 파이프라인 한 번에 보내는 최대 턴 수
+    @Value("${chat.history.write-behind.batch-size:100}")
+    private int batchSize;
+
+    @Value("${chat.history.write-behind.overflow:drop-newest}")
+    private QueueOverflowPolicy overflowPolicy;
+
+    @Value("${chat.history.write-behind.max-retries:3}")
+    private int maxRetries;
+
+    @Value("${chat.history.write-behind.retry-backoff:200ms}")
+    private Duration retryBackoff;
+
+    @Value("${chat.history.write-behind.shutdown-timeout:10s}")
+    private Duration shutdownTimeout;
+
+    // 웹 서버 종료(graceful shutdown) 이후, Lettuce 커넥션 팩토리(phase 0) 종료 이전에 멈춘다
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    // writer 스레드가 running 을 확인하는 주기
+    private static final long POLL_MILLIS = 100;
+
+    private BlockingQueue<ChatTurn> queue;
+    private volatile boolean running;
+    private Thread writerThread;
+
+    private Counter writtenCounter;
+    private Counter retriedCounter;
+    private Counter droppedOverflowCounter;
+    private Counter droppedErrorCounter;
+    private Timer flushTimer;
+    private DistributionSummary batchSizeSummary;
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        Gauge.builder("chat.history.queue.depth", queue, BlockingQueue::size)
+                .description("Chat turns waiting to be written to Redis")
+                .register(meterRegistry);
+        writtenCounter = writesCounter("written");
+        retriedCounter = writesCounter("retried");
+        droppedOverflowCounter = writesCounter("dropped-overflow");
+        droppedErrorCounter = writesCounter("dropped-error");
+        flushTimer = Timer.builder("chat.history.flush.latency")
+                .description("Time to write one pipelined batch of chat turns")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        batchSizeSummary = DistributionSummary.builder("chat.history.flush.batch.size")
+                .description("Chat turns per pipelined batch")
+                .register(meterRegistry);
+    }
+
+    private Counter writesCounter(String result) {
+        return Counter.builder("chat.history.writes")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 질문/답변 한 턴 저장 요청 - 호출 스레드(이벤트 루프)를 막지 않는다
+     */
+    public void saveTurn(UUID userId, String key, MessageDTO userMessage, MessageDTO assistantMessage) {
+        // inline 모드이거나 writer 가 아직/이미 멈춰 있으면 reactive 커넥션으로 바로 저장
+        if (writeMode == ChatHistoryWriteMode.INLINE || !running) {
+            saveInline(userId, key, userMessage, assistantMessage);
+            return;
+        }
+
+        ChatTurn turn = new ChatTurn(userId, key, userMessage, assistantMessage);
+        while (!queue.offer(turn)) {
+            if (overflowPolicy == QueueOverflowPolicy.DROP_NEWEST) {
+                droppedOverflowCounter.increment();
+                log.warn("[CHAT HISTORY] Queue full ({}). Dropping turn for key {}", queueCapacity, key);
+                return;
+            }
+            ChatTurn evicted = queue.poll();
+            if (evicted != null) {
+                droppedOverflowCounter.increment();
+                log.warn("[CHAT HISTORY] Queue full ({}). Dropping oldest turn for key {}",
+                        queueCapacity, evicted.getKey());
+            }
+        }
+
+        // running 확인과 offer 사이에 stop() 이 와서 writer 가 큐를 비우고 끝났을 수 있다
+        // offer 뒤에 다시 확인해서 아직 큐에 남아 있으면 직접 꺼내 inline 으로 저장한다 (이미 꺼내 갔으면 writer 가 쓴다)
+        if (!running && queue.remove(turn)) {
+            saveInline(userId, key, userMessage, assistantMessage);
+        }
+    }
+
+    private void saveInline(UUID userId, String key, MessageDTO userMessage, MessageDTO assistantMessage) {
+        redisChatRepository.appendTurnAsync(userId, key, userMessage, assistantMessage)
+                .subscribe(null, e -> log.error("[CHAT HISTORY] Failed to save turn for key {}: {}",
+                        key, e.getMessage()));
+    }
+
+    @Override
+    public void start() {
+        if (writeMode != ChatHistoryWriteMode.WRITE_BEHIND) {
+            return;
+        }
+        try {
+            redisChatRepository.loadAppendScript();
+        } catch (Exception e) {
+            // Redis 가 아직 준비되지 않았어도 첫 배치의 NOSCRIPT 처리에서 다시 올린다
+            log.warn("[CHAT HISTORY] Failed to preload append script: {}", e.getMessage());
+        }
+
+        running = true;
+        writerThread = new Thread(this::runWriter, "chat-history-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("[CHAT HISTORY] Write-behind writer started (capacity={}, batch={})", queueCapacity, batchSize);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        // 새 턴은 inline 으로 저장되고, writer 는 남은 큐를 모두 비운 뒤 종료한다
+        running = false;
+        try {
+            writerThread.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive()) {
+            log.warn("[CHAT HISTORY] Writer did not drain within {}. {} turns left in queue",
+                    shutdownTimeout, queue.size());
+            writerThread.interrupt();
+        } else {
+            log.info("[CHAT HISTORY] Write-behind queue drained");
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void runWriter() {
+        List<ChatTurn> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                ChatTurn first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                // 기다리지 않고 지금 쌓여 있는 만큼만 묶는다 (부하가 높을수록 배치가 커진다)
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("[CHAT HISTORY] Unexpected writer error: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<ChatTurn> batch) throws InterruptedException {
+        batchSizeSummary.record(batch.size());
+        List<ChatTurn> pending = batch;
+
+        for (int attempt = 0; ; attempt++) {
+            long startNanos = System.nanoTime();
+            List<ChatTurn> failed;
+            try {
+                failed = redisChatRepository.appendTurns(pending);
+            } catch (Exception e) {
+                log.warn("[CHAT HISTORY] Batch of {} failed: {}", pending.size(), e.getMessage());
+                failed = pending;
+            }
+            flushTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            writtenCounter.increment(pending.size() - failed.size());
+
+            if (failed.isEmpty()) {
+                return;
+            }
+            if (attempt >= maxRetries) {
+                droppedErrorCounter.increment(failed.size());
+                log.error("[CHAT HISTORY] Dropping {} turns after {} retries", failed.size(), maxRetries);
+                return;
+            }
+            retriedCounter.increment(failed.size());
+            pending = new ArrayList<>(failed);
+            Thread.sleep(retryBackoff.toMillis() * (attempt + 1));
+        }
+    }
+}
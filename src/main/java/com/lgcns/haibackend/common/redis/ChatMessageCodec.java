@@ -0,0 +1,13 @@
+package com.lgcns.haibackend.common.redis;
+
+import com.lgcns.haibackend.bedrock.domain.dto.MessageDTO;
+
+/**
+ * Redis 리스트에 저장되는 채팅 메시지 인코딩
+ */
+public interface ChatMessageCodec {
+
+    byte[] encode(MessageDTO message);
+
+    MessageDTO decode(byte[] bytes);
+}
@@ -0,0 +1,21 @@
+package com.lgcns.haibackend.common.redis;
+
+import java.util.UUID;
+
+import com.lgcns.haibackend.bedrock.domain.dto.MessageDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 저장 대기 중인 질문/답변 한 턴
+ */
+@Getter
+@AllArgsConstructor
+public class ChatTurn {
+
+    private final UUID userId;
+    private final String key;
+    private final MessageDTO userMessage;
+    private final MessageDTO assistantMessage;
+}
@@ -0,0 +1,174 @@
+package com.lgcns.haibackend.common.redis;
+
+import java.nio.charset.StandardCharsets;
+
+import com.lgcns.haibackend.bedrock.domain.dto.MessageDTO;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+/**
+ * 압축 바이너리 형식 (v1)
+ *
+ * <pre>
+ * [0]    0xC1                      형식/버전 표시 (UTF-8 에 나올 수 없는 바이트라 JSON 과 구분된다)
+ * [1]    flags(상위 4비트) | role(하위 4비트)
+ *        role: 0=user 1=assistant 2=system 15=기타(뒤에 varint 길이 + UTF-8 role 문자열)
+ *        flags: 0x10 = content 가 LZ4 블록으로 압축됨
+ * [..]   varint 원본 content UTF-8 길이
+ * [..]   content (UTF-8 원문 또는 LZ4 블록)
+ * </pre>
+ *
+ * 필드 이름/role 문자열 반복과 JSON 이스케이프가 없고, 긴 답변만 선택적으로 압축한다.
+ */
+public class CompactChatMessageCodec implements ChatMessageCodec {
+
+    static final byte VERSION_1 = (byte) 0xC1;
+
+    private static final int ROLE_USER = 0;
+    private static final int ROLE_ASSISTANT = 1;
+    private static final int ROLE_SYSTEM = 2;
+    private static final int ROLE_OTHER = 15;
+
+    private static final int FLAG_LZ4 = 0x10;
+
+    // LZ4 는 압축 해제 시 원본 길이만 알면 되는 fast decompressor 를 쓴다
+    private static final LZ4Compressor COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+    private static final LZ4FastDecompressor DECOMPRESSOR = LZ4Factory.fastestInstance().fastDecompressor();
+
+    // 이 길이(UTF-8 바이트) 이상인 content 만 압축을 시도한다 (0 이하면 압축하지 않음)
+    private final int compressThreshold;
+
+    public CompactChatMessageCodec(int compressThreshold) {
+        this.compressThreshold = compressThreshold;
+    }
+
+    @Override
+    public byte[] encode(MessageDTO message) {
+        byte[] content = message.getContent() != null
+                ? message.getContent().getBytes(StandardCharsets.UTF_8)
+                : new byte[0];
+        int role = roleTag(message.getRole());
+        byte[] otherRole = role == ROLE_OTHER && message.getRole() != null
+                ? message.getRole().getBytes(StandardCharsets.UTF_8)
+                : new byte[0];
+
+        byte[] body = content;
+        int bodyLength = content.length;
+        int flags = 0;
+        if (compressThreshold > 0 && content.length >= compressThreshold) {
+            byte[] compressed = new byte[COMPRESSOR.maxCompressedLength(content.length)];
+            int compressedLength = COMPRESSOR.compress(content, 0, content.length, compressed, 0);
+            // 압축 이득이 없으면 원문을 그대로 둔다
+            if (compressedLength < content.length) {
+                body = compressed;
+                bodyLength = compressedLength;
+                flags |= FLAG_LZ4;
+            }
+        }
+
+        int size = 2 + bodyLength + varintSize(content.length);
+        if (role == ROLE_OTHER) {
+            size += varintSize(otherRole.length) + otherRole.length;
+        }
+
+        byte[] out = new byte[size];
+        out[0] = VERSION_1;
+        out[1] = (byte) (flags | role);
+        int pos = 2;
+        if (role == ROLE_OTHER) {
+            pos = writeVarint(out, pos, otherRole.length);
+            System.arraycopy(otherRole, 0, out, pos, otherRole.length);
+            pos += otherRole.length;
+        }
+        pos = writeVarint(out, pos, content.length);
+        System.arraycopy(body, 0, out, pos, bodyLength);
+        return out;
+    }
+
+    @Override
+    public MessageDTO decode(byte[] bytes) {
+        if (bytes.length < 3 || bytes[0] != VERSION_1) {
+            throw new IllegalArgumentException("지원하지 않는 메시지 형식입니다");
+        }
+        int flags = bytes[1] & 0xF0;
+        int role = bytes[1] & 0x0F;
+        int[] pos = { 2 };
+
+        String roleName;
+        if (role == ROLE_OTHER) {
+            int roleLength = readVarint(bytes, pos);
+            roleName = new String(bytes, pos[0], roleLength, StandardCharsets.UTF_8);
+            pos[0] += roleLength;
+        } else {
+            roleName = roleName(role);
+        }
+
+        int contentLength = readVarint(bytes, pos);
+        String content;
+        if ((flags & FLAG_LZ4) != 0) {
+            byte[] restored = new byte[contentLength];
+            DECOMPRESSOR.decompress(bytes, pos[0], restored, 0, contentLength);
+            content = new String(restored, StandardCharsets.UTF_8);
+        } else {
+            content = new String(bytes, pos[0], contentLength, StandardCharsets.UTF_8);
+        }
+        return new MessageDTO(roleName, content);
+    }
+
+    private static int roleTag(String role) {
+        if ("user".equals(role)) {
+            return ROLE_USER;
+        }
+        if ("assistant".equals(role)) {
+            return ROLE_ASSISTANT;
+        }
+        if ("system".equals(role)) {
+            return ROLE_SYSTEM;
+        }
+        return ROLE_OTHER;
+    }
+
+    private static String roleName(int tag) {
+        switch (tag) {
+            case ROLE_USER:
+                return "user";
+            case ROLE_ASSISTANT:
+                return "assistant";
+            case ROLE_SYSTEM:
+                return "system";
+            default:
+                throw new IllegalArgumentException("알 수 없는 role 태그: " + tag);
+        }
+    }
+
+    private static int varintSize(int value) {
+        int size = 1;
+        while ((value >>>= 7) != 0) {
+            size++;
+        }
+        return size;
+    }
+
+    private static int writeVarint(byte[] out, int pos, int value) {
+        while ((value & ~0x7F) != 0) {
+            out[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out[pos++] = (byte) value;
+        return pos;
+    }
+
+    private static int readVarint(byte[] in, int[] pos) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in[pos[0]++];
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("잘못된 varint 길이");
+    }
+}
@@ -0,0 +1,37 @@
+package com.lgcns.haibackend.common.redis;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lgcns.haibackend.bedrock.domain.dto.MessageDTO;
+
+/**
+ * 기존 JSON 형식 ({"role":"assistant","content":"..."})
+ * 압축 형식 도입 이전에 저장된 메시지를 읽을 때와 chat.history.codec=json 일 때 사용한다.
+ */
+public class JsonChatMessageCodec implements ChatMessageCodec {
+
+    private final ObjectMapper objectMapper;
+
+    public JsonChatMessageCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public byte[] encode(MessageDTO message) {
+        try {
+            return objectMapper.writeValueAsBytes(message);
+        } catch (IOException e) {
+            throw new RuntimeException("Redis 직렬화 실패", e);
+        }
+    }
+
+    @Override
+    public MessageDTO decode(byte[] bytes) {
+        try {
+            return objectMapper.readValue(bytes, MessageDTO.class);
+        } catch (IOException e) {
+            throw new RuntimeException("Redis 역직렬화 실패", e);
+        }
+    }
+}
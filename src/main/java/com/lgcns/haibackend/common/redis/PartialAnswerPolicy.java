@@ -0,0 +1,11 @@
+package com.lgcns.haibackend.common.redis;
+
+/**
+ * 스트리밍 도중 클라이언트가 연결을 끊었을 때, 그때까지 받은 부분 답변을 히스토리에 남길지 여부
+ */
+public enum PartialAnswerPolicy {
+    // 부분 답변이라도 질문과 함께 저장
+    PERSIST,
+    // 이번 턴은 저장하지 않음
+    DISCARD
+}
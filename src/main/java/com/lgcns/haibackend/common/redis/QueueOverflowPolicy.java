@@ -0,0 +1,11 @@
+package com.lgcns.haibackend.common.redis;
+
+/**
+ * write-behind 큐가 가득 찼을 때 처리 방식
+ */
+public enum QueueOverflowPolicy {
+    // 새로 들어온 턴을 버린다 (이미 대기 중인 턴 보존)
+    DROP_NEWEST,
+    // 가장 오래 기다린 턴을 버리고 새 턴을 넣는다
+    DROP_OLDEST
+}
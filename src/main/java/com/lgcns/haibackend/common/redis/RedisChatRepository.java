@@ -1,40 +1,236 @@
 package com.lgcns.haibackend.common.redis;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisPipelineException;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Repository;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.lgcns.haibackend.bedrock.domain.dto.MessageDTO;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
 
+@Slf4j
 @Repository
 @RequiredArgsConstructor
 public class RedisChatRepository {
 
+    // key 인덱스(SET), SCAN/UNLINK 용
     private final RedisTemplate<String, String> redisTemplate;
-    private final ObjectMapper objectMapper;
+    // 메시지 리스트 용 - 값은 ChatMessageCodec 으로 인코딩한 byte[]
+    private final RedisTemplate<String, byte[]> binaryRedisTemplate;
+    // 스트림 완료 콜백(이벤트 루프 스레드)에서 쓰는 논블로킹 Lettuce 템플릿
+    private final ReactiveRedisTemplate<String, byte[]> reactiveBinaryRedisTemplate;
+    private final ChatMessageCodec messageCodec;
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
 
     private static final Duration DEFAULT_TTL = Duration.ofHours(6);
 
-    // key에 해당하는 전체 메시지 히스토리 조회
+    // 뒤에서부터 예산 안의 메시지를 찾을 때 한 번에 읽어 오는 개수
+    private static final int BUDGET_PAGE_SIZE = 16;
+
+    // 사용자별 채팅 key 인덱스 (SET)
+    private static final String USER_KEY_INDEX_PREFIX = "chat:keys:";
+
+    private static final String AI_PERSON_KEY_PREFIX = "aiperson:chat:";
+
+    // SCAN 한 번에 훑는 key 수 / UNLINK 한 번에 보내는 key 수
+    private static final int SCAN_COUNT = 1000;
+    private static final int UNLINK_BATCH_SIZE = 500;
+
+    // RPUSH + LTRIM + PEXPIRE (+ 사용자 인덱스 SADD) 를 한 번의 왕복으로 원자적으로 수행
+    // 요약 hash 의 appended 필드에는 지금까지 추가된 메시지 수(LTRIM 으로 잘린 것 포함)를 누적한다
+    // -> 리스트 첫 메시지의 절대 위치 = appended - 길이 (필드가 없던 기존 대화는 현재 길이부터 센다)
+    // KEYS[1] = 히스토리 key, KEYS[2] = 요약 key, KEYS[3] = 사용자 key 인덱스(선택)
+    // ARGV[1] = 최대 메시지 수, ARGV[2] = TTL(ms, 0이면 만료 없음), ARGV[3..] = 메시지
+    private static final RedisScript<Long> APPEND_SCRIPT = RedisScript.of("""
+            local before = redis.call('LLEN', KEYS[1])
+            local length = redis.call('RPUSH', KEYS[1], unpack(ARGV, 3))
+            redis.call('HSETNX', KEYS[2], 'appended', before)
+            redis.call('HINCRBY', KEYS[2], 'appended', length - before)
+            redis.call('LTRIM', KEYS[1], -tonumber(ARGV[1]), -1)
+            local ttl = tonumber(ARGV[2])
+            if ttl > 0 then
+                redis.call('PEXPIRE', KEYS[1], ttl)
+                redis.call('PEXPIRE', KEYS[2], ttl)
+            end
+            if KEYS[3] then
+                redis.call('SADD', KEYS[3], KEYS[1], KEYS[2])
+                if ttl > 0 then
+                    redis.call('PEXPIRE', KEYS[3], ttl)
+                end
+            end
+            return length
+            """, Long.class);
+
+    // 대화 요약 HSET + PEXPIRE, 요약 key 도 사용자 인덱스에 등록해 대화와 함께 지워지게 한다
+    // KEYS[1] = 요약 key, KEYS[2] = 사용자 key 인덱스, ARGV[1] = 요약, ARGV[2] = 요약에 반영된 메시지 수(절대 위치), ARGV[3] = TTL(ms)
+    private static final RedisScript<Long> SAVE_SUMMARY_SCRIPT = RedisScript.of("""
+            redis.call('HSET', KEYS[1], 'text', ARGV[1], 'folded', ARGV[2])
+            redis.call('PEXPIRE', KEYS[1], ARGV[3])
+            redis.call('SADD', KEYS[2], KEYS[1])
+            redis.call('PEXPIRE', KEYS[2], ARGV[3])
+            return 1
+            """, Long.class);
+
+    // chat.redis.op 의 op 태그 값
+    private static final String OP_GET_MESSAGES = "get_messages";
+    private static final String OP_GET_RECENT = "get_recent";
+    private static final String OP_GET_WITHIN_BUDGET = "get_within_budget";
+    private static final String OP_APPEND = "append";
+    private static final String OP_APPEND_ASYNC = "append_async";
+    private static final String OP_APPEND_BATCH = "append_batch";
+    private static final String OP_GET_SUMMARY = "get_summary";
+    private static final String OP_SAVE_SUMMARY = "save_summary";
+    private static final String OP_DELETE = "delete";
+    private static final String OP_DELETE_PATTERN = "delete_pattern";
+    private static final String OP_DELETE_USER = "delete_user";
+
+    private static final String SUMMARY_KEY_SUFFIX = ":summary";
+    private static final String SUMMARY_FIELD_TEXT = "text";
+    private static final String SUMMARY_FIELD_FOLDED = "folded";
+    private static final String SUMMARY_FIELD_APPENDED = "appended";
+
+    // key 하나에 보관하는 최대 메시지 수 (user/assistant 합산)
+    @Value("${chat.history.max-messages:40}")
+    private int maxMessages;
+
+    // 인덱스 도입 전에 만들어진 key 를 이 시각(ISO-8601)까지만 SCAN 으로도 찾아 지운다 (비어 있으면 하지 않음)
+    // 기존 key 는 TTL(6시간) 이 지나면 모두 사라지므로 배포 시각 + 6시간으로 두면 따로 끌 필요가 없다
+    @Value("${chat.history.legacy-scan-until:}")
+    private String legacyScanUntil;
+
+    private Instant legacyScanDeadline;
+
+    // append 직후(LTRIM 후) 리스트 길이
+    private DistributionSummary listLength;
+
+    @PostConstruct
+    public void init() {
+        legacyScanDeadline = legacyScanUntil == null || legacyScanUntil.isBlank()
+                ? null : Instant.parse(legacyScanUntil.trim());
+        listLength = DistributionSummary.builder("chat.redis.list.length")
+                .description("Messages in a chat history list after an append")
+                .serviceLevelObjectives(2, 4, 8, 16, 24, 32, 40, 64)
+                .register(meterRegistry);
+    }
+
+    // 연산 하나 = Observation 하나 (chat.redis.op 타이머 + "redis <op>" span, 부모는 현재 스레드의 Observation)
+    // 타이머 히스토그램 버킷은 management.metrics.distribution.slo.chat.redis.op 에서 정한다
+    private Observation opObservation(String op) {
+        return Observation.createNotStarted("chat.redis.op", observationRegistry)
+                .contextualName("redis " + op)
+                .lowCardinalityKeyValue("op", op);
+    }
+
+    private <T> T observeOp(String op, Supplier<T> operation) {
+        return opObservation(op).observe(operation);
+    }
+
+    private void observeOp(String op, Runnable operation) {
+        opObservation(op).observe(operation);
+    }
+
+    // 스크립트가 돌려준 길이는 LTRIM 전 값이므로 max-messages 로 자른다
+    private void recordListLength(Object length) {
+        if (length instanceof Long value) {
+            listLength.record(Math.min(value, maxMessages));
+        }
+    }
+
+    // key에 해당하는 전체 메시지 히스토리 조회 (append 시 max-messages로 잘리므로 크기가 제한됨)
     public List<MessageDTO> getMessages(String key) {
-        List<String> rawList = redisTemplate.opsForList().range(key, 0, -1);
-        if (rawList == null || rawList.isEmpty()) {
+        return observeOp(OP_GET_MESSAGES, () -> {
+            List<byte[]> rawList = binaryRedisTemplate.opsForList().range(key, 0, -1);
+            if (rawList == null || rawList.isEmpty()) {
+                return new ArrayList<>();
+            }
+
+            return rawList.stream()
+                    .map(messageCodec::decode)
+                    .collect(Collectors.toList());
+        });
+    }
+
+    // 최근 n개 메시지 조회 (오래된 순)
+    public List<MessageDTO> getRecentMessages(String key, int n) {
+        if (n <= 0) {
             return new ArrayList<>();
         }
+        return observeOp(OP_GET_RECENT, () -> {
+            List<byte[]> rawList = binaryRedisTemplate.opsForList().range(key, -n, -1);
+            if (rawList == null || rawList.isEmpty()) {
+                return new ArrayList<>();
+            }
+
+            List<MessageDTO> messages = new ArrayList<>(rawList.size());
+            for (byte[] raw : rawList) {
+                messages.add(messageCodec.decode(raw));
+            }
+            return messages;
+        });
+    }
+
+    // content 글자 수 합이 maxChars 를 넘지 않는 범위의 최근 메시지 조회 (오래된 순)
+    // 리스트 끝에서부터 페이지 단위로 읽으므로 예산을 채우는 만큼만 가져온다
+    public List<MessageDTO> getWithinBudget(String key, int maxChars) {
+        return observeOp(OP_GET_WITHIN_BUDGET, () -> readWithinBudget(key, maxChars));
+    }
+
+    private List<MessageDTO> readWithinBudget(String key, int maxChars) {
+        List<MessageDTO> newestFirst = new ArrayList<>();
+        int usedChars = 0;
+        long end = -1;
+
+        while (newestFirst.size() < maxMessages) {
+            List<byte[]> page = binaryRedisTemplate.opsForList().range(key, end - BUDGET_PAGE_SIZE + 1, end);
+            if (page == null || page.isEmpty()) {
+                break;
+            }
+
+            for (int i = page.size() - 1; i >= 0 && newestFirst.size() < maxMessages; i--) {
+                MessageDTO message = messageCodec.decode(page.get(i));
+                int chars = message.getContent() != null ? message.getContent().length() : 0;
+                if (usedChars + chars > maxChars) {
+                    Collections.reverse(newestFirst);
+                    return newestFirst;
+                }
+                usedChars += chars;
+                newestFirst.add(message);
+            }
+
+            if (page.size() < BUDGET_PAGE_SIZE) {
+                break;
+            }
+            end -= BUDGET_PAGE_SIZE;
+        }
 
-        return rawList.stream()
-                .map(this::deserialize)
-                .collect(Collectors.toList());
+        Collections.reverse(newestFirst);
+        return newestFirst;
     }
 
     // 메시지 1개 추가
@@ -44,51 +240,227 @@ public class RedisChatRepository {
 
     // 메시지 1개 추가 (TTL 지정)
     public void appendMessage(String key, MessageDTO message, Duration ttl) {
-        String json = serialize(message);
-        redisTemplate.opsForList().rightPush(key, json);
-        if (ttl != null) {
-            redisTemplate.expire(key, ttl);
+        append(key, ttl, messageCodec.encode(message));
+    }
+
+    // 질문/답변 한 턴을 한 번의 왕복으로 추가 (오래된 메시지는 max-messages 기준으로 잘라냄)
+    // key 는 사용자 인덱스에도 등록되어 사용자 단위 삭제 시 KEYS 없이 찾을 수 있다
+    public void appendTurn(UUID userId, String key, MessageDTO userMessage, MessageDTO assistantMessage) {
+        append(List.of(key, key + SUMMARY_KEY_SUFFIX, userKeyIndex(userId)), DEFAULT_TTL,
+                messageCodec.encode(userMessage), messageCodec.encode(assistantMessage));
+    }
+
+    // appendTurn 의 논블로킹 버전 - 구독 시점에 같은 스크립트를 reactive 커넥션으로 실행한다
+    public Mono<Long> appendTurnAsync(UUID userId, String key, MessageDTO userMessage, MessageDTO assistantMessage) {
+        return Mono.defer(() -> {
+            Observation observation = opObservation(OP_APPEND_ASYNC)
+                    .parentObservation(observationRegistry.getCurrentObservation())
+                    .start();
+            return reactiveBinaryRedisTemplate
+                    .execute(APPEND_SCRIPT, List.of(key, key + SUMMARY_KEY_SUFFIX, userKeyIndex(userId)),
+                            appendArgs(DEFAULT_TTL, messageCodec.encode(userMessage), messageCodec.encode(assistantMessage)))
+                    .next()
+                    .doOnNext(this::recordListLength)
+                    .doOnError(observation::error)
+                    .doFinally(signal -> observation.stop());
+        });
+    }
+
+    // 여러 턴을 파이프라인 한 번(EVALSHA x N)으로 저장하고, 실패한 턴만 돌려준다 (write-behind 배치용)
+    // 파이프라인 밖에서 난 예외(연결 실패 등)는 그대로 던지므로 호출자는 배치 전체를 실패로 본다
+    public List<ChatTurn> appendTurns(List<ChatTurn> turns) {
+        if (turns.isEmpty()) {
+            return Collections.emptyList();
         }
+
+        return observeOp(OP_APPEND_BATCH, () -> {
+            try {
+                List<Object> lengths = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    for (ChatTurn turn : turns) {
+                        connection.scriptingCommands().evalSha(APPEND_SCRIPT.getSha1(), ReturnType.INTEGER, 3,
+                                appendKeysAndArgs(turn));
+                    }
+                    return null;
+                });
+                lengths.forEach(this::recordListLength);
+                return Collections.<ChatTurn>emptyList();
+            } catch (RedisPipelineException e) {
+                // Redis 재시작 등으로 스크립트 캐시가 비었으면 다시 올려 두고, 재시도는 호출자에게 맡긴다
+                if (isNoScript(e)) {
+                    loadAppendScript();
+                }
+                List<ChatTurn> failed = failedTurns(turns, e.getPipelineResult());
+                log.warn("[REDIS] {} of {} pipelined appends failed: {}", failed.size(), turns.size(),
+                        e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+                return failed;
+            }
+        });
+    }
+
+    // EVALSHA 가 바로 성공하도록 스크립트를 Redis 스크립트 캐시에 올린다
+    public void loadAppendScript() {
+        redisTemplate.execute((RedisCallback<String>) connection -> connection.scriptingCommands()
+                .scriptLoad(APPEND_SCRIPT.getScriptAsString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private byte[][] appendKeysAndArgs(ChatTurn turn) {
+        List<byte[]> args = appendArgs(DEFAULT_TTL, messageCodec.encode(turn.getUserMessage()),
+                messageCodec.encode(turn.getAssistantMessage()));
+        byte[][] keysAndArgs = new byte[3 + args.size()][];
+        keysAndArgs[0] = turn.getKey().getBytes(StandardCharsets.UTF_8);
+        keysAndArgs[1] = (turn.getKey() + SUMMARY_KEY_SUFFIX).getBytes(StandardCharsets.UTF_8);
+        keysAndArgs[2] = userKeyIndex(turn.getUserId()).getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < args.size(); i++) {
+            keysAndArgs[3 + i] = args.get(i);
+        }
+        return keysAndArgs;
+    }
+
+    // 파이프라인 결과 중 예외인 항목의 턴만 골라낸다 (결과가 모자라면 나머지는 실패로 본다)
+    private static List<ChatTurn> failedTurns(List<ChatTurn> turns, List<Object> results) {
+        List<ChatTurn> failed = new ArrayList<>();
+        for (int i = 0; i < turns.size(); i++) {
+            if (results == null || i >= results.size() || results.get(i) instanceof Throwable) {
+                failed.add(turns.get(i));
+            }
+        }
+        return failed;
+    }
+
+    private static boolean isNoScript(RedisPipelineException e) {
+        if (hasNoScriptCause(e)) {
+            return true;
+        }
+        for (Object result : e.getPipelineResult()) {
+            if (result instanceof Throwable && hasNoScriptCause((Throwable) result)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasNoScriptCause(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t.getMessage() != null && t.getMessage().contains("NOSCRIPT")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void append(String key, Duration ttl, byte[]... messages) {
+        append(List.of(key, key + SUMMARY_KEY_SUFFIX), ttl, messages);
+    }
+
+    private void append(List<String> keys, Duration ttl, byte[]... messages) {
+        observeOp(OP_APPEND, () -> recordListLength(
+                binaryRedisTemplate.execute(APPEND_SCRIPT, keys, appendArgs(ttl, messages).toArray())));
     }
 
-    // 특정 key의 히스토리 삭제
+    // ARGV 도 값 직렬화기(byte[])를 거치므로 숫자 인자도 바이트로 넘긴다
+    private List<byte[]> appendArgs(Duration ttl, byte[]... messages) {
+        List<byte[]> args = new ArrayList<>(messages.length + 2);
+        args.add(String.valueOf(maxMessages).getBytes(StandardCharsets.UTF_8));
+        args.add(String.valueOf(ttl != null ? ttl.toMillis() : 0).getBytes(StandardCharsets.UTF_8));
+        Collections.addAll(args, messages);
+        return args;
+    }
+
+    // 대화 key 의 누적 요약과 위치 정보 조회 (요약 hash 가 없으면 null)
+    // 위치가 없는 이전 형식의 요약(text 만 있음)은 어디까지 반영했는지 알 수 없으므로 버린다
+    public RollingSummary getSummary(String key) {
+        List<Object> values = observeOp(OP_GET_SUMMARY, () -> redisTemplate.opsForHash()
+                .multiGet(key + SUMMARY_KEY_SUFFIX,
+                        List.of(SUMMARY_FIELD_TEXT, SUMMARY_FIELD_FOLDED, SUMMARY_FIELD_APPENDED)));
+        if (values == null || (values.get(0) == null && values.get(2) == null)) {
+            return null;
+        }
+        boolean positioned = values.get(1) != null;
+        return new RollingSummary(positioned ? (String) values.get(0) : null,
+                positioned ? Long.parseLong((String) values.get(1)) : 0,
+                values.get(2) != null ? Long.parseLong((String) values.get(2)) : 0);
+    }
+
+    // 대화 key 의 누적 요약 저장 (대화와 같은 TTL)
+    public void saveSummary(UUID userId, String key, RollingSummary summary) {
+        observeOp(OP_SAVE_SUMMARY, () -> redisTemplate.execute(SAVE_SUMMARY_SCRIPT,
+                List.of(key + SUMMARY_KEY_SUFFIX, userKeyIndex(userId)),
+                summary.getText(),
+                String.valueOf(summary.getFoldedCount()),
+                String.valueOf(DEFAULT_TTL.toMillis())));
+    }
+
+    // 특정 key의 히스토리 삭제 (누적 요약 포함)
     public void deleteByKey(String key) {
-        redisTemplate.delete(key);
+        observeOp(OP_DELETE, () -> redisTemplate.unlink(List.of(key, key + SUMMARY_KEY_SUFFIX)));
     }
 
-    // 패턴으로 여러 키 삭제
+    // 패턴으로 여러 키 삭제 (KEYS 대신 커서 기반 SCAN + 배치 UNLINK)
     // pattern = aiperson:chat:*:1
-    public void deleteByPattern(String pattern) {
-        Set<String> keys = redisTemplate.keys(pattern);
-        if (keys != null && !keys.isEmpty()) {
-            redisTemplate.delete(keys);
+    public long deleteByPattern(String pattern) {
+        return observeOp(OP_DELETE_PATTERN, () -> scanAndUnlink(pattern));
+    }
+
+    private long scanAndUnlink(String pattern) {
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(SCAN_COUNT).build();
+        List<String> batch = new ArrayList<>(UNLINK_BATCH_SIZE);
+        long deleted = 0;
+
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() == UNLINK_BATCH_SIZE) {
+                    deleted += unlink(batch);
+                    batch.clear();
+                }
+            }
         }
+        return deleted + unlink(batch);
     }
 
+    // 사용자의 AI 인물 채팅 key 전체 삭제 - 사용자 인덱스만 조회하므로 O(해당 사용자의 key 수)
     public void deleteAllAIPersonChats(UUID userId) {
-        // aiperson:chat:*:userId 패턴으로 모든 키 검색
-        String pattern = "aiperson:chat:*:" + userId;
-        Set<String> keys = redisTemplate.keys(pattern);
-        
-        if (keys != null && !keys.isEmpty()) {
-            redisTemplate.delete(keys);
-            System.out.println("[REDIS] Deleted " + keys.size() + " AI Person chat keys for user: " + userId);
-        }
+        observeOp(OP_DELETE_USER, () -> deleteIndexedAIPersonChats(userId));
     }
 
-    private String serialize(MessageDTO message) {
-        try {
-            return objectMapper.writeValueAsString(message);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Redis 직렬화 실패", e);
+    private void deleteIndexedAIPersonChats(UUID userId) {
+        String indexKey = userKeyIndex(userId);
+        Set<String> indexed = redisTemplate.opsForSet().members(indexKey);
+
+        List<String> keys = new ArrayList<>();
+        if (indexed != null) {
+            for (String key : indexed) {
+                if (key.startsWith(AI_PERSON_KEY_PREFIX)) {
+                    keys.add(key);
+                }
+            }
+        }
+
+        long deleted = 0;
+        for (int from = 0; from < keys.size(); from += UNLINK_BATCH_SIZE) {
+            deleted += unlink(keys.subList(from, Math.min(from + UNLINK_BATCH_SIZE, keys.size())));
+        }
+        if (!keys.isEmpty()) {
+            redisTemplate.opsForSet().remove(indexKey, keys.toArray());
+        }
+
+        // 인덱스가 없던 시절의 key 는 aiperson:chat:*:userId 패턴으로 찾는다
+        if (legacyScanDeadline != null && Instant.now().isBefore(legacyScanDeadline)) {
+            deleted += scanAndUnlink(AI_PERSON_KEY_PREFIX + "*:" + userId);
         }
+
+        log.info("[REDIS] Deleted {} AI Person chat keys for user: {}", deleted, userId);
     }
 
-    private MessageDTO deserialize(String json) {
-        try {
-            return objectMapper.readValue(json, MessageDTO.class);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Redis 역직렬화 실패", e);
+    private long unlink(List<String> keys) {
+        if (keys.isEmpty()) {
+            return 0;
         }
+        Long count = redisTemplate.unlink(keys);
+        return count != null ? count : 0;
+    }
+
+    private String userKeyIndex(UUID userId) {
+        return USER_KEY_INDEX_PREFIX + userId;
     }
 }
@@ -0,0 +1,22 @@
+package com.lgcns.haibackend.common.redis;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 대화 key 별로 캐시되는 이전 턴 요약
+ * 위치는 모두 대화 시작부터 센 절대 위치다 (리스트가 LTRIM 으로 잘려도 변하지 않음).
+ */
+@Getter
+@AllArgsConstructor
+public class RollingSummary {
+
+    // 요약 (아직 반영된 메시지가 없으면 null)
+    private final String text;
+
+    // 요약에 반영된 메시지 수 - 다음 조회 때 이 위치부터 이어서 반영
+    private final long foldedCount;
+
+    // 지금까지 대화에 추가된 메시지 수 (append 스크립트가 누적) - 리스트 첫 메시지의 위치 = appendedCount - 리스트 길이
+    private final long appendedCount;
+}
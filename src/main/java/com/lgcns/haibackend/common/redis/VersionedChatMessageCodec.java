@@ -0,0 +1,41 @@
+package com.lgcns.haibackend.common.redis;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lgcns.haibackend.bedrock.domain.dto.MessageDTO;
+
+/**
+ * 설정된 형식(chat.history.codec)으로 쓰고, 읽을 때는 첫 바이트로 형식을 판별한다.
+ * 기존 JSON 항목과 압축 항목이 한 리스트에 섞여 있어도 읽을 수 있으므로 별도 마이그레이션 없이 전환된다.
+ */
+@Component
+public class VersionedChatMessageCodec implements ChatMessageCodec {
+
+    private final JsonChatMessageCodec jsonCodec;
+    private final CompactChatMessageCodec compactCodec;
+    private final ChatMessageCodec writeCodec;
+
+    public VersionedChatMessageCodec(
+            ObjectMapper objectMapper,
+            @Value("${chat.history.codec:compact}") String format,
+            @Value("${chat.history.compress-threshold:512}") int compressThreshold) {
+        this.jsonCodec = new JsonChatMessageCodec(objectMapper);
+        this.compactCodec = new CompactChatMessageCodec(compressThreshold);
+        this.writeCodec = "json".equalsIgnoreCase(format) ? jsonCodec : compactCodec;
+    }
+
+    @Override
+    public byte[] encode(MessageDTO message) {
+        return writeCodec.encode(message);
+    }
+
+    @Override
+    public MessageDTO decode(byte[] bytes) {
+        if (bytes.length > 0 && bytes[0] == CompactChatMessageCodec.VERSION_1) {
+            return compactCodec.decode(bytes);
+        }
+        return jsonCodec.decode(bytes);
+    }
+}
@@ -0,0 +1,45 @@
+package com.lgcns.haibackend.common.sse;
+
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.lgcns.haibackend.bedrock.client.GatewayUnavailableException;
+import com.lgcns.haibackend.bedrock.domain.dto.StreamChunk;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+
+/**
+ * StreamChunk 스트림을 SSE 프레임으로 변환하는 공용 writer
+ * 미리 만들어 둔 ObjectWriter로 JSON 이스케이프(제어문자, \r, \t 포함)를 처리하고,
+ * 스트림 에러는 error 청크 프레임 하나로 바꿔 응답을 정상 종료한다.
+ * 단, 게이트웨이가 스트림 시작 전에 거절한 요청(GatewayUnavailableException)은 그대로 흘려 503 으로 응답한다.
+ */
+@Slf4j
+@Component
+public class StreamChunkSseWriter {
+
+    private final ObjectWriter chunkWriter;
+
+    public StreamChunkSseWriter(ObjectMapper objectMapper) {
+        this.chunkWriter = objectMapper.writerFor(StreamChunk.class);
+    }
+
+    public Flux<ServerSentEvent<String>> write(Flux<StreamChunk> chunks) {
+        return chunks
+                .map(this::toEvent)
+                .onErrorResume(error -> !(error instanceof GatewayUnavailableException),
+                        error -> Flux.just(toEvent(StreamChunk.error(error.getMessage()))));
+    }
+
+    private ServerSentEvent<String> toEvent(StreamChunk chunk) {
+        try {
+            return ServerSentEvent.builder(chunkWriter.writeValueAsString(chunk)).build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("SSE 청크 직렬화 실패", e);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.lgcns.haibackend.common.sse;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.lgcns.haibackend.bedrock.domain.dto.StreamChunk;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+
+/**
+ * 채팅 스트림 요약 로그
+ * 청크마다 로그를 남기지 않고, 스트림이 끝날 때 한 줄(청크 수, 바이트, 토큰 사용량, TTFT, 소요 시간, 결과)만 남긴다.
+ * 값은 메시지와 key-value 쌍으로 함께 넣으므로 prod 프로필의 JSON 로그에서는 필드로 검색할 수 있다.
+ *
+ * 청크 단위 로그가 필요하면 이 클래스의 DEBUG 를 켜고, chunk-debug-sample-rate 비율의 스트림만 청크를 기록한다.
+ */
+@Slf4j
+@Component
+public class StreamSummaryLogger {
+
+    // DEBUG 가 켜져 있을 때 청크 단위로 기록할 스트림 비율 (0 이면 기록하지 않음)
+    @Value("${chat.logging.chunk-debug-sample-rate:0.01}")
+    private double chunkDebugSampleRate;
+
+    /**
+     * 스트림 하나를 추적해 종료(완료/에러/취소) 시 요약 한 줄을 남긴다
+     */
+    public Flux<StreamChunk> track(String endpoint, UUID userId, Flux<StreamChunk> chunks) {
+        return Flux.defer(() -> {
+            StreamSummary summary = new StreamSummary(endpoint, userId, sampleChunks());
+            return chunks
+                    .doOnNext(summary::onChunk)
+                    .doOnError(summary::onError)
+                    .doFinally(summary::finish);
+        });
+    }
+
+    private boolean sampleChunks() {
+        return chunkDebugSampleRate > 0 && log.isDebugEnabled()
+                && ThreadLocalRandom.current().nextDouble() < chunkDebugSampleRate;
+    }
+
+    // UTF-8 인코딩 길이 (문자열을 byte[] 로 만들지 않고 계산)
+    public static int utf8Length(String text) {
+        int bytes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isSurrogate(c)) {
+                // 서로게이트 쌍 하나가 4바이트
+                bytes += 2;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    private static final class StreamSummary {
+
+        private final String endpoint;
+        private final UUID userId;
+        private final boolean sampled;
+        private final long startNanos = System.nanoTime();
+
+        // 한 구독 안에서 순서대로 호출되므로 동기화가 필요 없다
+        private long firstChunkNanos;
+        private int chunks;
+        private long bytes;
+        private Integer inputTokens;
+        private Integer outputTokens;
+        private String error;
+
+        private StreamSummary(String endpoint, UUID userId, boolean sampled) {
+            this.endpoint = endpoint;
+            this.userId = userId;
+            this.sampled = sampled;
+        }
+
+        private void onChunk(StreamChunk chunk) {
+            if (firstChunkNanos == 0) {
+                firstChunkNanos = System.nanoTime();
+            }
+            if (chunk.isContent() && chunk.getText() != null) {
+                chunks++;
+                bytes += utf8Length(chunk.getText());
+            } else if (StreamChunk.TYPE_USAGE.equals(chunk.getType()) && chunk.getUsage() != null) {
+                inputTokens = usage(chunk.getUsage(), "input_tokens", "inputTokens");
+                outputTokens = usage(chunk.getUsage(), "output_tokens", "outputTokens");
+            }
+            if (sampled) {
+                log.debug("[STREAM CHUNK] endpoint={} userId={} type={} text={}",
+                        endpoint, userId, chunk.getType(), chunk.getText());
+            }
+        }
+
+        private void onError(Throwable e) {
+            error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        }
+
+        private void finish(SignalType signal) {
+            long now = System.nanoTime();
+            String outcome = signal == SignalType.ON_COMPLETE ? "complete"
+                    : signal == SignalType.ON_ERROR ? "error" : "cancel";
+            long ttftMs = firstChunkNanos == 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(firstChunkNanos - startNanos);
+            long durationMs = TimeUnit.NANOSECONDS.toMillis(now - startNanos);
+
+            log.atInfo()
+                    .addKeyValue("endpoint", endpoint)
+                    .addKeyValue("userId", userId)
+                    .addKeyValue("outcome", outcome)
+                    .addKeyValue("chunks", chunks)
+                    .addKeyValue("bytes", bytes)
+                    .addKeyValue("inputTokens", inputTokens)
+                    .addKeyValue("outputTokens", outputTokens)
+                    .addKeyValue("ttftMs", ttftMs)
+                    .addKeyValue("durationMs", durationMs)
+                    .addKeyValue("error", error)
+                    .log("[STREAM SUMMARY] endpoint={} userId={} outcome={} chunks={} bytes={} inputTokens={} "
+                            + "outputTokens={} ttftMs={} durationMs={}{}",
+                            endpoint, userId, outcome, chunks, bytes, inputTokens, outputTokens, ttftMs, durationMs,
+                            error != null ? " error=" + error : "");
+        }
+
+        private static Integer usage(Map<String, Integer> usage, String snakeKey, String camelKey) {
+            Integer value = usage.get(snakeKey);
+            return value != null ? value : usage.get(camelKey);
+        }
+    }
+}
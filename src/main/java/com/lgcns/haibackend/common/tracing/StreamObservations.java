@@ -0,0 +1,70 @@
+package com.lgcns.haibackend.common.tracing;
+
+import org.springframework.stereotype.Component;
+
+import com.lgcns.haibackend.bedrock.domain.dto.StreamChunk;
+
+import io.micrometer.common.KeyValues;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+
+/**
+ * 채팅 스트림 하나를 Observation(트레이싱 span + 타이머)으로 감싼다
+ *
+ * - 부모: 구독 시점의 Reactor Context 에 있는 Observation (없으면 현재 스레드의 Observation, 예: HTTP 서버 요청)
+ * - 감싼 스트림의 upstream(문맥 조회 Redis 호출, 게이트웨이 WebClient 호출)은 Reactor Context 로 이 Observation 을 부모로 받는다
+ * - 이벤트: 첫 content 청크에 first-token, 정상 종료에 completed, 클라이언트 연결 종료에 cancelled
+ */
+@Component
+@RequiredArgsConstructor
+public class StreamObservations {
+
+    public static final String FIRST_TOKEN = "first-token";
+    public static final String COMPLETED = "completed";
+    public static final String CANCELLED = "cancelled";
+
+    private static final Observation.Event FIRST_TOKEN_EVENT = Observation.Event.of(FIRST_TOKEN);
+    private static final Observation.Event COMPLETED_EVENT = Observation.Event.of(COMPLETED);
+    private static final Observation.Event CANCELLED_EVENT = Observation.Event.of(CANCELLED);
+
+    private final ObservationRegistry observationRegistry;
+
+    /**
+     * @param lowCardinality 지표 태그로도 쓰이는 값 (종류가 적은 값만)
+     * @param highCardinality span 에만 남는 값 (promptId 등)
+     */
+    public Flux<StreamChunk> observe(String name, String contextualName, KeyValues lowCardinality,
+            KeyValues highCardinality, Flux<StreamChunk> stream) {
+        if (observationRegistry.isNoop()) {
+            return stream;
+        }
+        return Flux.deferContextual(context -> {
+            Observation parent = context.getOrDefault(ObservationThreadLocalAccessor.KEY,
+                    observationRegistry.getCurrentObservation());
+            Observation observation = Observation.createNotStarted(name, observationRegistry)
+                    .contextualName(contextualName)
+                    .parentObservation(parent)
+                    .lowCardinalityKeyValues(lowCardinality)
+                    .highCardinalityKeyValues(highCardinality)
+                    .start();
+            // 청크마다 이벤트를 만들지 않도록 첫 content 청크 여부만 기억한다 (한 구독 안에서 순서대로 호출됨)
+            boolean[] firstToken = new boolean[1];
+
+            return stream
+                    .doOnNext(chunk -> {
+                        if (!firstToken[0] && chunk.isContent()) {
+                            firstToken[0] = true;
+                            observation.event(FIRST_TOKEN_EVENT);
+                        }
+                    })
+                    // doFinally 는 구독자가 완료를 받은 뒤에 불리므로, span 이 응답보다 늦게 닫히지 않게 신호별로 닫는다
+                    .doOnComplete(() -> observation.event(COMPLETED_EVENT).stop())
+                    .doOnError(error -> observation.error(error).stop())
+                    .doOnCancel(() -> observation.event(CANCELLED_EVENT).stop())
+                    .contextWrite(ctx -> ctx.put(ObservationThreadLocalAccessor.KEY, observation));
+        });
+    }
+}
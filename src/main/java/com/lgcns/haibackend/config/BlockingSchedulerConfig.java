@@ -0,0 +1,35 @@
+package com.lgcns.haibackend.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * 블로킹 작업(동기 RedisTemplate, JPA) 전용 Reactor 스케줄러
+ * 스트림 콜백은 Netty 이벤트 루프에서 실행되므로 블로킹 호출은 반드시
+ * subscribeOn/publishOn(blockingScheduler) 로 이 스케줄러에 넘긴다.
+ *
+ * - spring.threads.virtual.enabled=true + Java 21 : 작업마다 가상 스레드 (Tomcat 요청 처리도 가상 스레드)
+ * - 그 외 : Reactor 공용 boundedElastic
+ */
+@Configuration
+public class BlockingSchedulerConfig {
+
+    @Bean(destroyMethod = "dispose")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Scheduler blockingScheduler() {
+        return Schedulers.fromExecutor(new VirtualThreadTaskExecutor("chat-blocking-"));
+    }
+
+    // 공용 스케줄러이므로 컨텍스트 종료 시 dispose 하지 않는다
+    @Bean(name = "blockingScheduler", destroyMethod = "")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public Scheduler boundedElasticBlockingScheduler() {
+        return Schedulers.boundedElastic();
+    }
+}
@@ -1,9 +1,11 @@
 package com.lgcns.haibackend.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.ObservationRegistry;
 import io.netty.channel.ChannelOption;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import io.netty.handler.timeout.WriteTimeoutHandler;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -13,6 +15,8 @@ import org.springframework.http.codec.json.Jackson2JsonEncoder;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.Http2AllocationStrategy;
 import reactor.netty.http.client.HttpClient;
 import reactor.netty.resources.ConnectionProvider;
 
@@ -22,6 +26,7 @@ import java.util.concurrent.TimeUnit;
 /**
  * FastAPI 클라이언트 설정
  */
+@Slf4j
 @Configuration
 public class FastApiClientConfig {
 
@@ -42,18 +47,13 @@ public class FastApiClientConfig {
      * 권장 방식: 비동기 처리 및 스트리밍에 최적화
      */
     @Bean
-    public WebClient webClient(ObjectMapper objectMapper) {
-        // Connection Pool 설정
-        ConnectionProvider connectionProvider = ConnectionProvider.builder("fastapi-pool")
-                .maxConnections(100)
-                .maxIdleTime(Duration.ofSeconds(20))
-                .maxLifeTime(Duration.ofSeconds(60))
-                .pendingAcquireTimeout(Duration.ofSeconds(60))
-                .evictInBackground(Duration.ofSeconds(120))
-                .build();
+    public WebClient webClient(ObjectMapper objectMapper, FastApiPoolProperties poolProperties,
+            ObservationRegistry observationRegistry) {
+        log.info("[FASTAPI POOL] protocol={}, stream capacity={}", poolProperties.getProtocol(),
+                poolProperties.streamCapacity());
 
         // HttpClient 설정
-        HttpClient httpClient = HttpClient.create(connectionProvider)
+        HttpClient httpClient = gatewayHttpClient(poolProperties)
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeout)
                 .responseTimeout(Duration.ofMillis(readTimeout))
                 .doOnConnected(conn -> conn
@@ -78,9 +78,43 @@ public class FastApiClientConfig {
                 .baseUrl(baseUrl)
                 .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .exchangeStrategies(strategies)
+                // 요청마다 http client span 을 만들고 traceparent 헤더로 게이트웨이에 trace 를 이어 준다
+                .observationRegistry(observationRegistry)
                 .build();
     }
 
+    /**
+     * 게이트웨이용 HttpClient (커넥션 풀 + 프로토콜) - 부하 테스트(GatewayPoolBenchmark)도 같은 설정을 쓴다
+     */
+    public static HttpClient gatewayHttpClient(FastApiPoolProperties pool) {
+        ConnectionProvider.Builder builder = ConnectionProvider.builder("fastapi-pool")
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getEvictInBackground())
+                .metrics(pool.isMetricsEnabled());
+        if (pool.getPendingAcquireMaxCount() != 0) {
+            builder.pendingAcquireMaxCount(pool.getPendingAcquireMaxCount());
+        }
+        if (pool.getLeasing() == FastApiPoolProperties.Leasing.LIFO) {
+            builder.lifo();
+        } else {
+            builder.fifo();
+        }
+
+        if (pool.getProtocol() == FastApiPoolProperties.Protocol.H2C) {
+            // 커넥션 수가 아니라 커넥션당 스트림 수로 동시 요청을 배분한다 (max-connections 대신 h2.* 사용)
+            builder.allocationStrategy(Http2AllocationStrategy.builder()
+                    .minConnections(pool.getH2().getMinConnections())
+                    .maxConnections(pool.getH2().getMaxConnections())
+                    .maxConcurrentStreams(pool.getH2().getMaxConcurrentStreams())
+                    .build());
+            return HttpClient.create(builder.build()).protocol(HttpProtocol.H2C);
+        }
+        return HttpClient.create(builder.build()).protocol(HttpProtocol.HTTP11);
+    }
+
     /**
      * RestTemplate 빈 (동기 방식)
      * 간단한 요청에 적합
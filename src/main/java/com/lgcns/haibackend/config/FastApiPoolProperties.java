@@ -0,0 +1,73 @@
+package com.lgcns.haibackend.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * FastAPI 게이트웨이 WebClient 커넥션 풀 설정 (fastapi.pool.*)
+ *
+ * - protocol=http1: 스트림 하나가 커넥션 하나를 끝까지 점유한다 (동시 스트림 상한 = max-connections)
+ * - protocol=h2c: 평문 HTTP/2 (prior knowledge) 로 커넥션 몇 개에 스트림을 다중화한다
+ *   (동시 스트림 상한 = h2.max-connections x h2.max-concurrent-streams, 게이트웨이가 h2c 를 지원해야 함)
+ */
+@Data
+@ConfigurationProperties(prefix = "fastapi.pool")
+public class FastApiPoolProperties {
+
+    public enum Protocol {
+        HTTP1, H2C
+    }
+
+    public enum Leasing {
+        FIFO, LIFO
+    }
+
+    private Protocol protocol = Protocol.HTTP1;
+
+    private int maxConnections = 100;
+
+    // 커넥션을 기다리는 요청 수 상한 (0 이면 reactor-netty 기본값 max-connections x 2, -1 이면 무제한)
+    private int pendingAcquireMaxCount = 0;
+
+    // 풀이 가득 찼을 때 커넥션을 기다리는 최대 시간 - 길게 두면 SSE 요청이 쌓이므로 짧게 (GatewayGuard 가 먼저 거절한다)
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+
+    private Duration maxIdleTime = Duration.ofSeconds(20);
+
+    // 스트림 도중에는 끊지 않고 반납 시점에 확인한다 - 너무 짧으면 커넥션을 자주 새로 맺는다
+    private Duration maxLifeTime = Duration.ofMinutes(10);
+
+    private Duration evictInBackground = Duration.ofSeconds(120);
+
+    // LIFO 는 최근에 쓴(따뜻한) 커넥션을 먼저 재사용해 나머지가 idle 로 정리되게 한다
+    private Leasing leasing = Leasing.FIFO;
+
+    // reactor.netty.connection.provider.* 풀 지표를 Micrometer 로 내보낸다
+    private boolean metricsEnabled = true;
+
+    private H2 h2 = new H2();
+
+    @Data
+    public static class H2 {
+
+        private int minConnections = 1;
+
+        private int maxConnections = 4;
+
+        // 커넥션 하나에 동시에 여는 스트림 수 (서버가 SETTINGS 로 더 작게 알리면 그 값)
+        private long maxConcurrentStreams = 250;
+    }
+
+    /**
+     * 이 풀로 동시에 유지할 수 있는 최대 스트림 수
+     */
+    public int streamCapacity() {
+        if (protocol == Protocol.H2C) {
+            return (int) Math.min(Integer.MAX_VALUE, h2.getMaxConnections() * h2.getMaxConcurrentStreams());
+        }
+        return maxConnections;
+    }
+}
@@ -0,0 +1,101 @@
+package com.lgcns.haibackend.config;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.boot.actuate.autoconfigure.web.server.ManagementServerProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher.MatchResult;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+
+import com.lgcns.haibackend.filter.JwtAuthObservations;
+import com.lgcns.haibackend.filter.JwtWebFilter;
+import com.lgcns.haibackend.util.JwtProvider;
+
+/**
+ * reactive(Netty) 모드 보안 설정 - spring.main.web-application-type=reactive 일 때만 활성화
+ * 서블릿 모드의 SecurityConfig + JwtFilter + WebConfig(CORS) 와 같은 정책을 WebFilter 체인으로 구성한다.
+ */
+@Configuration
+@EnableWebFluxSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSecurityConfig {
+
+    /**
+     * actuator 전용(management.server.port) 포트 체인
+     * reactive 모드에서는 시큐리티 WebFilter 체인이 management 포트에도 걸리므로, 그 포트로 들어온 요청만 JWT 없이 통과시킨다.
+     * 경로가 아니라 포트로 가르므로 서비스 포트의 /actuator/** 는 여전히 JwtWebFilter 를 거친다.
+     * management 포트를 서비스 포트와 같게 두면 이 체인은 아무 요청에도 걸리지 않는다.
+     */
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public SecurityWebFilterChain managementSecurityWebFilterChain(ServerHttpSecurity http,
+            ManagementServerProperties management, ServerProperties server) {
+        Integer managementPort = management.getPort();
+        ServerWebExchangeMatcher managementPortOnly = exchange -> {
+            InetSocketAddress local = exchange.getRequest().getLocalAddress();
+            boolean matches = managementPort != null && managementPort > 0
+                    && !Objects.equals(managementPort, server.getPort())
+                    && local != null && local.getPort() == managementPort;
+            return matches ? MatchResult.match() : MatchResult.notMatch();
+        };
+        return http
+                .securityMatcher(managementPortOnly)
+                .csrf(csrf -> csrf.disable())
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(exchange -> exchange.anyExchange().permitAll())
+                .formLogin(form -> form.disable())
+                .httpBasic(basic -> basic.disable())
+                .build();
+    }
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, JwtProvider jwtProvider,
+            JwtAuthObservations jwtAuthObservations) {
+        return http
+                // CSRF 비활성화 (JWT 사용 시 불필요)
+                .csrf(csrf -> csrf.disable())
+
+                // 세션 사용 안 함 (Stateless) - 요청마다 JwtWebFilter 가 인증 정보를 만든다
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+
+                .cors(cors -> cors.configurationSource(corsConfigurationSource()))
+
+                // 모든 요청 허용 (JwtWebFilter에서 직접 검증)
+                .authorizeExchange(exchange -> exchange.anyExchange().permitAll())
+
+                // 기본 로그인 폼 / HTTP Basic 인증 비활성화
+                .formLogin(form -> form.disable())
+                .httpBasic(basic -> basic.disable())
+
+                .addFilterAt(new JwtWebFilter(jwtProvider, jwtAuthObservations), SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    private CorsConfigurationSource corsConfigurationSource() {
+        CorsConfiguration config = new CorsConfiguration();
+        config.setAllowedOrigins(List.of(WebConfig.ALLOWED_ORIGINS));
+        config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        config.addAllowedHeader(CorsConfiguration.ALL);
+        config.setAllowCredentials(true);
+        config.setMaxAge(3600L);
+
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", config);
+        return source;
+    }
+}
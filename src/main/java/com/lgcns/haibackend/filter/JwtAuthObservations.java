@@ -0,0 +1,52 @@
+package com.lgcns.haibackend.filter;
+
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * JWT 인증 Observation (jwt.auth) - 토큰 검증 지연과 결과(success | missing | expired | invalid)
+ * 타이머(jwt.auth{result})와 "jwt auth" span 을 함께 남긴다. 히스토그램 버킷은 management.metrics.distribution.slo.jwt.auth 에서 정한다.
+ * 서블릿 JwtFilter 와 리액티브 JwtWebFilter 가 같이 쓴다. 공개 경로와 preflight 는 기록하지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class JwtAuthObservations {
+
+    private static final String RESULT = "result";
+
+    private final ObservationRegistry observationRegistry;
+
+    /**
+     * 검증 시작 - parent 가 null 이면 현재 스레드의 Observation(서블릿 모드의 HTTP 서버 요청)을 부모로 쓴다
+     */
+    public Observation start(Observation parent) {
+        return Observation.createNotStarted("jwt.auth", observationRegistry)
+                .contextualName("jwt auth")
+                .parentObservation(parent != null ? parent : observationRegistry.getCurrentObservation())
+                .start();
+    }
+
+    public void success(Observation observation) {
+        stop(observation, "success");
+    }
+
+    public void missing(Observation observation) {
+        stop(observation, "missing");
+    }
+
+    public void failure(Observation observation, Exception error) {
+        // 만료는 정상적인 흐름이므로 span 오류로 남기지 않는다
+        if (!(error instanceof ExpiredJwtException)) {
+            observation.error(error);
+        }
+        stop(observation, error instanceof ExpiredJwtException ? "expired" : "invalid");
+    }
+
+    private static void stop(Observation observation, String result) {
+        observation.lowCardinalityKeyValue(RESULT, result).stop();
+    }
+}
@@ -1,19 +1,17 @@
 package com.lgcns.haibackend.filter;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.security.Key;
 import java.util.Collections;
 
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
-import jakarta.annotation.PostConstruct;
+import com.lgcns.haibackend.util.JwtPrincipal;
+import com.lgcns.haibackend.util.JwtProvider;
+
+import io.micrometer.observation.Observation;
 import jakarta.servlet.Filter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -21,19 +19,20 @@ import jakarta.servlet.ServletRequest;
 import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+// 서블릿(Tomcat) 모드 전용 - reactive 모드에서는 JwtWebFilter 가 대신한다
+@Slf4j
 @Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
 public class JwtFilter implements Filter {
-    @Value("${jwt.secret}")
-    private String secret;
 
-    private Key key;
+    // 파서/검증 캐시는 JwtProvider 와 공유
+    private final JwtProvider jwtProvider;
 
-    @PostConstruct
-    public void init() {
-        System.out.println("DEBUG FILTER: Secret Key used in Filter: " + secret);
-        this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-    }
+    private final JwtAuthObservations jwtAuthObservations;
 
     @Override
     public void doFilter(
@@ -42,14 +41,11 @@ public class JwtFilter implements Filter {
             FilterChain chain)
             throws IOException, ServletException {
 
-        System.out.println("[debug] >>> JwtFilter doFilter");
         HttpServletRequest req = (HttpServletRequest) request;
         HttpServletResponse res = (HttpServletResponse) response;
 
         String path = req.getRequestURI();
-        System.out.println("[debug] >>> client path " + path);
         String method = req.getMethod();
-        System.out.println("[debug] >>> client method : " + method);
 
         if ("OPTIONS".equalsIgnoreCase(req.getMethod())) {
             res.setStatus(HttpServletResponse.SC_OK);
@@ -63,36 +59,37 @@ public class JwtFilter implements Filter {
         
         // isPath 메서드가 true를 반환하면 토큰 검사 없이 통과시킵니다.
         if (isPath(path, method)) {
-            System.out.println(">>> 인증/인가 없이 필터 통과: " + path);
             chain.doFilter(request, response);
             return;
         }
 
+        Observation auth = jwtAuthObservations.start(null);
         String authHeader = req.getHeader("Authorization");
-        System.out.println(">>>>> Authorization : " + authHeader);
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            System.out.println(">>>>> if not Authorization : ");
+            jwtAuthObservations.missing(auth);
+            log.debug("[JWT] Missing bearer token: {} {}", method, path);
             res.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             return;
         }
 
         String token = authHeader.substring(7).trim();
-        System.out.println(">>>>>token : " + token);
 
+        JwtPrincipal principal;
         try {
-            System.out.println(">>>>>> token validation");
+            principal = jwtProvider.parse(token);
+            jwtAuthObservations.success(auth);
+        } catch (Exception e) {
+            jwtAuthObservations.failure(auth, e);
+            // 토큰 원문은 남기지 않는다
+            log.debug("[JWT] Token validation failed: {}", e.getMessage());
+            res.setStatus(HttpServletResponse.SC_UNAUTHORIZED); // 👈 검증 실패 시에도 401 상태를 명확히 반환
+            return;
+        }
 
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-            
+        try {
             // userId와 role 추출
-            String userId = claims.getSubject();
-            String role = claims.get("role", String.class);
-            
-            System.out.println(">>>>>> 추출된 userId: " + userId + ", role: " + role);
+            String userId = principal.getUserId();
+            String role = principal.getRole();
 
             // Authentication 객체 생성 및 SecurityContext에 저장
             UsernamePasswordAuthenticationToken authentication = 
@@ -104,15 +101,7 @@ public class JwtFilter implements Filter {
             
             SecurityContextHolder.getContext().setAuthentication(authentication);
 
-
-            System.out.println(">>>>>> 검증 성공 -> 컨트롤로 이동");
             chain.doFilter(request, response);
-
-        } catch (Exception e) {
-            System.out.println(">>>>>> 검증 실패 -> ");
-            e.printStackTrace();
-            res.setStatus(HttpServletResponse.SC_UNAUTHORIZED); // 👈 검증 실패 시에도 401 상태를 명확히 반환
-            return;
         } finally {
             SecurityContextHolder.clearContext();
         }
@@ -120,22 +109,8 @@ public class JwtFilter implements Filter {
     }
 
     // 특정 endpoint 에 대해서는 인가없이 컨트롤러 이동이 가능하도록
-    // SecurityConfig와 유사하게 공개할 경로를 설정합니다.
+    // 공개 경로 목록은 리액티브 JwtWebFilter 와 공유합니다 (PublicPaths).
     public boolean isPath(String path, String method) {
-        return path.startsWith("/swagger-ui") ||
-                path.startsWith("/v3/api-docs") ||
-                path.startsWith("/api/user") ||
-                path.startsWith("/api/wars") ||
-                path.startsWith("/api/trades") || 
-                path.startsWith("/api/kings") || 
-                path.startsWith("/api/countries") || 
-                path.startsWith("/api/capitals") || 
-                path.startsWith("/api/battles") || 
-                path.startsWith("/api/timeline/events") || 
-                path.startsWith("/api/main-event") || 
-                path.startsWith("/api/main-event/detail") || 
-                path.startsWith("/api/user/signup") ||
-                path.startsWith("/api/user/login");
-
+        return PublicPaths.matches(path);
     }
 }
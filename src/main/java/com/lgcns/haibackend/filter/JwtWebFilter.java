@@ -0,0 +1,87 @@
+package com.lgcns.haibackend.filter;
+
+import java.util.Collections;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import com.lgcns.haibackend.util.JwtPrincipal;
+import com.lgcns.haibackend.util.JwtProvider;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * reactive(Netty) 모드 JWT 인증 필터
+ * JwtFilter 와 같은 규칙으로 검증하고, 인증 정보는 ThreadLocal 대신
+ * Reactor Context(ReactiveSecurityContextHolder)에 실어 보낸다.
+ *
+ * 자동 등록되지 않도록 @Component 없이 ReactiveSecurityConfig 에서 시큐리티 체인에만 추가한다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class JwtWebFilter implements WebFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtProvider jwtProvider;
+
+    private final JwtAuthObservations jwtAuthObservations;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+
+        // preflight 와 공개 경로는 토큰 검사 없이 통과 (CORS 는 시큐리티 체인의 CorsWebFilter 가 처리)
+        if (HttpMethod.OPTIONS.equals(request.getMethod()) || PublicPaths.matches(request.getPath().value())) {
+            return chain.filter(exchange);
+        }
+
+        // HTTP 서버 요청 Observation 은 ThreadLocal 이 아니라 Reactor Context 에 있으므로 구독 시점에 꺼내 부모로 쓴다
+        return Mono.deferContextual(context -> authenticate(exchange, chain,
+                context.getOrDefault(ObservationThreadLocalAccessor.KEY, null)));
+    }
+
+    private Mono<Void> authenticate(ServerWebExchange exchange, WebFilterChain chain, Observation parent) {
+        Observation auth = jwtAuthObservations.start(parent);
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
+            jwtAuthObservations.missing(auth);
+            return unauthorized(exchange);
+        }
+
+        JwtPrincipal principal;
+        try {
+            principal = jwtProvider.parse(authHeader.substring(BEARER_PREFIX.length()).trim());
+            jwtAuthObservations.success(auth);
+        } catch (Exception e) {
+            jwtAuthObservations.failure(auth, e);
+            log.debug("[JWT] Token validation failed: {}", e.getMessage());
+            return unauthorized(exchange);
+        }
+
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                principal.getUserId(),  // principal에 userId 저장
+                null,
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + principal.getRole())));
+
+        return chain.filter(exchange)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+    }
+
+    private Mono<Void> unauthorized(ServerWebExchange exchange) {
+        exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+        return exchange.getResponse().setComplete();
+    }
+}
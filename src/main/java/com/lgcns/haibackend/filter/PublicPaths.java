@@ -0,0 +1,35 @@
+package com.lgcns.haibackend.filter;
+
+import java.util.List;
+
+/**
+ * 토큰 검사 없이 통과시키는 공개 경로 목록
+ * 서블릿 JwtFilter 와 리액티브 JwtWebFilter 가 같은 목록을 사용한다.
+ */
+public final class PublicPaths {
+
+    private static final List<String> PREFIXES = List.of(
+            "/swagger-ui",
+            "/v3/api-docs",
+            "/api/user",
+            "/api/wars",
+            "/api/trades",
+            "/api/kings",
+            "/api/countries",
+            "/api/capitals",
+            "/api/battles",
+            "/api/timeline/events",
+            "/api/main-event");
+
+    private PublicPaths() {
+    }
+
+    public static boolean matches(String path) {
+        for (String prefix : PREFIXES) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
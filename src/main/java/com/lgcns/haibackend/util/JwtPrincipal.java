@@ -0,0 +1,18 @@
+package com.lgcns.haibackend.util;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 검증이 끝난 JWT 에서 꺼낸 인증 정보
+ */
+@Getter
+@AllArgsConstructor
+public class JwtPrincipal {
+
+    private final String userId;
+    private final String role;
+    private final Instant expiresAt;
+}
@@ -2,53 +2,131 @@ package com.lgcns.haibackend.util;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Component
 public class JwtProvider {
 
     @Value("${jwt.secret}")
     private String secret;
 
-    private Key getStringKey() {
+    // 검증 결과 캐시 최대 크기 (토큰 수)
+    @Value("${jwt.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    // 키/파서는 한 번만 만들어 공유 (JwtParser 는 불변이라 thread-safe)
+    private JwtParser parser;
+
+    // 토큰 해시 -> 검증된 principal, 각 항목은 토큰의 exp 시각에 만료된다
+    private Cache<String, JwtPrincipal> verifiedTokens;
+
+    @PostConstruct
+    public void init() {
+        Key key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new Expiry<String, JwtPrincipal>() {
+                    @Override
+                    public long expireAfterCreate(String tokenHash, JwtPrincipal principal, long currentTime) {
+                        long millis = principal.getExpiresAt().toEpochMilli() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(millis, 0));
+                    }
 
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+                    @Override
+                    public long expireAfterUpdate(String tokenHash, JwtPrincipal principal, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String tokenHash, JwtPrincipal principal, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * 토큰을 검증하고 userId, role, exp 를 한 번에 꺼낸다.
+     * 같은 토큰은 exp 전까지 서명 검증 없이 캐시에서 반환한다.
+     * 검증 실패 시 JwtException 을 던진다.
+     */
+    public JwtPrincipal parse(String token) {
+        String tokenHash = hash(token);
+        JwtPrincipal cached = verifiedTokens.getIfPresent(tokenHash);
+        if (cached != null) {
+            if (cached.getExpiresAt().isAfter(Instant.now())) {
+                return cached;
+            }
+            verifiedTokens.invalidate(tokenHash);
+        }
+
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        if (claims.getExpiration() == null) {
+            // exp 가 없는 토큰은 캐시하지 않는다
+            return new JwtPrincipal(claims.getSubject(), claims.get("role", String.class), Instant.MAX);
+        }
+
+        JwtPrincipal principal = new JwtPrincipal(
+                claims.getSubject(),
+                claims.get("role", String.class),
+                claims.getExpiration().toInstant());
+        verifiedTokens.put(tokenHash, principal);
+        return principal;
     }
 
     public String getUserIdFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getStringKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.getSubject();
+        return parse(token).getUserId();
     }
 
     // [추가] role을 추출하는 메서드입니다.
     public String getRoleFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getStringKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.get("role", String.class);
+        return parse(token).getRole();
     }
 
     // 토큰 유효성 검사 메서드 (RefreshToken 재발급 로직에 필요)
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(getStringKey()).build().parseClaimsJws(token);
+            parse(token);
             return true;
         } catch (Exception e) {
             // 토큰 만료, 위변조 등 예외 처리 (여기서는 단순히 false 반환)
-            System.err.println("JWT Token Validation Error: " + e.getMessage());
+            log.debug("[JWT] Token validation failed: {}", e.getMessage());
             return false;
         }
     }
+
+    // 캐시 key 로 원본 토큰 대신 SHA-256 해시를 사용
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hashed = digest.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(hashed);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 }
@@ -412,4 +412,4 @@ VALUES
     '나는 시인 윤동주(尹東柱)입니다. 부끄러움 없는 삶과 시대를 노래했습니다. 하늘과 바람과 별에 대한 이야기를 나눠 봅시다.',
     1917
 )
-ON CONFLICT (prompt_id) DO NOTHING;
\ No newline at end of file
+ON CONFLICT DO NOTHING;
\ No newline at end of file
@@ -1,8 +1,11 @@
 package com.lgcns.haibackend;
 
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
+// 실제 DB/Redis/AWS 설정이 필요한 컨텍스트 로드 테스트 (./gradlew test -Pintegration)
+@Tag("integration")
 @SpringBootTest
 class HaibackendApplicationTests {
 
@@ -0,0 +1,69 @@
+package com.lgcns.haibackend.bedrock.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class KnowledgeAnswerCacheTest {
+
+    private KnowledgeAnswerCache cache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        cache = new KnowledgeAnswerCache(mock(RedisTemplate.class), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofHours(6));
+        ReflectionTestUtils.setField(cache, "maxEntries", 10);
+        ReflectionTestUtils.setField(cache, "similarityThreshold", 0.9);
+        cache.initMetrics();
+    }
+
+    @Test
+    void similarityIndexEvictsOldestFirstLikeTheRedisIndex() {
+        for (int i = 0; i < 100; i++) {
+            cache.put(question(i), "답변 " + i, Duration.ofMillis(100));
+        }
+        // 다시 저장된 질문은 가장 최근 것이 된다 (ZADD 점수 갱신과 같은 순서)
+        cache.put(question(92), "답변 92", Duration.ofMillis(100));
+        cache.put(question(100), "답변 100", Duration.ofMillis(100));
+
+        List<String> expected = new ArrayList<>();
+        for (int i : new int[] { 91, 93, 94, 95, 96, 97, 98, 99, 92, 100 }) {
+            expected.add(key(question(i)));
+        }
+        assertThat(embeddingKeys()).containsExactlyElementsOf(expected);
+        assertThat(embeddings().keySet()).containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    private static String question(int i) {
+        return "조선 " + i + "대 왕은 누구인가요";
+    }
+
+    private static String key(String query) {
+        return "kbcache:answer:" + ReflectionTestUtils.invokeMethod(KnowledgeAnswerCache.class, "hash",
+                QueryNormalizer.normalize(query));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Collection<String> embeddingKeys() {
+        return (Collection<String>) ReflectionTestUtils.getField(cache, "embeddingOrder");
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, float[]> embeddings() {
+        return (Map<String, float[]>) ReflectionTestUtils.getField(cache, "embeddings");
+    }
+}
@@ -0,0 +1,25 @@
+package com.lgcns.haibackend.bedrock.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class QueryNormalizerTest {
+
+    @Test
+    void ignoresSpacingPunctuationAndCase() {
+        assertThat(QueryNormalizer.normalize("  훈민정음은   누가 만들었나요?? "))
+                .isEqualTo(QueryNormalizer.normalize("훈민정음은 누가, 만들었나요"))
+                .isEqualTo("훈민정음은 누가 만들었나요");
+        assertThat(QueryNormalizer.normalize("Who is KING Sejong?")).isEqualTo("who is king sejong");
+    }
+
+    @Test
+    void keepsNumberBoundariesAndSigns() {
+        assertThat(QueryNormalizer.normalize("1 2")).isNotEqualTo(QueryNormalizer.normalize("12"));
+        assertThat(QueryNormalizer.normalize("기원전 -2333")).isEqualTo("기원전 -2333");
+        assertThat(QueryNormalizer.normalize("기원전 -2333")).isNotEqualTo(QueryNormalizer.normalize("기원전 2333"));
+        assertThat(QueryNormalizer.normalize("1+2는?")).isEqualTo("1+2는");
+        assertThat(QueryNormalizer.normalize("고려-조선")).isEqualTo("고려 조선");
+    }
+}
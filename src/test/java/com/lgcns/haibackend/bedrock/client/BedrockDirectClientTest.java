@@ -0,0 +1,152 @@
+package com.lgcns.haibackend.bedrock.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.lgcns.haibackend.aiPerson.domain.dto.PromptRequest;
+import com.lgcns.haibackend.aiPerson.service.AIPersonCatalog;
+import com.lgcns.haibackend.bedrock.domain.dto.KnowledgeBaseRequest;
+import com.lgcns.haibackend.bedrock.domain.dto.MessageDTO;
+import com.lgcns.haibackend.bedrock.domain.dto.StreamChunk;
+import com.lgcns.haibackend.config.FastApiPoolProperties;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import software.amazon.eventstream.HeaderValue;
+import software.amazon.eventstream.Message;
+
+class BedrockDirectClientTest {
+
+    private HttpServer server;
+    private BedrockDirectClient client;
+
+    // 스텁이 받은 마지막 요청 (경로, 본문)
+    private final AtomicReference<String> requestPath = new AtomicReference<>();
+    private final AtomicReference<String> requestBody = new AtomicReference<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/model/", exchange -> respond(exchange, List.of(
+                event("messageStart", "{\"role\":\"assistant\"}"),
+                event("contentBlockDelta", "{\"contentBlockIndex\":0,\"delta\":{\"text\":\"훈민정음은 \"}}"),
+                event("contentBlockDelta", "{\"contentBlockIndex\":0,\"delta\":{\"text\":\"1443년에 창제되었습니다.\"}}"),
+                event("contentBlockStop", "{\"contentBlockIndex\":0}"),
+                event("messageStop", "{\"stopReason\":\"end_turn\"}"),
+                event("metadata", "{\"usage\":{\"inputTokens\":20,\"outputTokens\":9,\"totalTokens\":29},"
+                        + "\"metrics\":{\"latencyMs\":120}}"))));
+        server.createContext("/retrieveAndGenerateStream", exchange -> respond(exchange, List.of(
+                event("output", "{\"text\":\"세종대왕은 \"}"),
+                event("citation", "{\"citation\":{\"retrievedReferences\":[]}}"),
+                event("output", "{\"text\":\"집현전을 설치했습니다.\"}"))));
+        server.start();
+
+        GatewayGuard guard = new GatewayGuard(new SimpleMeterRegistry(), new FastApiPoolProperties());
+        ReflectionTestUtils.setField(guard, "enabled", false);
+
+        GatewayHedger hedger = new GatewayHedger(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(hedger, "hedgeEnabled", false);
+        ReflectionTestUtils.setField(hedger, "retryBackoff", Duration.ofMillis(10));
+        hedger.init();
+
+        GatewayStreamMetrics metrics = new GatewayStreamMetrics(new SimpleMeterRegistry(), mock(AIPersonCatalog.class));
+        ReflectionTestUtils.setField(metrics, "maxPromptClasses", 20);
+
+        client = new BedrockDirectClient(guard, hedger, metrics);
+        ReflectionTestUtils.setField(client, "region", "ap-northeast-2");
+        ReflectionTestUtils.setField(client, "accessKeyId", "test");
+        ReflectionTestUtils.setField(client, "secretAccessKey", "test");
+        ReflectionTestUtils.setField(client, "endpointOverride", "http://127.0.0.1:" + server.getAddress().getPort());
+        ReflectionTestUtils.setField(client, "promptArnPrefix", "arn:aws:bedrock:ap-northeast-2:123456789012:prompt/");
+        ReflectionTestUtils.setField(client, "promptQueryVariable", "user_query");
+        ReflectionTestUtils.setField(client, "promptHistoryVariable", "history");
+        ReflectionTestUtils.setField(client, "maxConcurrency", 4);
+        ReflectionTestUtils.setField(client, "connectTimeout", 1000);
+        ReflectionTestUtils.setField(client, "readTimeout", 5000);
+        client.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.stop(0);
+    }
+
+    @Test
+    void converseStreamIsMappedToGatewayChunks() {
+        PromptRequest request = PromptRequest.builder()
+                .promptId("ABC123")
+                .userQuery("훈민정음은 언제 만들어졌나요?")
+                .history(List.of(MessageDTO.user("세종대왕은 누구인가요?"), MessageDTO.assistant("조선의 네 번째 왕입니다.")))
+                .build();
+
+        List<StreamChunk> chunks = client.chatPromptStream(request).collectList().block();
+
+        // FastAPI 게이트웨이와 같은 순서: content ... usage, done
+        assertThat(chunks).extracting(StreamChunk::getType).containsExactly(
+                StreamChunk.TYPE_CONTENT, StreamChunk.TYPE_CONTENT, StreamChunk.TYPE_USAGE, StreamChunk.TYPE_DONE);
+        assertThat(chunks.get(0).getText() + chunks.get(1).getText()).isEqualTo("훈민정음은 1443년에 창제되었습니다.");
+        assertThat(chunks.get(2).getUsage()).containsEntry("input_tokens", 20).containsEntry("output_tokens", 9);
+
+        // promptId 에는 ARN 접두사가 붙고, 질문/문맥은 프롬프트 변수로 간다
+        assertThat(URLDecoder.decode(requestPath.get(), StandardCharsets.UTF_8))
+                .isEqualTo("/model/arn:aws:bedrock:ap-northeast-2:123456789012:prompt/ABC123/converse-stream");
+        assertThat(requestBody.get())
+                .contains("\"user_query\":{\"text\":\"훈민정음은 언제 만들어졌나요?\"}")
+                .contains("user: 세종대왕은 누구인가요?");
+    }
+
+    @Test
+    void retrieveAndGenerateStreamIsMappedToGatewayChunks() {
+        KnowledgeBaseRequest request = KnowledgeBaseRequest.builder()
+                .query("세종대왕의 업적은?")
+                .kbId("KB123")
+                .modelArn("arn:aws:bedrock:ap-northeast-2::foundation-model/anthropic.claude-3-haiku-20240307-v1:0")
+                .build();
+
+        List<StreamChunk> chunks = client.retrieveFromKnowledgeBaseStream(request).collectList().block();
+
+        assertThat(chunks).extracting(StreamChunk::getType).containsExactly(
+                StreamChunk.TYPE_CONTENT, StreamChunk.TYPE_CONTENT, StreamChunk.TYPE_DONE);
+        assertThat(chunks.get(0).getText() + chunks.get(1).getText()).isEqualTo("세종대왕은 집현전을 설치했습니다.");
+        assertThat(requestBody.get()).contains("\"knowledgeBaseId\":\"KB123\"").contains("\"numberOfResults\":5");
+    }
+
+    private void respond(HttpExchange exchange, List<byte[]> events) throws IOException {
+        requestPath.set(exchange.getRequestURI().getRawPath());
+        requestBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        exchange.getResponseHeaders().set("Content-Type", "application/vnd.amazon.eventstream");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            for (byte[] event : events) {
+                out.write(event);
+                out.flush();
+            }
+        }
+    }
+
+    private static byte[] event(String eventType, String json) {
+        Map<String, HeaderValue> headers = new LinkedHashMap<>();
+        headers.put(":message-type", HeaderValue.fromString("event"));
+        headers.put(":event-type", HeaderValue.fromString(eventType));
+        headers.put(":content-type", HeaderValue.fromString("application/json"));
+        return new Message(headers, json.getBytes(StandardCharsets.UTF_8)).toByteBuffer().array();
+    }
+}
@@ -0,0 +1,125 @@
+package com.lgcns.haibackend.bedrock.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.lgcns.haibackend.bedrock.domain.dto.StreamChunk;
+import com.lgcns.haibackend.config.FastApiPoolProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+class GatewayGuardTest {
+
+    private SimpleMeterRegistry registry;
+    private GatewayGuard guard;
+    private AtomicInteger upstreamSubscriptions;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        guard = new GatewayGuard(registry, new FastApiPoolProperties());
+        ReflectionTestUtils.setField(guard, "enabled", true);
+        ReflectionTestUtils.setField(guard, "firstChunkTimeout", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(guard, "initialLimit", 2);
+        ReflectionTestUtils.setField(guard, "minLimit", 1);
+        ReflectionTestUtils.setField(guard, "maxLimit", 10);
+        ReflectionTestUtils.setField(guard, "latencyThreshold", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(guard, "backoffRatio", 0.5);
+        ReflectionTestUtils.setField(guard, "overloadedRetryAfter", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(guard, "failureRateThreshold", 50f);
+        ReflectionTestUtils.setField(guard, "slidingWindowSize", 4);
+        ReflectionTestUtils.setField(guard, "minimumNumberOfCalls", 4);
+        ReflectionTestUtils.setField(guard, "waitDurationInOpenState", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(guard, "permittedCallsInHalfOpenState", 1);
+        guard.init();
+        upstreamSubscriptions = new AtomicInteger();
+    }
+
+    @Test
+    void shedsImmediatelyWhenLimitIsReachedAndRecoversOnRelease() {
+        Sinks.Many<StreamChunk> first = Sinks.many().unicast().onBackpressureBuffer();
+        Sinks.Many<StreamChunk> second = Sinks.many().unicast().onBackpressureBuffer();
+        Disposable a = guard.guard(() -> counted(first.asFlux())).subscribe();
+        Disposable b = guard.guard(() -> counted(second.asFlux())).subscribe();
+
+        // 한도(2)만큼 진행 중 - 세 번째는 upstream 을 부르지 않고 바로 거절
+        assertThatThrownBy(() -> guard.guard(() -> counted(Flux.just(StreamChunk.content("c")))).blockLast())
+                .isInstanceOfSatisfying(GatewayUnavailableException.class,
+                        e -> assertThat(e.getReason()).isEqualTo("overloaded"));
+        assertThat(upstreamSubscriptions).hasValue(2);
+
+        first.tryEmitNext(StreamChunk.content("a"));
+        first.tryEmitComplete();
+        b.dispose();
+        assertThat(guard.guard(() -> counted(Flux.just(StreamChunk.content("d")))).blockLast().getText())
+                .isEqualTo("d");
+        a.dispose();
+    }
+
+    @Test
+    void opensCircuitAfterGatewayFailures() {
+        for (int i = 0; i < 4; i++) {
+            guard.guard(() -> counted(Flux.<StreamChunk>error(new IllegalStateException("connection reset"))))
+                    .onErrorComplete()
+                    .blockLast();
+        }
+
+        assertThatThrownBy(() -> guard.guard(() -> counted(Flux.just(StreamChunk.content("x")))).blockLast())
+                .isInstanceOfSatisfying(GatewayUnavailableException.class,
+                        e -> assertThat(e.getReason()).isEqualTo("circuit-open"));
+        assertThat(upstreamSubscriptions).hasValue(4);
+    }
+
+    @Test
+    void countsGatewayErrorFramesAsFailures() {
+        // 200 스트림 안의 빠른 error 프레임 - 성공/빠른 첫 청크로 세면 서킷이 열리지 않고 한도만 늘어난다
+        for (int i = 0; i < 4; i++) {
+            guard.guard(() -> counted(Flux.just(StreamChunk.error("ThrottlingException"), StreamChunk.done())))
+                    .blockLast();
+        }
+
+        assertThat(registry.get("fastapi.concurrency.limit").gauge().value()).isEqualTo(1);
+        assertThatThrownBy(() -> guard.guard(() -> counted(Flux.just(StreamChunk.content("x")))).blockLast())
+                .isInstanceOfSatisfying(GatewayUnavailableException.class,
+                        e -> assertThat(e.getReason()).isEqualTo("circuit-open"));
+        assertThat(upstreamSubscriptions).hasValue(4);
+    }
+
+    @Test
+    void aimdShrinksOnSlowFirstChunkAndGrowsWhenBusyAndFast() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 2, 10,
+                TimeUnit.SECONDS.toNanos(1), 0.5);
+
+        limiter.onSample(TimeUnit.SECONDS.toNanos(2), false);
+        assertThat(limiter.getLimit()).isEqualTo(4);
+        limiter.onSample(TimeUnit.MILLISECONDS.toNanos(100), true);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+        limiter.onSample(TimeUnit.MILLISECONDS.toNanos(100), true);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+
+        // 한도를 다 쓰는 동안 빠른 응답이 이어지면 한도만큼 성공할 때마다 약 +1 (2 -> 4 까지 6회)
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        for (int i = 0; i < 6; i++) {
+            limiter.onSample(TimeUnit.MILLISECONDS.toNanos(100), false);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(4);
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    private Flux<StreamChunk> counted(Flux<StreamChunk> upstream) {
+        return upstream.doOnSubscribe(s -> upstreamSubscriptions.incrementAndGet());
+    }
+}
@@ -0,0 +1,152 @@
+package com.lgcns.haibackend.bedrock.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.net.ConnectException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+
+import com.lgcns.haibackend.bedrock.domain.dto.StreamChunk;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+
+class GatewayHedgerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private GatewayHedger hedger;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        hedger = new GatewayHedger(meterRegistry);
+        ReflectionTestUtils.setField(hedger, "hedgeEnabled", true);
+        ReflectionTestUtils.setField(hedger, "percentile", 0.95);
+        ReflectionTestUtils.setField(hedger, "initialDelay", Duration.ofMillis(100));
+        ReflectionTestUtils.setField(hedger, "minDelay", Duration.ofMillis(10));
+        ReflectionTestUtils.setField(hedger, "maxDelay", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(hedger, "windowSize", 50);
+        ReflectionTestUtils.setField(hedger, "minSamples", 5);
+        ReflectionTestUtils.setField(hedger, "budgetRatio", 1.0);
+        ReflectionTestUtils.setField(hedger, "maxRetries", 1);
+        ReflectionTestUtils.setField(hedger, "retryBackoff", Duration.ofMillis(10));
+        hedger.init();
+    }
+
+    @Test
+    void slowFirstChunkIsHedgedAndLoserIsCancelled() {
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicBoolean primaryCancelled = new AtomicBoolean();
+
+        List<StreamChunk> chunks = hedger.execute(GatewayHedger.PROMPT, () -> attempts.incrementAndGet() == 1
+                        ? Flux.just(StreamChunk.content("primary"), StreamChunk.done())
+                                .delaySubscription(Duration.ofSeconds(5))
+                                .doOnCancel(() -> primaryCancelled.set(true))
+                        : Flux.just(StreamChunk.content("hedge"), StreamChunk.done()))
+                .collectList()
+                .block(Duration.ofSeconds(2));
+
+        assertThat(chunks).extracting(StreamChunk::getType)
+                .containsExactly(StreamChunk.TYPE_CONTENT, StreamChunk.TYPE_DONE);
+        assertThat(chunks.get(0).getText()).isEqualTo("hedge");
+        assertThat(primaryCancelled).isTrue();
+        assertThat(count("fastapi.hedge.fired")).isEqualTo(1);
+        assertThat(count("fastapi.hedge.wins")).isEqualTo(1);
+    }
+
+    @Test
+    void errorFrameDoesNotWinTheRace() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        // 헤지가 빠르게 error 프레임만 내도 느리지만 정상인 주 요청이 이긴다
+        List<StreamChunk> chunks = hedger.execute(GatewayHedger.PROMPT, () -> attempts.incrementAndGet() == 1
+                        ? Flux.just(StreamChunk.content("primary"), StreamChunk.done())
+                                .delaySubscription(Duration.ofMillis(300))
+                        : Flux.just(StreamChunk.error("ThrottlingException"), StreamChunk.done()))
+                .collectList()
+                .block(Duration.ofSeconds(2));
+        assertThat(chunks).extracting(StreamChunk::getText).containsExactly("primary", null);
+        assertThat(count("fastapi.hedge.wins")).isZero();
+
+        // 둘 다 content 없이 끝나면 주 요청의 프레임을 그대로 돌려준다
+        AtomicInteger errorAttempts = new AtomicInteger();
+        chunks = hedger.execute(GatewayHedger.PROMPT, () -> errorAttempts.incrementAndGet() == 1
+                        ? Flux.just(StreamChunk.error("primary"), StreamChunk.done())
+                                .delaySubscription(Duration.ofMillis(300))
+                        : Flux.just(StreamChunk.error("hedge"), StreamChunk.done()))
+                .collectList()
+                .block(Duration.ofSeconds(2));
+        assertThat(chunks).extracting(StreamChunk::getType).containsExactly(StreamChunk.TYPE_ERROR, StreamChunk.TYPE_DONE);
+        assertThat(chunks.get(0).getMessage()).isEqualTo("primary");
+    }
+
+    @Test
+    void bothAttemptsEmptyCompleteEmpty() {
+        List<StreamChunk> chunks = hedger.execute(GatewayHedger.PROMPT,
+                        () -> Flux.<StreamChunk>empty().delaySubscription(Duration.ofMillis(300)))
+                .collectList()
+                .block(Duration.ofSeconds(2));
+
+        assertThat(chunks).isEmpty();
+        assertThat(count("fastapi.hedge.fired")).isEqualTo(1);
+    }
+
+    @Test
+    void fastFirstChunkOrEarlyFailureDoesNotHedge() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        hedger.execute(GatewayHedger.PROMPT, () -> {
+            attempts.incrementAndGet();
+            return Flux.just(StreamChunk.content("a"), StreamChunk.done());
+        }).blockLast();
+        // 연결 실패가 아닌 오류는 재시도/헤지 없이 바로 전달된다
+        assertThatThrownBy(() -> hedger.execute(GatewayHedger.PROMPT, () -> {
+            attempts.incrementAndGet();
+            return Flux.<StreamChunk>error(new GatewayUnavailableException("overloaded", Duration.ofSeconds(1)));
+        }).blockLast(Duration.ofSeconds(2))).isInstanceOf(GatewayUnavailableException.class);
+
+        assertThat(attempts).hasValue(2);
+        assertThat(count("fastapi.hedge.fired")).isZero();
+    }
+
+    @Test
+    void retriesConnectionFailureOnlyBeforeFirstChunk() {
+        AtomicInteger attempts = new AtomicInteger();
+        List<StreamChunk> chunks = hedger.execute(GatewayHedger.KNOWLEDGE, () -> attempts.incrementAndGet() == 1
+                        ? Flux.error(connectionRefused())
+                        : Flux.just(StreamChunk.content("ok"), StreamChunk.done()))
+                .collectList()
+                .block(Duration.ofSeconds(2));
+        assertThat(chunks).hasSize(2);
+        assertThat(attempts).hasValue(2);
+
+        // 청크를 이미 내보낸 뒤의 연결 끊김은 재시도하면 답변이 중복되므로 그대로 실패
+        AtomicInteger midStreamAttempts = new AtomicInteger();
+        assertThatThrownBy(() -> hedger.execute(GatewayHedger.KNOWLEDGE, () -> {
+            midStreamAttempts.incrementAndGet();
+            return Flux.just(StreamChunk.content("partial")).concatWith(Flux.error(connectionRefused()));
+        }).blockLast(Duration.ofSeconds(2))).isInstanceOf(WebClientRequestException.class);
+        assertThat(midStreamAttempts).hasValue(1);
+        assertThat(count("fastapi.retries")).isEqualTo(1);
+    }
+
+    private double count(String metric) {
+        return meterRegistry.find(metric).counters().stream().mapToDouble(c -> c.count()).sum();
+    }
+
+    private static WebClientRequestException connectionRefused() {
+        return new WebClientRequestException(new ConnectException("Connection refused"),
+                HttpMethod.POST, URI.create("http://localhost:8000/chat/knowledge"), new HttpHeaders());
+    }
+}
@@ -0,0 +1,65 @@
+package com.lgcns.haibackend.bedrock.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.lgcns.haibackend.bedrock.domain.dto.StreamChunk;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class GatewayRequestCoalescerTest {
+
+    private GatewayRequestCoalescer coalescer;
+    private AtomicInteger upstreamSubscriptions;
+
+    @BeforeEach
+    void setUp() {
+        coalescer = new GatewayRequestCoalescer(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(coalescer, "enabled", true);
+        coalescer.initMetrics();
+        upstreamSubscriptions = new AtomicInteger();
+    }
+
+    @Test
+    void lateSubscriberReceivesWholeStreamFromSingleUpstream() {
+        Flux<StreamChunk> first = coalescer.coalesce("k", this::upstream);
+        Flux<StreamChunk> second = coalescer.coalesce("k", this::upstream);
+
+        Mono<List<String>> firstTexts = texts(first).cache();
+        firstTexts.subscribe();
+        // 첫 토큰이 지나간 뒤에 붙는다
+        List<String> secondTexts = Mono.delay(Duration.ofMillis(30)).then(texts(second)).block();
+
+        assertThat(firstTexts.block()).containsExactly("a", "b", "c");
+        assertThat(secondTexts).containsExactly("a", "b", "c");
+        assertThat(upstreamSubscriptions).hasValue(1);
+    }
+
+    @Test
+    void newRequestAfterCompletionStartsFreshUpstream() {
+        texts(coalescer.coalesce("k", this::upstream)).block();
+        texts(coalescer.coalesce("k", this::upstream)).block();
+
+        assertThat(upstreamSubscriptions).hasValue(2);
+    }
+
+    private Flux<StreamChunk> upstream() {
+        return Flux.just("a", "b", "c")
+                .delayElements(Duration.ofMillis(20))
+                .map(StreamChunk::content)
+                .doOnSubscribe(s -> upstreamSubscriptions.incrementAndGet());
+    }
+
+    private static Mono<List<String>> texts(Flux<StreamChunk> chunks) {
+        return chunks.map(StreamChunk::getText).collectList();
+    }
+}
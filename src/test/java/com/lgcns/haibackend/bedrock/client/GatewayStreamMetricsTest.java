@@ -0,0 +1,90 @@
+package com.lgcns.haibackend.bedrock.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.lgcns.haibackend.aiPerson.service.AIPersonCatalog;
+import com.lgcns.haibackend.bedrock.domain.dto.StreamChunk;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+
+class GatewayStreamMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private GatewayStreamMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        AIPersonCatalog catalog = mock(AIPersonCatalog.class);
+        when(catalog.eraOf("6C4ARC62GG")).thenReturn("고조선");
+
+        registry = new SimpleMeterRegistry();
+        metrics = new GatewayStreamMetrics(registry, catalog);
+        ReflectionTestUtils.setField(metrics, "maxPromptClasses", 2);
+    }
+
+    @Test
+    void recordsTtftGapsBytesAndUsageTokensPerPromptClass() {
+        String promptClass = metrics.promptClass("6C4ARC62GG");
+        Flux<StreamChunk> upstream = Flux.just(
+                        StreamChunk.content("훈민정음"),
+                        StreamChunk.content("은 "),
+                        StreamChunk.content("1443년"),
+                        StreamChunk.builder().type(StreamChunk.TYPE_USAGE).usage(Map.of("output_tokens", 7)).build(),
+                        StreamChunk.done())
+                // 청크 간격은 호출 스레드에서 만든다 - delayElements 는 다른 스레드에서 완료되어
+                // blockLast 가 doFinally(소요 시간/토큰 기록)보다 먼저 돌아올 수 있다
+                .doOnNext(chunk -> LockSupport.parkNanos(Duration.ofMillis(5).toNanos()));
+
+        metrics.instrument(GatewayHedger.PROMPT, promptClass, upstream).blockLast();
+
+        assertThat(promptClass).isEqualTo("고조선");
+        assertThat(registry.get("fastapi.stream.ttft").tag("prompt_class", "고조선").timer().count()).isEqualTo(1);
+        assertThat(registry.get("fastapi.stream.inter.token").tag("endpoint", "prompt").timer().count()).isEqualTo(2);
+        // 12 + 4 + 7 바이트 (한글 3바이트)
+        assertThat(registry.get("fastapi.stream.bytes").counter().count()).isEqualTo(23);
+        // usage 청크가 있으면 content 청크 수(3) 대신 output_tokens 를 쓴다
+        assertThat(registry.get("fastapi.stream.tokens").counter().count()).isEqualTo(7);
+        assertThat(registry.get("fastapi.stream.tokens.per.second").summary().count()).isEqualTo(1);
+        assertThat(registry.get("fastapi.stream.duration").tag("outcome", "complete").timer().count()).isEqualTo(1);
+        assertThat(registry.get("fastapi.stream.active").gauge().value()).isZero();
+    }
+
+    @Test
+    void classifiesErrorsAndCapsPromptClassTags() {
+        metrics.instrument(GatewayHedger.PROMPT, metrics.promptClass("UNKNOWN01"),
+                Flux.<StreamChunk>error(new GatewayUnavailableException("overloaded", Duration.ofSeconds(1))))
+                .onErrorComplete()
+                .blockLast();
+        metrics.instrument(GatewayHedger.PROMPT, "고조선", Flux.just(StreamChunk.error("throttled"))).blockLast();
+        // 상한(2)을 넘는 세 번째 값은 other 로 묶인다
+        metrics.instrument(GatewayHedger.PROMPT, "조선시대",
+                Flux.<StreamChunk>error(new TimeoutException()))
+                .onErrorComplete()
+                .blockLast();
+
+        assertThat(registry.get("fastapi.stream.errors").tag("prompt_class", "unknown").tag("type", "overloaded")
+                .counter().count()).isEqualTo(1);
+        assertThat(registry.get("fastapi.stream.errors").tag("prompt_class", "고조선").tag("type", "gateway-error")
+                .counter().count()).isEqualTo(1);
+        assertThat(registry.get("fastapi.stream.errors").tag("prompt_class", "other").tag("type", "timeout")
+                .counter().count()).isEqualTo(1);
+        assertThat(registry.find("fastapi.stream.ttft").tag("prompt_class", "조선시대").timer()).isNull();
+        // 게이트웨이 error 청크는 스트림을 정상 종료시키므로 결과는 complete 로 남는다
+        assertThat(registry.get("fastapi.stream.duration").tag("prompt_class", "고조선").tag("outcome", "complete")
+                .timer().count()).isEqualTo(1);
+        assertThat(registry.get("fastapi.stream.duration").tag("prompt_class", "other").tag("outcome", "error")
+                .timer().count()).isEqualTo(1);
+    }
+}
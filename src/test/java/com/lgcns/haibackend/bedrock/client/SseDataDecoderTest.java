@@ -0,0 +1,38 @@
+package com.lgcns.haibackend.bedrock.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class SseDataDecoderTest {
+
+    @Test
+    void decodesMultibyteTextSplitAcrossBuffers() {
+        byte[] bytes = "data: {\"text\": \"훈민정음\"}\n\n".getBytes(StandardCharsets.UTF_8);
+        SseDataDecoder decoder = new SseDataDecoder();
+        List<String> out = new ArrayList<>();
+
+        // 한 바이트씩 흘려보내서 모든 UTF-8 시퀀스가 버퍼 경계에서 잘리도록 한다
+        for (int i = 0; i < bytes.length; i++) {
+            out.addAll(decoder.decode(bytes, i, 1));
+        }
+
+        assertThat(out).containsExactly("{\"text\": \"훈민정음\"}");
+    }
+
+    @Test
+    void handlesCrlfCommentsAndTrailingLineWithoutNewline() {
+        byte[] bytes = ": ping\r\ndata: first\r\n\r\nevent: x\ndata:second\n\ndata: last"
+                .getBytes(StandardCharsets.UTF_8);
+        SseDataDecoder decoder = new SseDataDecoder();
+
+        List<String> out = new ArrayList<>(decoder.decode(bytes, 0, bytes.length));
+        out.addAll(decoder.flush());
+
+        assertThat(out).containsExactly("first", "second", "last");
+    }
+}
@@ -0,0 +1,156 @@
+package com.lgcns.haibackend.bedrock.context;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.lgcns.haibackend.bedrock.domain.dto.MessageDTO;
+import com.lgcns.haibackend.common.redis.RedisChatRepository;
+import com.lgcns.haibackend.common.redis.RollingSummary;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.scheduler.Schedulers;
+
+class ContextAssemblerTest {
+
+    private static final UUID USER_ID = UUID.fromString("11111111-1111-1111-1111-111111111111");
+    private static final String KEY = "chatbot:chat:" + USER_ID;
+
+    private static final int TOKEN_BUDGET = 400;
+    private static final int SUMMARY_TOKEN_BUDGET = 120;
+
+    // Redis 리스트 / 요약 hash 대신 쓰는 메모리 저장소 (maxMessages 를 넘으면 append 스크립트처럼 앞에서 잘라낸다)
+    private final List<MessageDTO> history = new ArrayList<>();
+    private final AtomicReference<RollingSummary> summary = new AtomicReference<>();
+    private long appended;
+    private int maxMessages = Integer.MAX_VALUE;
+
+    private ContextAssembler assembler;
+
+    @BeforeEach
+    void setUp() {
+        RedisChatRepository repository = mock(RedisChatRepository.class);
+        when(repository.getMessages(KEY)).thenAnswer(invocation -> new ArrayList<>(history));
+        when(repository.getSummary(KEY)).thenAnswer(invocation -> {
+            RollingSummary saved = summary.get();
+            return saved != null ? new RollingSummary(saved.getText(), saved.getFoldedCount(), appended)
+                    : new RollingSummary(null, 0, appended);
+        });
+        doAnswer(invocation -> {
+            summary.set(invocation.getArgument(2));
+            return null;
+        }).when(repository).saveSummary(any(), anyString(), any());
+
+        assembler = new ContextAssembler(repository, Schedulers.immediate(), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(assembler, "enabled", true);
+        ReflectionTestUtils.setField(assembler, "maxTurns", 6);
+        ReflectionTestUtils.setField(assembler, "tokenBudget", TOKEN_BUDGET);
+        ReflectionTestUtils.setField(assembler, "summaryTokenBudget", SUMMARY_TOKEN_BUDGET);
+        assembler.initMetrics();
+    }
+
+    private void append(MessageDTO message) {
+        history.add(message);
+        appended++;
+        while (history.size() > maxMessages) {
+            history.remove(0);
+        }
+    }
+
+    @Test
+    void contextTokensStayFlatAsConversationGrows() {
+        List<Integer> tokensPerTurn = new ArrayList<>();
+        for (int turn = 0; turn < 30; turn++) {
+            ConversationContext context = assembler.assemble(USER_ID, KEY).block();
+            tokensPerTurn.add(context.getEstimatedTokens());
+
+            if (!context.getHistory().isEmpty()) {
+                assertThat(context.getHistory().get(0).getRole()).isEqualTo("user");
+            }
+            append(MessageDTO.user(turn + "번째 질문: 세종대왕은 어떤 업적을 남겼나요? Please answer briefly."));
+            append(MessageDTO.assistant("세종대왕은 훈민정음을 창제했습니다. 또한 측우기와 해시계 같은 과학 기구를 "
+                    + "만들게 했고, 집현전을 통해 학문을 장려했습니다. " + "이 답변은 길이를 늘리기 위한 문장입니다. ".repeat(5)));
+        }
+
+        assertThat(tokensPerTurn).allSatisfy(tokens ->
+                assertThat(tokens).isLessThanOrEqualTo(TOKEN_BUDGET + SUMMARY_TOKEN_BUDGET));
+        // 예산이 찬 뒤로는 대화가 길어져도 토큰이 늘지 않는다
+        assertThat(tokensPerTurn.get(29)).isLessThanOrEqualTo(tokensPerTurn.get(15));
+    }
+
+    @Test
+    void olderTurnsAreFoldedIntoCachedSummaryIncrementally() {
+        for (int turn = 0; turn < 10; turn++) {
+            append(MessageDTO.user("질문 " + turn));
+            append(MessageDTO.assistant("답변 " + turn + ". 자세한 설명은 생략합니다."));
+        }
+
+        ConversationContext first = assembler.assemble(USER_ID, KEY).block();
+        // 최근 6턴만 그대로, 나머지 4턴은 요약으로
+        assertThat(first.getHistory()).hasSize(12);
+        assertThat(first.getHistory().get(0).getContent()).isEqualTo("질문 4");
+        assertThat(first.getSummary()).isEqualTo(String.join("\n",
+                "Q: 질문 0", "A: 답변 0.", "Q: 질문 1", "A: 답변 1.",
+                "Q: 질문 2", "A: 답변 2.", "Q: 질문 3", "A: 답변 3."));
+
+        // 한 턴이 더 쌓이면 새로 밀려난 턴만 캐시된 요약 뒤에 붙는다
+        append(MessageDTO.user("질문 10"));
+        append(MessageDTO.assistant("답변 10."));
+        ConversationContext second = assembler.assemble(USER_ID, KEY).block();
+
+        assertThat(second.getHistory().get(0).getContent()).isEqualTo("질문 5");
+        assertThat(second.getSummary()).isEqualTo(first.getSummary() + "\nQ: 질문 4\nA: 답변 4.");
+        assertThat(summary.get().getText()).isEqualTo(second.getSummary());
+        assertThat(second.digest()).isNotEqualTo(first.digest());
+    }
+
+    @Test
+    void repeatedMessagesAreFoldedByPositionAfterTrimming() {
+        maxMessages = 20;
+        for (int turn = 0; turn < 30; turn++) {
+            // 같은 질문/답변이 반복돼도 위치로 기억하므로 사이의 턴을 건너뛰지 않는다
+            boolean repeat = turn % 3 == 0;
+            append(MessageDTO.user(repeat ? "계속" : "질문 " + turn));
+            append(MessageDTO.assistant(repeat ? "이어서 말하겠소." : "답변 " + turn + "."));
+            ConversationContext context = assembler.assemble(USER_ID, KEY).block();
+
+            if (turn >= 7) {
+                // 창은 최근 6턴, 그 앞의 두 턴은 요약의 마지막 네 줄에 순서대로 있어야 한다
+                List<String> lines = List.of(context.getSummary().split("\n"));
+                assertThat(lines.subList(lines.size() - 4, lines.size()))
+                        .containsExactly(summaryLines(turn - 7).get(0), summaryLines(turn - 7).get(1),
+                                summaryLines(turn - 6).get(0), summaryLines(turn - 6).get(1));
+                assertThat(lines).filteredOn(line -> line.startsWith("Q: 질문")).doesNotHaveDuplicates();
+            }
+        }
+    }
+
+    private static List<String> summaryLines(int turn) {
+        return turn % 3 == 0 ? List.of("Q: 계속", "A: 이어서 말하겠소.")
+                : List.of("Q: 질문 " + turn, "A: 답변 " + turn + ".");
+    }
+
+    @Test
+    void digestSeparatesContextsWithSameText() {
+        ConversationContext a = new ConversationContext(
+                List.of(MessageDTO.user("ab"), MessageDTO.assistant("c")), null, 0);
+        ConversationContext b = new ConversationContext(
+                List.of(MessageDTO.user("a"), MessageDTO.assistant("bc")), null, 0);
+
+        assertThat(a.digest()).startsWith(":").hasSize(33).isNotEqualTo(b.digest());
+        assertThat(a.digest()).isEqualTo(new ConversationContext(
+                List.of(MessageDTO.user("ab"), MessageDTO.assistant("c")), null, 0).digest());
+    }
+}
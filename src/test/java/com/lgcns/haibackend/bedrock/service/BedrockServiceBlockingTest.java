@@ -0,0 +1,103 @@
+package com.lgcns.haibackend.bedrock.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.lgcns.haibackend.bedrock.cache.CachedAnswer;
+import com.lgcns.haibackend.bedrock.cache.KnowledgeAnswerCache;
+import com.lgcns.haibackend.bedrock.client.LlmGateway;
+import com.lgcns.haibackend.bedrock.client.GatewayHealthMonitor;
+import com.lgcns.haibackend.bedrock.client.GatewayRequestCoalescer;
+import com.lgcns.haibackend.bedrock.context.ContextAssembler;
+import com.lgcns.haibackend.bedrock.context.ConversationContext;
+import com.lgcns.haibackend.bedrock.domain.dto.StreamChunk;
+import com.lgcns.haibackend.common.redis.ChatHistoryWriter;
+import com.lgcns.haibackend.common.tracing.StreamObservations;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockingOperationError;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * 채팅 스트림이 Reactor non-blocking 스레드(parallel / Netty 이벤트 루프)에서 블로킹 호출을 하지 않는지 BlockHound 로 검증
+ */
+class BedrockServiceBlockingTest {
+
+    private KnowledgeAnswerCache answerCache;
+    private ChatHistoryWriter chatHistoryWriter;
+    private ContextAssembler contextAssembler;
+
+    @BeforeAll
+    static void installBlockHound() {
+        BlockHound.install();
+    }
+
+    @BeforeEach
+    void setUp() {
+        answerCache = mock(KnowledgeAnswerCache.class);
+        chatHistoryWriter = mock(ChatHistoryWriter.class);
+        contextAssembler = mock(ContextAssembler.class);
+
+        // 첫 질문 (이전 대화 없음) - 답변 캐시 경로를 탄다
+        when(contextAssembler.assemble(any(), anyString())).thenReturn(Mono.just(ConversationContext.EMPTY));
+
+        // 동기 RedisTemplate 호출을 흉내 내는 블로킹 캐시 조회
+        when(answerCache.lookup(anyString())).thenAnswer(invocation -> {
+            Thread.sleep(5);
+            return new CachedAnswer("세종대왕은 훈민정음을 창제했다.", 1200);
+        });
+        when(answerCache.replay(any())).thenReturn(Flux.just(StreamChunk.content("세종대왕은 "),
+                StreamChunk.content("훈민정음을 창제했다.")));
+    }
+
+    @Test
+    void blockingCallsRunOnBlockingScheduler() {
+        BedrockService service = newService(Schedulers.boundedElastic());
+
+        List<StreamChunk> chunks = streamOnEventLoop(service).collectList().block();
+
+        assertThat(chunks).extracting(StreamChunk::getText)
+                .containsExactly("세종대왕은 ", "훈민정음을 창제했다.");
+    }
+
+    @Test
+    void blockHoundRejectsBlockingCallOnReactorThread() {
+        // 스케줄러를 건너뛰면 캐시 조회가 parallel 스레드에서 실행되어야 하고, BlockHound 가 이를 잡아낸다
+        BedrockService service = newService(Schedulers.immediate());
+
+        assertThatThrownBy(() -> streamOnEventLoop(service).blockLast())
+                .hasRootCauseInstanceOf(BlockingOperationError.class);
+    }
+
+    // Netty 이벤트 루프처럼 non-blocking 으로 표시된 parallel 스레드에서 스트림을 구독
+    private Flux<StreamChunk> streamOnEventLoop(BedrockService service) {
+        UUID userId = UUID.randomUUID();
+        return Mono.just("세종대왕이 만든 문자는?")
+                .subscribeOn(Schedulers.parallel())
+                .flatMapMany(query -> service.retrieveFromKnowledgeBase(query, userId));
+    }
+
+    private BedrockService newService(Scheduler blockingScheduler) {
+        BedrockService service = new BedrockService(chatHistoryWriter, mock(LlmGateway.class), answerCache, mock(GatewayRequestCoalescer.class),
+                new SimpleMeterRegistry(), blockingScheduler, contextAssembler, mock(GatewayHealthMonitor.class),
+                new StreamObservations(ObservationRegistry.NOOP));
+        service.initMetrics();
+        return service;
+    }
+}
@@ -0,0 +1,88 @@
+package com.lgcns.haibackend.bedrock.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.lgcns.haibackend.bedrock.cache.KnowledgeAnswerCache;
+import com.lgcns.haibackend.bedrock.client.GatewayHealthMonitor;
+import com.lgcns.haibackend.bedrock.client.GatewayRequestCoalescer;
+import com.lgcns.haibackend.bedrock.client.LlmGateway;
+import com.lgcns.haibackend.bedrock.context.ContextAssembler;
+import com.lgcns.haibackend.bedrock.context.ConversationContext;
+import com.lgcns.haibackend.bedrock.domain.dto.StreamChunk;
+import com.lgcns.haibackend.common.redis.ChatHistoryWriter;
+import com.lgcns.haibackend.common.tracing.StreamObservations;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+class BedrockServiceTest {
+
+    private KnowledgeAnswerCache answerCache;
+    private ChatHistoryWriter chatHistoryWriter;
+    private LlmGateway llmGateway;
+    private BedrockService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        answerCache = mock(KnowledgeAnswerCache.class);
+        chatHistoryWriter = mock(ChatHistoryWriter.class);
+        llmGateway = mock(LlmGateway.class);
+        ContextAssembler contextAssembler = mock(ContextAssembler.class);
+        GatewayRequestCoalescer requestCoalescer = mock(GatewayRequestCoalescer.class);
+
+        // 첫 질문 + 캐시 미스 - 게이트웨이 답변이 답변 캐시에 저장되는 경로
+        when(contextAssembler.assemble(any(), anyString())).thenReturn(Mono.just(ConversationContext.EMPTY));
+        when(requestCoalescer.coalesce(anyString(), any()))
+                .thenAnswer(invocation -> ((Supplier<Flux<StreamChunk>>) invocation.getArgument(1)).get());
+
+        service = new BedrockService(chatHistoryWriter, llmGateway, answerCache, requestCoalescer,
+                new SimpleMeterRegistry(), Schedulers.immediate(), contextAssembler, mock(GatewayHealthMonitor.class),
+                new StreamObservations(ObservationRegistry.NOOP));
+        service.initMetrics();
+    }
+
+    @Test
+    void completedAnswerIsSavedAndCached() {
+        when(llmGateway.retrieveFromKnowledgeBaseStream(any())).thenReturn(Flux.just(
+                StreamChunk.content("훈민정음은 "), StreamChunk.content("1443년에 만들어졌다."), StreamChunk.done()));
+
+        service.retrieveFromKnowledgeBase("훈민정음은 언제 만들어졌나요?", UUID.randomUUID()).blockLast();
+
+        verify(chatHistoryWriter).saveTurn(any(), anyString(), any(), any());
+        verify(answerCache).put(anyString(), any(), any());
+    }
+
+    @Test
+    void gatewayErrorFrameIsNeitherSavedNorCached() {
+        // 답변 도중 error 프레임이 오고 스트림은 정상 완료된다 (FastAPI 게이트웨이의 Bedrock 실패)
+        when(llmGateway.retrieveFromKnowledgeBaseStream(any())).thenReturn(Flux.just(
+                StreamChunk.content("훈민정음은 "), StreamChunk.error("ThrottlingException"), StreamChunk.done()));
+
+        List<StreamChunk> chunks = service.retrieveFromKnowledgeBase("훈민정음은 언제 만들어졌나요?", UUID.randomUUID())
+                .collectList()
+                .block();
+
+        // 클라이언트에는 error 프레임을 그대로 흘려보낸다
+        assertThat(chunks).extracting(StreamChunk::getType)
+                .containsExactly(StreamChunk.TYPE_CONTENT, StreamChunk.TYPE_ERROR, StreamChunk.TYPE_DONE);
+        verify(chatHistoryWriter, never()).saveTurn(any(), anyString(), any(), any());
+        verify(answerCache, never()).put(anyString(), any(), any());
+    }
+}
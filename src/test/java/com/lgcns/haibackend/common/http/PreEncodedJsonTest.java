@@ -0,0 +1,42 @@
+package com.lgcns.haibackend.common.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+class PreEncodedJsonTest {
+
+    private final PreEncodedJson json = PreEncodedJson.of("[{\"name\":\"세종대왕\"}]".getBytes(StandardCharsets.UTF_8));
+
+    @Test
+    void givesEachRepresentationItsOwnEtag() {
+        ResponseEntity<byte[]> gzip = json.toResponse(null, "gzip, deflate, br");
+        ResponseEntity<byte[]> identity = json.toResponse(null, null);
+
+        assertThat(gzip.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(gzip.getHeaders().getETag()).isEqualTo(json.getGzipEtag());
+        assertThat(identity.getHeaders().getETag()).isEqualTo(json.getEtag());
+        assertThat(json.getGzipEtag()).isNotEqualTo(json.getEtag());
+
+        // 원본 표현의 ETag 로 gzip 표현에 조건부 요청하면 304 가 아니다
+        assertThat(json.toResponse(json.getEtag(), "gzip").getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(json.toResponse(json.getGzipEtag(), "gzip").getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(json.toResponse(json.getEtag(), "identity").getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    void honoursAcceptEncodingQValues() {
+        assertThat(PreEncodedJson.acceptsGzip("gzip")).isTrue();
+        assertThat(PreEncodedJson.acceptsGzip("deflate, GZIP;q=0.5")).isTrue();
+        assertThat(PreEncodedJson.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(PreEncodedJson.acceptsGzip("gzip; q=0.000, *")).isFalse();
+        assertThat(PreEncodedJson.acceptsGzip("*;q=0.1")).isTrue();
+        assertThat(PreEncodedJson.acceptsGzip("br, identity")).isFalse();
+        assertThat(PreEncodedJson.acceptsGzip(null)).isFalse();
+    }
+}
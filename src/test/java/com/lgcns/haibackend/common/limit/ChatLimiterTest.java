@@ -0,0 +1,88 @@
+package com.lgcns.haibackend.common.limit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ChatLimiterTest {
+
+    private ChatLimitProperties properties;
+    private LocalChatLimiterBackend backend;
+    private ChatLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ChatLimitProperties();
+        properties.setUser(new LimitPolicy(60, 3, 2));
+        backend = new LocalChatLimiterBackend(properties);
+        limiter = new ChatLimiter(properties, backend, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void rejectsAfterBurstWithRetryAfterUntilNextToken() {
+        LimitScope scope = new LimitScope("user", "user:a", new LimitPolicy(60, 3, 0));
+        long now = 0;
+
+        for (int i = 0; i < 3; i++) {
+            backend.acquire(List.of(scope), now);
+        }
+        assertThatThrownBy(() -> backend.acquire(List.of(scope), now))
+                .isInstanceOfSatisfying(ChatLimitExceededException.class, e -> {
+                    assertThat(e.getReason()).isEqualTo(LimitReason.RATE);
+                    // 분당 60회 -> 1초마다 토큰 하나
+                    assertThat(e.getRetryAfter()).isEqualTo(Duration.ofSeconds(1));
+                });
+
+        // 1초 뒤에는 토큰 하나만 다시 생긴다
+        long later = Duration.ofSeconds(1).toNanos();
+        backend.acquire(List.of(scope), later);
+        assertThatThrownBy(() -> backend.acquire(List.of(scope), later))
+                .isInstanceOf(ChatLimitExceededException.class);
+    }
+
+    @Test
+    void concurrentStreamSlotIsReturnedOnRelease() {
+        ChatPermit first = limiter.acquire("user-1", "STUDENT").block();
+        ChatPermit second = limiter.acquire("user-1", "STUDENT").block();
+
+        assertThatThrownBy(() -> limiter.acquire("user-1", "STUDENT").block())
+                .isInstanceOfSatisfying(ChatLimitExceededException.class,
+                        e -> assertThat(e.getReason()).isEqualTo(LimitReason.CONCURRENCY));
+        // 다른 사용자는 영향을 받지 않는다
+        limiter.acquire("user-2", "STUDENT").block();
+
+        first.release();
+        first.release();
+        limiter.acquire("user-1", "STUDENT").block();
+        assertThatThrownBy(() -> limiter.acquire("user-1", "STUDENT").block())
+                .isInstanceOf(ChatLimitExceededException.class);
+        second.release();
+    }
+
+    @Test
+    void roleTotalRejectionDoesNotConsumeUserAllowance() {
+        ChatLimitProperties.RoleLimits studentLimits = new ChatLimitProperties.RoleLimits();
+        studentLimits.setTotal(new LimitPolicy(0, 1, 1));
+        properties.setRoles(Map.of("STUDENT", studentLimits));
+
+        ChatPermit held = limiter.acquire("user-1", "STUDENT").block();
+        assertThatThrownBy(() -> limiter.acquire("user-2", "student").block())
+                .isInstanceOfSatisfying(ChatLimitExceededException.class,
+                        e -> assertThat(e.getScope()).isEqualTo("role"));
+
+        held.release();
+        // 역할 한도에 걸렸던 user-2 의 버킷/슬롯은 되돌려져 있다
+        ChatPermit permit = limiter.acquire("user-2", "STUDENT").block();
+        permit.release();
+        backend.evictIdle();
+        assertThat(backend.size()).isLessThanOrEqualTo(3);
+    }
+}
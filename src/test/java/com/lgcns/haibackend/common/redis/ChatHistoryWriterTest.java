@@ -0,0 +1,134 @@
+package com.lgcns.haibackend.common.redis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.lgcns.haibackend.bedrock.domain.dto.MessageDTO;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class ChatHistoryWriterTest {
+
+    private RedisChatRepository repository;
+    private SimpleMeterRegistry meterRegistry;
+    private ChatHistoryWriter writer;
+
+    // appendTurns 로 실제 저장된 턴의 key (호출 순서대로)
+    private final List<String> writtenKeys = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(RedisChatRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        writer = new ChatHistoryWriter(repository, meterRegistry);
+        ReflectionTestUtils.setField(writer, "writeMode", ChatHistoryWriteMode.WRITE_BEHIND);
+        ReflectionTestUtils.setField(writer, "queueCapacity", 1000);
+        ReflectionTestUtils.setField(writer, "batchSize", 50);
+        ReflectionTestUtils.setField(writer, "overflowPolicy", QueueOverflowPolicy.DROP_NEWEST);
+        ReflectionTestUtils.setField(writer, "maxRetries", 3);
+        ReflectionTestUtils.setField(writer, "retryBackoff", Duration.ofMillis(1));
+        ReflectionTestUtils.setField(writer, "shutdownTimeout", Duration.ofSeconds(5));
+        writer.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        writer.stop();
+    }
+
+    @Test
+    void stopDrainsQueuedTurnsInBatches() throws Exception {
+        // 첫 배치가 Redis 에서 잠시 막혀 있는 동안 나머지 턴이 큐에 쌓인다
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.appendTurns(anyList())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            List<ChatTurn> turns = invocation.getArgument(0);
+            turns.forEach(turn -> writtenKeys.add(turn.getKey()));
+            return Collections.emptyList();
+        });
+        writer.start();
+
+        for (int i = 0; i < 200; i++) {
+            writer.saveTurn(UUID.randomUUID(), "chatbot:chat:" + i, MessageDTO.user("q"), MessageDTO.assistant("a"));
+        }
+        release.countDown();
+        writer.stop();
+
+        assertThat(writtenKeys).hasSize(200);
+        assertThat(writtenKeys.get(0)).isEqualTo("chatbot:chat:0");
+        assertThat(meterRegistry.get("chat.history.flush.batch.size").summary().max()).isGreaterThan(1);
+        assertThat(meterRegistry.get("chat.history.queue.depth").gauge().value()).isZero();
+    }
+
+    @Test
+    void retriesOnlyFailedTurnsThenDropsAfterMaxRetries() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        when(repository.appendTurns(anyList())).thenAnswer(invocation -> {
+            List<ChatTurn> turns = invocation.getArgument(0);
+            calls.incrementAndGet();
+            List<ChatTurn> failed = new ArrayList<>();
+            for (ChatTurn turn : turns) {
+                // "poison" key 는 항상 실패, 나머지는 성공
+                if (turn.getKey().startsWith("poison")) {
+                    failed.add(turn);
+                } else {
+                    writtenKeys.add(turn.getKey());
+                }
+            }
+            return failed;
+        });
+        writer.start();
+
+        writer.saveTurn(UUID.randomUUID(), "ok", MessageDTO.user("q"), MessageDTO.assistant("a"));
+        writer.saveTurn(UUID.randomUUID(), "poison", MessageDTO.user("q"), MessageDTO.assistant("a"));
+        writer.stop();
+
+        assertThat(writtenKeys).containsExactly("ok");
+        assertThat(meterRegistry.get("chat.history.writes").tag("result", "retried").counter().count())
+                .isEqualTo(3);
+        assertThat(meterRegistry.get("chat.history.writes").tag("result", "dropped-error").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void turnOfferedWhileStoppingIsSavedInline() {
+        when(repository.appendTurns(anyList())).thenReturn(Collections.emptyList());
+        when(repository.appendTurnAsync(any(), any(), any(), any())).thenReturn(Mono.empty());
+        // saveTurn 이 running 을 확인한 뒤 offer 하기 전에 stop() 이 끝나 writer 가 이미 종료된 상황을 만든다
+        ArrayBlockingQueue<ChatTurn> queue = new ArrayBlockingQueue<>(1000) {
+            @Override
+            public boolean offer(ChatTurn turn) {
+                writer.stop();
+                return super.offer(turn);
+            }
+        };
+        ReflectionTestUtils.setField(writer, "queue", queue);
+        writer.start();
+
+        writer.saveTurn(UUID.randomUUID(), "late", MessageDTO.user("q"), MessageDTO.assistant("a"));
+
+        verify(repository).appendTurnAsync(any(), eq("late"), any(), any());
+        assertThat(queue).isEmpty();
+    }
+}
@@ -0,0 +1,44 @@
+package com.lgcns.haibackend.common.redis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lgcns.haibackend.bedrock.domain.dto.MessageDTO;
+
+class VersionedChatMessageCodecTest {
+
+    private final VersionedChatMessageCodec codec =
+            new VersionedChatMessageCodec(new ObjectMapper(), "compact", 64);
+
+    @Test
+    void roundTripsCompactMessagesWithAndWithoutCompression() {
+        String longAnswer = "나는 세종이다. 훈민정음은 백성을 가르치는 바른 소리라는 뜻이니라. ".repeat(20);
+        MessageDTO[] messages = {
+                MessageDTO.user("훈민정음은 왜 만드셨나요?"),
+                MessageDTO.assistant(longAnswer),
+                MessageDTO.system(""),
+                new MessageDTO("tool", "{\"k\":1}")
+        };
+
+        for (MessageDTO message : messages) {
+            byte[] bytes = codec.encode(message);
+            assertThat(bytes[0]).isEqualTo(CompactChatMessageCodec.VERSION_1);
+            assertThat(codec.decode(bytes)).isEqualTo(message);
+        }
+        // 긴 답변은 LZ4 로 압축되어 원문보다 작다
+        assertThat(codec.encode(MessageDTO.assistant(longAnswer)).length)
+                .isLessThan(longAnswer.getBytes(StandardCharsets.UTF_8).length / 2);
+    }
+
+    @Test
+    void readsLegacyJsonEntries() {
+        byte[] legacy = "{\"role\":\"assistant\",\"content\":\"고려를 세운 왕건이오.\"}"
+                .getBytes(StandardCharsets.UTF_8);
+
+        assertThat(codec.decode(legacy)).isEqualTo(MessageDTO.assistant("고려를 세운 왕건이오."));
+    }
+}
@@ -0,0 +1,141 @@
+package com.lgcns.haibackend.common.tracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.lgcns.haibackend.bedrock.domain.dto.StreamChunk;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.common.KeyValues;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.handler.DefaultTracingObservationHandler;
+import io.micrometer.tracing.handler.PropagatingSenderTracingObservationHandler;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.bridge.OtelPropagator;
+import io.micrometer.tracing.otel.bridge.OtelTracer;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.EventData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import reactor.core.publisher.Flux;
+
+class StreamObservationsTest {
+
+    private final InMemorySpanExporter exporter = InMemorySpanExporter.create();
+    private final AtomicReference<String> traceparent = new AtomicReference<>();
+
+    private HttpServer server;
+    private SdkTracerProvider tracerProvider;
+    private ObservationRegistry registry;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // 게이트웨이 스텁 - 받은 traceparent 헤더를 기억하고 SSE 두 청크를 돌려준다
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/chat/prompt", exchange -> {
+            traceparent.set(exchange.getRequestHeaders().getFirst("traceparent"));
+            byte[] body = "data: 훈민정음은\n\ndata: 1443년\n\n".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", MediaType.TEXT_EVENT_STREAM_VALUE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        // 앱과 같은 구성 (OTel SDK + Micrometer Tracing 브리지), 내보내기만 메모리로
+        tracerProvider = SdkTracerProvider.builder().addSpanProcessor(SimpleSpanProcessor.create(exporter)).build();
+        OpenTelemetrySdk openTelemetry = OpenTelemetrySdk.builder()
+                .setTracerProvider(tracerProvider)
+                .setPropagators(ContextPropagators.create(W3CTraceContextPropagator.getInstance()))
+                .build();
+        OtelCurrentTraceContext currentTraceContext = new OtelCurrentTraceContext();
+        OtelTracer tracer = new OtelTracer(openTelemetry.getTracer("test"), currentTraceContext, event -> { });
+        OtelPropagator propagator = new OtelPropagator(openTelemetry.getPropagators(), openTelemetry.getTracer("test"));
+
+        registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(new ObservationHandler.FirstMatchingCompositeObservationHandler(
+                new PropagatingSenderTracingObservationHandler<>(tracer, propagator),
+                new DefaultTracingObservationHandler(tracer)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        tracerProvider.close();
+    }
+
+    @Test
+    void chatTurnSpanParentsGatewayCallAndPropagatesTraceContext() {
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://127.0.0.1:" + server.getAddress().getPort())
+                .observationRegistry(registry)
+                .build();
+        Flux<StreamChunk> gateway = webClient.post()
+                .uri("/chat/prompt")
+                .bodyValue(Map.of("message", "훈민정음은 언제 만들어졌나요?"))
+                .retrieve()
+                .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<String>>() { })
+                .map(event -> StreamChunk.content(event.data()));
+
+        List<StreamChunk> chunks = new StreamObservations(registry)
+                .observe("chat.turn", "ai-person chat", KeyValues.of("endpoint", "ai-person"),
+                        KeyValues.of("prompt.id", "6C4ARC62GG"), gateway)
+                .collectList()
+                .block();
+
+        assertThat(chunks).extracting(StreamChunk::getText).containsExactly("훈민정음은", "1443년");
+
+        SpanData turn = span("ai-person chat");
+        SpanData http = exporter.getFinishedSpanItems().stream()
+                .filter(span -> span != turn)
+                .findFirst()
+                .orElseThrow();
+        assertThat(turn.getEvents()).extracting(EventData::getName)
+                .containsExactly(StreamObservations.FIRST_TOKEN, StreamObservations.COMPLETED);
+        assertThat(turn.getAttributes().asMap().toString()).contains("prompt.id=6C4ARC62GG");
+        // 게이트웨이 호출은 채팅 턴의 자식 span 이고, 같은 trace 가 traceparent 헤더로 넘어간다
+        assertThat(http.getParentSpanId()).isEqualTo(turn.getSpanId());
+        assertThat(http.getTraceId()).isEqualTo(turn.getTraceId());
+        assertThat(traceparent.get()).isEqualTo("00-" + turn.getTraceId() + "-" + http.getSpanId() + "-01");
+    }
+
+    @Test
+    void cancelledStreamEndsSpanWithCancelledEvent() {
+        new StreamObservations(registry)
+                .observe("chat.turn", "kb chat", KeyValues.of("endpoint", "kb"), KeyValues.empty(),
+                        Flux.just(StreamChunk.content("세종대왕은 "), StreamChunk.content("집현전을")))
+                .take(1)
+                .blockLast();
+
+        assertThat(span("kb chat").getEvents()).extracting(EventData::getName)
+                .containsExactly(StreamObservations.FIRST_TOKEN, StreamObservations.CANCELLED);
+    }
+
+    private SpanData span(String name) {
+        return exporter.getFinishedSpanItems().stream()
+                .filter(span -> span.getName().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+}